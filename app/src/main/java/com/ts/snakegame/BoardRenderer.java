@@ -0,0 +1,322 @@
+package com.ts.snakegame;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.level.Level;
+import com.ts.snakegame.logic.RenderSnapshot;
+import com.ts.snakegame.model.FoodType;
+import com.ts.snakegame.model.ObstacleType;
+import com.ts.snakegame.trace.Tracer;
+
+/**
+ * Draws the board of a RenderSnapshot onto any Canvas, with the board's
+ * top-left corner at the canvas origin
+ * Shared by GameView and the offscreen exporter. Keeps per-tick caches (the
+ * body path) and sets the sprites' bounds while drawing, so each thread that
+ * draws needs its own instance over its own GraphicsConfig
+ */
+public class BoardRenderer {
+    private static final FoodType[] FOOD_TYPES = FoodType.values();
+    private static final ObstacleType[] OBSTACLE_TYPES = ObstacleType.values();
+
+    // Flat colors for simple sprites (res/values/colors.xml)
+    private static final int GRASS_COLOR = 0xFF2E7D32;
+    private static final int HEAD_COLOR = 0xFF64DD17;
+    private static final int BODY_COLOR = 0xFF76FF03;
+    private static final int FOOD_COLOR = 0xFFFF1744;
+    private static final int OBSTACLE_COLOR = 0xFF6D4C41;
+
+    private final GraphicsConfig graphicsConfig;
+    private int cellSize;
+
+    // Smooth rendering: body as one stroked path, ends interpolated between ticks
+    private boolean smoothRendering = true;
+    private final Paint snakePaint;
+    private final Path bodyPath = new Path();
+    private final Path endsPath = new Path();
+    private final Rect tileBounds = new Rect();
+    private boolean simpleSprites;
+    private final Paint flatPaint = new Paint();
+    private long bodyPathTick = -1;
+    private int bodyPathLength;
+
+    public BoardRenderer(GraphicsConfig graphicsConfig, int cellSize) {
+        this.graphicsConfig = graphicsConfig;
+        this.cellSize = cellSize;
+
+        snakePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        snakePaint.setColor(0xFFFF6F00);
+        snakePaint.setStyle(Paint.Style.STROKE);
+        snakePaint.setStrokeCap(Paint.Cap.ROUND);
+        snakePaint.setStrokeJoin(Paint.Join.ROUND);
+    }
+
+    public void setCellSize(int cellSize) {
+        this.cellSize = cellSize;
+        invalidateCache();
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Snake body as a stroked path with interpolated ends, or one sprite per segment
+     */
+    public void setSmoothRendering(boolean smooth) {
+        this.smoothRendering = smooth;
+        invalidateCache();
+    }
+
+    public boolean isSmoothRendering() {
+        return smoothRendering;
+    }
+
+    /**
+     * Flat colored cells instead of sprites and grass tiles (cheapest to draw)
+     */
+    public void setSimpleSprites(boolean simple) {
+        this.simpleSprites = simple;
+    }
+
+    public boolean hasSimpleSprites() {
+        return simpleSprites;
+    }
+
+    /**
+     * Drop the cached body path (the snapshot sequence jumped, e.g. on rewind)
+     */
+    public void invalidateCache() {
+        bodyPathTick = -1;
+    }
+
+    /**
+     * Grass and level walls, then snake and items
+     * @param fraction Progress through the tick interval, 0..1 (1 draws the tick as is)
+     */
+    public void draw(Canvas canvas, RenderSnapshot frame, float fraction) {
+        drawBackground(canvas, frame);
+        drawPieces(canvas, frame, fraction);
+    }
+
+    /**
+     * Grass and level walls
+     */
+    public void drawBackground(Canvas canvas, RenderSnapshot frame) {
+        drawGrassBackground(canvas, frame);
+        if (frame.getLevel() != null) {
+            drawLevelWalls(canvas, frame);
+        }
+    }
+
+    /**
+     * Snake, obstacles and food, blinking the items about to expire
+     */
+    public void drawPieces(Canvas canvas, RenderSnapshot frame, float fraction) {
+        if (Tracer.enabled) Tracer.begin(Tracer.FRAME_SNAKE);
+        int snakeLength = frame.getSnakeLength();
+        if (smoothRendering && snakeLength > 1) {
+            drawSmoothSnake(canvas, frame, fraction);
+        } else {
+            for (int i = 0; i < snakeLength; i++) {
+                drawSnakeSegment(canvas, frame.getSegmentX(i), frame.getSegmentY(i), i, snakeLength);
+            }
+        }
+        if (Tracer.enabled) Tracer.end(Tracer.FRAME_SNAKE);
+
+        if (Tracer.enabled) Tracer.begin(Tracer.FRAME_ITEMS);
+        boolean blinkHidden = (frame.getTick() & 1) == 1;
+        int frameWidth = frame.getGridWidth();
+        for (int i = 0; i < frame.getObstacleCount(); i++) {
+            if (blinkHidden && isExpiring(frame, frame.getObstacleExpiryTick(i))) continue;
+            drawItem(canvas, graphicsConfig.getObstacleDrawable(OBSTACLE_TYPES[frame.getObstacleType(i)]),
+                    OBSTACLE_COLOR, frame.getObstacleCell(i), frameWidth);
+        }
+        for (int i = 0; i < frame.getFoodCount(); i++) {
+            if (blinkHidden && isExpiring(frame, frame.getFoodExpiryTick(i))) continue;
+            drawItem(canvas, graphicsConfig.getFoodDrawable(FOOD_TYPES[frame.getFoodType(i)]),
+                    FOOD_COLOR, frame.getFoodCell(i), frameWidth);
+        }
+        if (Tracer.enabled) Tracer.end(Tracer.FRAME_ITEMS);
+    }
+
+    private void drawGrassBackground(Canvas canvas, RenderSnapshot frame) {
+        if (simpleSprites) {
+            flatPaint.setColor(GRASS_COLOR);
+            canvas.drawRect(0, 0, frame.getGridWidth() * cellSize, frame.getGridHeight() * cellSize, flatPaint);
+            return;
+        }
+        Drawable tile = graphicsConfig.getGrassDrawable();
+        if (tile == null) {
+            return;
+        }
+        for (int x = 0; x < frame.getGridWidth(); x++) {
+            for (int y = 0; y < frame.getGridHeight(); y++) {
+                tileBounds.set(x * cellSize, y * cellSize, (x + 1) * cellSize, (y + 1) * cellSize);
+                tile.setBounds(tileBounds);
+                tile.draw(canvas);
+            }
+        }
+    }
+
+    /**
+     * Draw level walls straight from the level bitset (set bits only)
+     */
+    private void drawLevelWalls(Canvas canvas, RenderSnapshot frame) {
+        Level level = frame.getLevel();
+        int width = frame.getGridWidth();
+        int cells = width * frame.getGridHeight();
+        int words = level.getWallWordCount();
+        for (int w = 0; w < words; w++) {
+            long bits = level.getWallWord(w);
+            while (bits != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (cell >= cells) break;
+                int left = (cell % width) * cellSize;
+                int top = (cell / width) * cellSize;
+                if (simpleSprites) {
+                    drawFlatCell(canvas, left, top, OBSTACLE_COLOR);
+                    continue;
+                }
+                Drawable drawable = graphicsConfig.getObstacleDrawable(OBSTACLE_TYPES[level.getWallType(cell)]);
+                if (drawable == null) continue;
+                drawable.setBounds(left, top, left + cellSize, top + cellSize);
+                drawable.draw(canvas);
+            }
+        }
+    }
+
+    /**
+     * Draw the snake with interpolated head and tail
+     * The body between neck and tail only changes once per tick, so its path
+     * is rebuilt per tick; per frame only the two moving ends are re-pathed
+     */
+    private void drawSmoothSnake(Canvas canvas, RenderSnapshot frame, float fraction) {
+        int length = frame.getSnakeLength();
+        float half = cellSize / 2f;
+        snakePaint.setStrokeWidth(cellSize * 0.8f);
+
+        if (bodyPathTick != frame.getTick() || bodyPathLength != length) {
+            bodyPath.rewind();
+            for (int i = 1; i < length; i++) {
+                int segmentX = frame.getSegmentX(i);
+                int segmentY = frame.getSegmentY(i);
+                float x = segmentX * cellSize + half;
+                float y = segmentY * cellSize + half;
+                if (i == 1 || !isAdjacent(frame.getSegmentX(i - 1), frame.getSegmentY(i - 1), segmentX, segmentY)) {
+                    // Wrap-around seam: start a new sub-path instead of a line across the board
+                    bodyPath.moveTo(x, y);
+                } else {
+                    bodyPath.lineTo(x, y);
+                }
+            }
+            bodyPathTick = frame.getTick();
+            bodyPathLength = length;
+        }
+        canvas.drawPath(bodyPath, snakePaint);
+
+        int headCellX = frame.getSegmentX(0);
+        int headCellY = frame.getSegmentY(0);
+        int neckCellX = frame.getSegmentX(1);
+        int neckCellY = frame.getSegmentY(1);
+        int tailCellX = frame.getSegmentX(length - 1);
+        int tailCellY = frame.getSegmentY(length - 1);
+        int previousTailX = frame.getPreviousTailX();
+        int previousTailY = frame.getPreviousTailY();
+
+        float headX = headCellX * cellSize + half;
+        float headY = headCellY * cellSize + half;
+        endsPath.rewind();
+        if (isAdjacent(neckCellX, neckCellY, headCellX, headCellY)) {
+            float neckX = neckCellX * cellSize + half;
+            float neckY = neckCellY * cellSize + half;
+            headX = neckX + (headX - neckX) * fraction;
+            headY = neckY + (headY - neckY) * fraction;
+            endsPath.moveTo(neckX, neckY);
+            endsPath.lineTo(headX, headY);
+        }
+        if (isAdjacent(tailCellX, tailCellY, previousTailX, previousTailY)) {
+            float tailX = tailCellX * cellSize + half;
+            float tailY = tailCellY * cellSize + half;
+            float fromX = previousTailX * cellSize + half;
+            float fromY = previousTailY * cellSize + half;
+            endsPath.moveTo(fromX + (tailX - fromX) * fraction, fromY + (tailY - fromY) * fraction);
+            endsPath.lineTo(tailX, tailY);
+        }
+        canvas.drawPath(endsPath, snakePaint);
+
+        int headLeft = Math.round(headX - half);
+        int headTop = Math.round(headY - half);
+        if (simpleSprites) {
+            drawFlatCell(canvas, headLeft, headTop, HEAD_COLOR);
+            return;
+        }
+        Drawable headDrawable = graphicsConfig.getSnakeDrawable(GraphicsConfig.SnakeSegmentType.HEAD);
+        if (headDrawable != null) {
+            headDrawable.setBounds(headLeft, headTop, headLeft + cellSize, headTop + cellSize);
+            headDrawable.draw(canvas);
+        }
+    }
+
+    private static boolean isAdjacent(int ax, int ay, int bx, int by) {
+        return Math.abs(ax - bx) + Math.abs(ay - by) == 1;
+    }
+
+    private void drawSnakeSegment(Canvas canvas, int x, int y, int index, int snakeSize) {
+        if (simpleSprites) {
+            drawFlatCell(canvas, x * cellSize, y * cellSize, index == 0 ? HEAD_COLOR : BODY_COLOR);
+            return;
+        }
+        GraphicsConfig.SnakeSegmentType type;
+        if (index == 0) {
+            type = GraphicsConfig.SnakeSegmentType.HEAD;
+        } else if (index == snakeSize - 1) {
+            type = GraphicsConfig.SnakeSegmentType.TAIL;
+        } else {
+            type = GraphicsConfig.SnakeSegmentType.BODY;
+        }
+        Drawable drawable = graphicsConfig.getSnakeDrawable(type);
+        if (drawable == null) {
+            return;
+        }
+        int left = x * cellSize;
+        int top = y * cellSize;
+        drawable.setBounds(left, top, left + cellSize, top + cellSize);
+        drawable.draw(canvas);
+    }
+
+    /**
+     * True if an item with this expiry tick is inside the blink window
+     */
+    private static boolean isExpiring(RenderSnapshot frame, long expiryTick) {
+        return expiryTick >= 0 && expiryTick - frame.getTick() <= GameConfig.getInstance().expiryBlinkTicks;
+    }
+
+    /**
+     * Draw a board item sprite on its cell, or the flat color for simple sprites
+     */
+    private void drawItem(Canvas canvas, Drawable drawable, int flatColor, int cell, int width) {
+        int left = (cell % width) * cellSize;
+        int top = (cell / width) * cellSize;
+        if (simpleSprites) {
+            drawFlatCell(canvas, left, top, flatColor);
+            return;
+        }
+        if (drawable == null) {
+            return;
+        }
+        drawable.setBounds(left, top, left + cellSize, top + cellSize);
+        drawable.draw(canvas);
+    }
+
+    private void drawFlatCell(Canvas canvas, int left, int top, int color) {
+        flatPaint.setColor(color);
+        canvas.drawRect(left, top, left + cellSize, top + cellSize, flatPaint);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ts.snakegame;
+
+import androidx.lifecycle.ViewModel;
+
+import com.ts.snakegame.logic.SnakeGameLogic;
+
+/**
+ * Running game retained across configuration changes (rotation, split
+ * screen, folding): the engine, the pause state and the run clock
+ * Activity and GameView are recreated around it and only re-derive their
+ * layout, so a resize never restarts or reallocates the game
+ */
+public class GameSession extends ViewModel {
+
+    private SnakeGameLogic gameLogic;
+    private boolean paused = true;
+    private long playedMillis;
+    private long resumedAt;
+
+    /**
+     * Engine of the running game, or null until the first view has been sized
+     */
+    public SnakeGameLogic getGameLogic() {
+        return gameLogic;
+    }
+
+    public void setGameLogic(SnakeGameLogic gameLogic) {
+        this.gameLogic = gameLogic;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    // ===== Run Clock =====
+
+    /**
+     * Start measuring active play time (pauses are excluded from run duration)
+     */
+    public void startRunClock() {
+        resumedAt = System.currentTimeMillis();
+    }
+
+    public void stopRunClock() {
+        if (resumedAt > 0) {
+            playedMillis += System.currentTimeMillis() - resumedAt;
+            resumedAt = 0;
+        }
+    }
+
+    public void resetRunClock() {
+        playedMillis = 0;
+        resumedAt = 0;
+    }
+
+    public long getPlayedMillis() {
+        return playedMillis;
+    }
+
+    @Override
+    protected void onCleared() {
+        // Drop the last view's callbacks along with the game
+        if (gameLogic != null) {
+            gameLogic.setEventListener(null);
+        }
+    }
+}
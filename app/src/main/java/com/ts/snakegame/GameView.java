@@ -3,43 +3,120 @@ package com.ts.snakegame;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
-import android.graphics.Point;
-import android.graphics.Rect;
-import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
 
 import androidx.core.content.ContextCompat;
+import com.ts.snakegame.audio.SoundEffects;
 import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.input.SwipeRecognizer;
+import com.ts.snakegame.logic.RenderSnapshot;
+import com.ts.snakegame.logic.RunStats;
 import com.ts.snakegame.logic.SnakeGameLogic;
-import com.ts.snakegame.model.Food;
-import com.ts.snakegame.model.Obstacle;
-import java.util.List;
+import com.ts.snakegame.logic.SnapshotExchange;
+import com.ts.snakegame.model.FoodType;
+import com.ts.snakegame.quality.QualityGovernor;
+import com.ts.snakegame.quality.QualityLevel;
+import com.ts.snakegame.quality.SystemDeviceConditions;
+import com.ts.snakegame.trace.Tracer;
 
 /**
  * View layer for Snake Game - handles only rendering and user input
  * Game logic is delegated to SnakeGameLogic class
  */
 public class GameView extends View {
-        private static final int SWIPE_THRESHOLD = 100;
-    private static final int SWIPE_VELOCITY_THRESHOLD = 100;
+    /** A kept board may shrink its cells to this fraction of GRID_SIZE before it is remapped */
+    private static final float MIN_CELL_SCALE = 0.75f;
 
     private int cellSize;
     private int gridWidth;
     private int gridHeight;
+    // Top-left of the board inside the view (letterboxing when the grid is kept)
+    private int originX;
+    private int originY;
 
+    private GameSession session;
     private SnakeGameLogic gameLogic;
+    private final SnakeGameLogic.GameEventListener engineListener = new SnakeGameLogic.GameEventListener() {
+        @Override
+        public void onScoreChanged(int score) {
+            if (scoreChangeListener != null) {
+                scoreChangeListener.onScoreChange(score);
+            }
+            invalidate();
+        }
+
+        @Override
+        public void onGameOver(int finalScore) {
+            soundEffects.onGameOver();
+            if (gameOverListener != null) {
+                gameOverListener.onGameOver(finalScore);
+            }
+            invalidate();
+        }
+
+        @Override
+        public void onFoodEaten(FoodType foodType) {
+            soundEffects.onFoodEaten(foodType);
+            invalidate();
+        }
+
+        @Override
+        public void onObstacleHit() {
+            soundEffects.onObstacleHit();
+        }
+
+        @Override
+        public void onSpeedChanged(int newSpeed) {
+            soundEffects.onSpeedChanged(newSpeed);
+        }
+    };
     private boolean isPausedByUser;
 
+    // onDraw only reads published snapshots, never the engine's live state
+    private final SnapshotExchange snapshots = new SnapshotExchange();
+
     private Paint gameOverPaint;
     private Paint textPaint;
+    private Paint smallTextPaint;
+    private Paint pauseOverlayPaint;
+    private Paint pauseTextPaint;
+    private Paint scorePaint;
+
+    // Score label, rebuilt only when the drawn score changes
+    private String scoreText;
+    private int scoreTextValue = -1;
+
+    private BoardRenderer renderer;
+    private long lastTickUptime;
+
+    // Render quality follows device pressure; smoothPreferred is the caller's setting
+    private QualityGovernor qualityGovernor;
+    private boolean smoothPreferred = true;
+    // Re-reads thermal and battery state while attached, also when no frames are drawn
+    private final Runnable qualityCheck = new Runnable() {
+        @Override
+        public void run() {
+            if (GameConfig.getInstance().adaptiveQuality) {
+                qualityGovernor.evaluateIfDue(SystemClock.uptimeMillis());
+            }
+            postDelayed(this, QualityGovernor.EVALUATE_INTERVAL_MS);
+        }
+    };
 
     private OnScoreChangeListener scoreChangeListener;
     private OnGameOverListener gameOverListener;
     private GestureDetector gestureDetector;
+    private SwipeRecognizer swipeRecognizer;
+
+    // A second turn within one tick waits for the next tick instead of replacing the first
+    private boolean turnedThisTick;
+    private SnakeGameLogic.Direction queuedDirection;
     private GraphicsConfig graphicsConfig;
+    private final SoundEffects soundEffects = SoundEffects.getInstance();
 
     // Interfaces for MainActivity compatibility
     public interface OnScoreChangeListener {
@@ -76,85 +153,156 @@ public class GameView extends View {
         textPaint.setTextAlign(Paint.Align.CENTER);
         textPaint.setAntiAlias(true);
 
-        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
-            @Override
-            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-                if (gameLogic == null) return false;
-                float diffX = e2.getX() - e1.getX();
-                float diffY = e2.getY() - e1.getY();
-                if (Math.abs(diffX) > Math.abs(diffY)) {
-                    if (Math.abs(diffX) > SWIPE_THRESHOLD && Math.abs(velocityX) > SWIPE_VELOCITY_THRESHOLD) {
-                        if (diffX > 0) {
-                            gameLogic.setDirection(SnakeGameLogic.Direction.RIGHT);
-                        } else {
-                            gameLogic.setDirection(SnakeGameLogic.Direction.LEFT);
-                        }
-                    }
-                } else {
-                    if (Math.abs(diffY) > SWIPE_THRESHOLD && Math.abs(velocityY) > SWIPE_VELOCITY_THRESHOLD) {
-                        if (diffY > 0) {
-                            gameLogic.setDirection(SnakeGameLogic.Direction.DOWN);
-                        } else {
-                            gameLogic.setDirection(SnakeGameLogic.Direction.UP);
-                        }
-                    }
-                }
-                return true;
-            }
+        smallTextPaint = new Paint(textPaint);
+        smallTextPaint.setTextSize(40);
+
+        pauseOverlayPaint = new Paint();
+        pauseOverlayPaint.setColor(0x88000000);
+        pauseOverlayPaint.setStyle(Paint.Style.FILL);
+
+        pauseTextPaint = new Paint(textPaint);
+        pauseTextPaint.setTextSize(50);
+
+        scorePaint = new Paint();
+        scorePaint.setColor(0xFFFFFFFF);
+        scorePaint.setTextSize(48);
+        scorePaint.setTextAlign(Paint.Align.RIGHT);
+        scorePaint.setAntiAlias(true);
 
+        float density = context.getResources().getDisplayMetrics().density;
+        swipeRecognizer = new SwipeRecognizer(GameConfig.getInstance().swipeThresholdDp * density, this::onSwipe);
+
+        // Only taps remain for the detector; they become clicks, so the click
+        // listener (MainActivity's restart) is the one place that handles them
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
             @Override
             public boolean onSingleTapConfirmed(MotionEvent e) {
-                if (gameLogic != null && gameLogic.isGameOver()) {
-                    resetGame();
-                }
+                performClick();
                 return true;
             }
         });
 
-        graphicsConfig = new GraphicsConfig(context);
+        graphicsConfig = WarmUpCache.getInstance().obtainGraphicsConfig(context);
+        renderer = new BoardRenderer(graphicsConfig, GameConfig.GRID_SIZE);
+
+        qualityGovernor = new QualityGovernor(new SystemDeviceConditions(context));
+        qualityGovernor.setListener(this::applyQuality);
+        applyQuality(qualityGovernor.getLevel());
+    }
+
+    /**
+     * Switch effects, interpolation and sprites to a quality level
+     * The refresh cap is applied where the next frame is scheduled (onDraw)
+     */
+    private void applyQuality(QualityLevel level) {
+        renderer.setSmoothRendering(smoothPreferred && level.hasInterpolation());
+        renderer.setSimpleSprites(level.hasSimpleSprites());
+        if (level.hasTextShadow()) {
+            scorePaint.setShadowLayer(4, 2, 2, 0xFF000000);
+        } else {
+            scorePaint.clearShadowLayer();
+        }
+        invalidate();
     }
 
     @Override
-    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
-        super.onSizeChanged(w, h, oldw, oldh);
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        postDelayed(qualityCheck, QualityGovernor.EVALUATE_INTERVAL_MS);
+    }
 
-        gridWidth = w / GRID_SIZE;
-        gridHeight = h / GRID_SIZE;
-        cellSize = Math.min(w / gridWidth, h / gridHeight);
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(qualityCheck);
+        super.onDetachedFromWindow();
+    }
 
-        // Initialize game logic with grid dimensions
-        gameLogic = new SnakeGameLogic(gridWidth, gridHeight);
-        gameLogic.setEventListener(new SnakeGameLogic.GameEventListener() {
-            @Override
-            public void onScoreChanged(int score) {
-                if (scoreChangeListener != null) {
-                    scoreChangeListener.onScoreChange(score);
-                }
-                invalidate();
-            }
+    /**
+     * Play the session's game (created on first layout if it has none yet)
+     * Without a session the view keeps its own engine, which still survives resizes
+     */
+    public void setSession(GameSession session) {
+        this.session = session;
+        if (session.getGameLogic() != null) {
+            attachEngine(session.getGameLogic());
+        }
+    }
 
-            @Override
-            public void onGameOver(int finalScore) {
-                if (gameOverListener != null) {
-                    gameOverListener.onGameOver(finalScore);
-                }
-                invalidate();
-            }
+    private void attachEngine(SnakeGameLogic engine) {
+        gameLogic = engine;
+        gameLogic.setEventListener(engineListener);
+        gridWidth = gameLogic.getGridWidth();
+        gridHeight = gameLogic.getGridHeight();
+        publishFrame();
+    }
 
-            @Override
-            public void onFoodEaten() {
-                invalidate();
+    /**
+     * Hand the engine's state after its last change to the renderer
+     * Called on the thread that drives the engine, after every change; tools
+     * in this package that change the engine directly must call it too
+     */
+    void publishFrame() {
+        snapshots.publish(gameLogic, lastTickUptime);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        int fitWidth = Math.max(1, w / GameConfig.GRID_SIZE);
+        int fitHeight = Math.max(1, h / GameConfig.GRID_SIZE);
+
+        if (gameLogic == null) {
+            attachEngine(new SnakeGameLogic(fitWidth, fitHeight));
+            if (session != null) {
+                session.setGameLogic(gameLogic);
             }
-        });
+            updateViewport(w, h);
+            resetGame();
+            return;
+        }
+
+        // Keep the running game; remap it only when its cells would get too small
+        int keptCellSize = Math.min(w / gridWidth, h / gridHeight);
+        if (keptCellSize < GameConfig.GRID_SIZE * MIN_CELL_SCALE && gameLogic.getLevel() == null) {
+            gameLogic.resize(fitWidth, fitHeight);
+            gridWidth = fitWidth;
+            gridHeight = fitHeight;
+            publishFrame();
+        }
+        updateViewport(w, h);
+        invalidate();
+    }
 
-        resetGame();
+    /**
+     * Cell size and board origin for the current view size; the renderer
+     * drops its cached body path, the only state that depends on them
+     */
+    private void updateViewport(int w, int h) {
+        cellSize = Math.max(1, Math.min(w / gridWidth, h / gridHeight));
+        originX = (w - gridWidth * cellSize) / 2;
+        originY = (h - gridHeight * cellSize) / 2;
+        renderer.setCellSize(cellSize);
     }
 
     public void resetGame() {
         if (gameLogic == null) {
             return;
         }
+        // A new game takes the board size that fits the view, even if the last one was kept
+        int fitWidth = Math.max(1, getWidth() / GameConfig.GRID_SIZE);
+        int fitHeight = Math.max(1, getHeight() / GameConfig.GRID_SIZE);
+        if (getWidth() > 0 && gameLogic.getLevel() == null
+                && (fitWidth != gridWidth || fitHeight != gridHeight)) {
+            gameLogic.resize(fitWidth, fitHeight);
+            gridWidth = fitWidth;
+            gridHeight = fitHeight;
+            updateViewport(getWidth(), getHeight());
+        }
         gameLogic.reset();
+        publishFrame();
+        soundEffects.onReset();
+        turnedThisTick = false;
+        queuedDirection = null;
         isPausedByUser = true;
         invalidate();
 
@@ -169,13 +317,62 @@ public class GameView extends View {
         }
     }
 
+    private void onSwipe(SnakeGameLogic.Direction newDirection) {
+        if (gameLogic == null) return;
+        if (turnedThisTick) {
+            queuedDirection = newDirection;
+            return;
+        }
+        gameLogic.setDirection(newDirection);
+        turnedThisTick = true;
+    }
+
     public void update() {
         if (gameLogic != null) {
+            soundEffects.onTick();
             gameLogic.update();
+            turnedThisTick = false;
+            if (queuedDirection != null) {
+                onSwipe(queuedDirection);
+                queuedDirection = null;
+            }
+            lastTickUptime = SystemClock.uptimeMillis();
+            publishFrame();
             invalidate();
         }
     }
 
+    /**
+     * Take back the last GameConfig.rewindSeconds of play (power-up / debug)
+     * @return Number of ticks undone
+     */
+    public int rewind() {
+        if (gameLogic == null) {
+            return 0;
+        }
+        int steps = gameLogic.rewind(GameConfig.getInstance().rewindSeconds * 1000L);
+        publishFrame();
+        renderer.invalidateCache();
+        invalidate();
+        return steps;
+    }
+
+    /**
+     * Interpolate the snake between ticks and draw its body as a path
+     * (otherwise one sprite per segment, jumping a cell per tick)
+     */
+    public void setSmoothRendering(boolean smooth) {
+        smoothPreferred = smooth;
+        applyQuality(qualityGovernor.getLevel());
+    }
+
+    /**
+     * The caller's setting; the quality governor may still draw without interpolation
+     */
+    public boolean isSmoothRendering() {
+        return smoothPreferred;
+    }
+
     public boolean isGameOver() {
         return gameLogic != null && gameLogic.isGameOver();
     }
@@ -184,123 +381,81 @@ public class GameView extends View {
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        if (gridWidth == 0 || gridHeight == 0 || gameLogic == null) return;
+        RenderSnapshot frame = snapshots.acquire();
+        if (frame.getGridWidth() == 0 || frame.getGridHeight() == 0) return;
+        if (Tracer.enabled) Tracer.begin(Tracer.FRAME);
+        long drawStart = System.nanoTime();
 
         // Draw grass background
-        drawGrassBackground(canvas);
+        if (Tracer.enabled) Tracer.begin(Tracer.FRAME_BACKGROUND);
+        canvas.save();
+        canvas.translate(originX, originY);
+        renderer.drawBackground(canvas, frame);
+        canvas.restore();
 
         // Draw score counter in top-right corner
-        Paint scorePaint = new Paint();
-        scorePaint.setColor(0xFFFFFFFF);
-        scorePaint.setTextSize(48);
-        scorePaint.setTextAlign(Paint.Align.RIGHT);
-        scorePaint.setAntiAlias(true);
-        scorePaint.setShadowLayer(4, 2, 2, 0xFF000000);
-        canvas.drawText("Score: " + gameLogic.getScore(), getWidth() - 20, 60, scorePaint);
-
-        // Draw snake
-        List<Point> snake = gameLogic.getSnake();
-        for (int i = 0; i < snake.size(); i++) {
-            Point segment = snake.get(i);
-            drawSnakeSegment(canvas, segment, i, snake.size());
-        }
+        String score = scoreText(frame.getScore());
+        canvas.drawText(score, getWidth() - 20, 60, scorePaint);
+        if (Tracer.enabled) Tracer.end(Tracer.FRAME_BACKGROUND);
 
-        // Draw food
-        Point food = gameLogic.getFood();
-        if (food != null) {
-            drawFood(canvas, food);
-        }
+        // Draw snake, obstacles and food
+        canvas.save();
+        canvas.translate(originX, originY);
+        renderer.drawPieces(canvas, frame, interpolationFraction(frame));
+        canvas.restore();
 
         // Draw game over overlay
-        if (gameLogic.isGameOver()) {
+        if (Tracer.enabled) Tracer.begin(Tracer.FRAME_OVERLAYS);
+        if (frame.isGameOver()) {
             canvas.drawRect(0, 0, getWidth(), getHeight(), gameOverPaint);
 
             canvas.drawText("Game Over!", getWidth() / 2f, getHeight() / 2f - 50, textPaint);
-
-            Paint smallTextPaint = new Paint(textPaint);
-            smallTextPaint.setTextSize(40);
-            canvas.drawText("Score: " + gameLogic.getScore(), getWidth() / 2f, getHeight() / 2f + 30, smallTextPaint);
+            canvas.drawText(score, getWidth() / 2f, getHeight() / 2f + 30, smallTextPaint);
             canvas.drawText("Tap to Restart", getWidth() / 2f, getHeight() / 2f + 90, smallTextPaint);
         }
 
         // Draw pause overlay
-        if (isPausedByUser && !gameLogic.isGameOver()) {
-            Paint pauseOverlayPaint = new Paint();
-            pauseOverlayPaint.setColor(0x88000000);
-            pauseOverlayPaint.setStyle(Paint.Style.FILL);
+        if (isPausedByUser && !frame.isGameOver()) {
             canvas.drawRect(0, 0, getWidth(), getHeight(), pauseOverlayPaint);
-
-            Paint pauseTextPaint = new Paint(textPaint);
-            pauseTextPaint.setTextSize(50);
             canvas.drawText("Press Play to Start", getWidth() / 2f, getWidth() / 2f, pauseTextPaint);
         }
-    }
+        if (Tracer.enabled) Tracer.end(Tracer.FRAME_OVERLAYS);
 
-    private void drawGrassBackground(Canvas canvas) {
-        Drawable tile = graphicsConfig.getGrassDrawable();
-        if (tile == null) {
-            return;
-        }
-        Rect bounds = new Rect();
-        for (int x = 0; x < gridWidth; x++) {
-            for (int y = 0; y < gridHeight; y++) {
-                bounds.set(x * cellSize, y * cellSize, (x + 1) * cellSize, (y + 1) * cellSize);
-                tile.setBounds(bounds);
-                tile.draw(canvas);
-            }
+        if (GameConfig.getInstance().adaptiveQuality) {
+            qualityGovernor.onFrame(System.nanoTime() - drawStart, SystemClock.uptimeMillis());
         }
-    }
 
-    private void drawSnakeSegment(Canvas canvas, Point segment, int index, int snakeSize) {
-        GraphicsConfig.SnakeSegmentType type;
-        if (index == 0) {
-            type = GraphicsConfig.SnakeSegmentType.HEAD;
-        } else if (index == snakeSize - 1) {
-            type = GraphicsConfig.SnakeSegmentType.TAIL;
-        } else {
-            type = GraphicsConfig.SnakeSegmentType.BODY;
-        }
-        Drawable drawable = graphicsConfig.getSnakeDrawable(type);
-        if (drawable == null) {
-            return;
+        // Keep refreshing while the snake is moving between ticks, at display rate unless capped
+        if (renderer.isSmoothRendering() && !isPausedByUser && !frame.isGameOver()) {
+            int maxFramesPerSecond = qualityGovernor.getLevel().getMaxFramesPerSecond();
+            if (maxFramesPerSecond > 0) {
+                postInvalidateDelayed(1000 / maxFramesPerSecond);
+            } else {
+                postInvalidateOnAnimation();
+            }
         }
-        int left = segment.x * cellSize;
-        int top = segment.y * cellSize;
-        drawable.setBounds(left, top, left + cellSize, top + cellSize);
-        drawable.draw(canvas);
+        if (Tracer.enabled) Tracer.end(Tracer.FRAME);
     }
 
-    /**
-     * Draw food item with appropriate drawable for its type
-     */
-    private void drawFood(Canvas canvas, Food food) {
-        Drawable drawable = graphicsConfig.getFoodDrawable(food.getType());
-        if (drawable == null) {
-            return;
+    private String scoreText(int score) {
+        if (score != scoreTextValue) {
+            scoreText = "Score: " + score;
+            scoreTextValue = score;
         }
-        Point position = food.getPosition();
-        int left = position.x * cellSize;
-        int top = position.y * cellSize;
-        drawable.setBounds(left, top, left + cellSize, top + cellSize);
-        drawable.draw(canvas);
+        return scoreText;
     }
 
     /**
-     * Draw obstacle with appropriate drawable for its type
+     * Progress through the current tick interval, 0..1
      */
-    private void drawObstacle(Canvas canvas, Obstacle obstacle) {
-        Drawable drawable = graphicsConfig.getObstacleDrawable(obstacle.getType());
-        if (drawable == null) {
-            return;
+    private float interpolationFraction(RenderSnapshot frame) {
+        if (isPausedByUser || frame.isGameOver() || frame.getTickUptime() == 0) {
+            return 1f;
         }
-        Point position = obstacle.getPosition();
-        int left = position.x * cellSize;
-        int top = position.y * cellSize;
-        drawable.setBounds(left, top, left + cellSize, top + cellSize);
-        drawable.draw(canvas);
+        float elapsed = SystemClock.uptimeMillis() - frame.getTickUptime();
+        return Math.max(0f, Math.min(1f, elapsed / frame.getCurrentSpeed()));
     }
 
-
     public void setScoreChangeListener(OnScoreChangeListener listener) {
         this.scoreChangeListener = listener;
     }
@@ -322,9 +477,37 @@ public class GameView extends View {
         return gameLogic != null ? gameLogic.getScore() : 0;
     }
 
+    public int getSnakeLength() {
+        return gameLogic != null ? gameLogic.getSnakeLength() : 0;
+    }
+
+    /**
+     * Engine behind this view, for benchmarks and tools in this package
+     */
+    SnakeGameLogic getGameLogic() {
+        return gameLogic;
+    }
+
+    /**
+     * Counters of the current run, live (null before the first layout)
+     */
+    public RunStats getRunStats() {
+        return gameLogic != null ? gameLogic.getRunStats() : null;
+    }
+
+    public SnakeGameLogic.DeathCause getDeathCause() {
+        return gameLogic != null ? gameLogic.getDeathCause() : SnakeGameLogic.DeathCause.NONE;
+    }
+
+    /**
+     * Swipes turn the snake, taps click; super.onTouchEvent is not used so a
+     * swipe that ends the game never counts as a click on the way up
+     */
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        return gestureDetector.onTouchEvent(event) || super.onTouchEvent(event);
+        swipeRecognizer.onTouchEvent(event);
+        gestureDetector.onTouchEvent(event);
+        return true;
     }
 }
 
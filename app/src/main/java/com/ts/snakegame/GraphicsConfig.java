@@ -1,6 +1,9 @@
 package com.ts.snakegame;
 
 import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 
 import androidx.core.content.ContextCompat;
@@ -9,6 +12,7 @@ import com.ts.snakegame.model.FoodType;
 import com.ts.snakegame.model.ObstacleType;
 
 import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Graphics configuration class - manages drawable resources for game elements
@@ -49,6 +53,42 @@ public class GraphicsConfig {
         grassDrawable = ContextCompat.getDrawable(context, R.drawable.grass_tile);
     }
 
+    private GraphicsConfig(Context context, Drawable grassDrawable) {
+        this.context = context;
+        this.grassDrawable = grassDrawable;
+    }
+
+    /**
+     * Copy of this config with every sprite pre-rendered into a bitmap
+     * Vector paths are rasterized once here (safe on a background thread)
+     * instead of on the first frames that draw them
+     * @param cellSize Target sprite size in pixels
+     */
+    public GraphicsConfig rasterize(int cellSize) {
+        GraphicsConfig raster = new GraphicsConfig(context, rasterize(grassDrawable, cellSize));
+        rasterizeAll(snakeDrawables, raster.snakeDrawables, cellSize);
+        rasterizeAll(foodDrawables, raster.foodDrawables, cellSize);
+        rasterizeAll(obstacleDrawables, raster.obstacleDrawables, cellSize);
+        return raster;
+    }
+
+    private <K extends Enum<K>> void rasterizeAll(Map<K, Drawable> source, Map<K, Drawable> target, int cellSize) {
+        for (Map.Entry<K, Drawable> entry : source.entrySet()) {
+            target.put(entry.getKey(), rasterize(entry.getValue(), cellSize));
+        }
+    }
+
+    private Drawable rasterize(Drawable drawable, int cellSize) {
+        if (drawable == null) {
+            return null;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(cellSize, cellSize, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        drawable.setBounds(0, 0, cellSize, cellSize);
+        drawable.draw(canvas);
+        return new BitmapDrawable(context.getResources(), bitmap);
+    }
+
     public Drawable getSnakeDrawable(SnakeSegmentType type) {
         return snakeDrawables.get(type);
     }
@@ -1,5 +1,6 @@
 package com.ts.snakegame;
 
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.os.Handler;
 import android.widget.Button;
@@ -7,9 +8,15 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 
 import com.ts.snakegame.config.GameConfig;
 import com.ts.snakegame.logic.SnakeGameLogic;
+import com.ts.snakegame.storage.RunHistoryStore;
+import com.ts.snakegame.storage.RunRecord;
+import com.ts.snakegame.storage.RunStatsWriter;
+import com.ts.snakegame.trace.SystemTraceSink;
+import com.ts.snakegame.trace.Tracer;
 
 /**
  * Main Activity - handles game UI and game loop
@@ -24,9 +31,11 @@ public class MainActivity extends AppCompatActivity {
 
     private Handler gameHandler;
     private Runnable gameRunnable;
-    private boolean isPaused = true; // Start in paused mode
+    private GameSession session; // Engine, pause state and run clock survive recreation
     private int currentGameSpeed;
     private GameConfig config;
+    private RunHistoryStore runHistory;
+    private RunStatsWriter runStats;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -36,6 +45,13 @@ public class MainActivity extends AppCompatActivity {
         // Initialize configuration
         config = GameConfig.getInstance();
         currentGameSpeed = config.baseGameSpeed;
+        runHistory = RunHistoryStore.getInstance(getFilesDir());
+        runStats = RunStatsWriter.getInstance(getFilesDir());
+
+        // Debuggable builds expose tick and frame phases to system tracing
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            Tracer.install(new SystemTraceSink());
+        }
 
         // Initialize views
         gameView = findViewById(R.id.gameView);
@@ -46,12 +62,15 @@ public class MainActivity extends AppCompatActivity {
         btnLeft = findViewById(R.id.btnLeft);
         btnRight = findViewById(R.id.btnRight);
 
+        session = new ViewModelProvider(this).get(GameSession.class);
+        gameView.setSession(session);
+
         // Set up game handler and loop
         gameHandler = new Handler();
         gameRunnable = new Runnable() {
             @Override
             public void run() {
-                if (!isPaused && !gameView.isGameOver()) {
+                if (!session.isPaused() && !gameView.isGameOver()) {
                     gameView.update();
                     // Update speed dynamically based on score
                     currentGameSpeed = config.getCurrentSpeed(gameView.getScore());
@@ -73,6 +92,16 @@ public class MainActivity extends AppCompatActivity {
             @Override
             public void onGameOver(int finalScore) {
                 // Game loop will stop automatically
+                session.stopRunClock();
+                long now = System.currentTimeMillis();
+                runStats.submit(gameView.getRunStats(), now, config.getFingerprint());
+                runHistory.append(new RunRecord(
+                        now,
+                        finalScore,
+                        gameView.getSnakeLength(),
+                        session.getPlayedMillis(),
+                        config.getFingerprint(),
+                        gameView.getDeathCause()));
             }
         });
 
@@ -93,29 +122,32 @@ public class MainActivity extends AppCompatActivity {
         });
 
         // Initialize score display
-        tvScore.setText(getString(R.string.score, 0));
+        tvScore.setText(getString(R.string.score, gameView.getScore()));
 
-        // Initialize game in paused state
+        // Initialize game in paused state, or pick up the retained one as it was
         initGame();
     }
 
     /**
      * Initialize game in paused state
+     * After a configuration change the session's game continues; onResume
+     * restarts its loop if it was running
      */
     private void initGame() {
-        isPaused = true;
-        gameView.setPaused(true);
-        btnPause.setText("▶"); // Show play button initially
-        // Don't start game loop yet - wait for user to press play
+        gameView.setPaused(session.isPaused());
+        currentGameSpeed = config.getCurrentSpeed(gameView.getScore());
+        btnPause.setText(session.isPaused() ? "▶" : "||"); // Play button unless a retained game runs
+        // Don't start game loop here - onResume or the play button does
     }
 
     /**
      * Start the game loop
      */
     private void startGame() {
-        isPaused = false;
+        session.setPaused(false);
         btnPause.setText("||");
         currentGameSpeed = config.baseGameSpeed;
+        session.startRunClock();
         gameHandler.postDelayed(gameRunnable, currentGameSpeed);
     }
 
@@ -125,14 +157,17 @@ public class MainActivity extends AppCompatActivity {
     private void togglePause() {
         if (gameView.isGameOver()) return;
 
-        isPaused = !isPaused;
+        boolean isPaused = !session.isPaused();
+        session.setPaused(isPaused);
         gameView.setPaused(isPaused);
 
         if (isPaused) {
             btnPause.setText("▶");
+            session.stopRunClock();
             gameHandler.removeCallbacks(gameRunnable);
         } else {
             btnPause.setText("||");
+            session.startRunClock();
             gameHandler.postDelayed(gameRunnable, currentGameSpeed);
         }
     }
@@ -142,23 +177,26 @@ public class MainActivity extends AppCompatActivity {
      */
     private void restartGame() {
         gameView.resetGame();
-        isPaused = true;
+        session.setPaused(true);
         gameView.setPaused(true);
         btnPause.setText("▶");
         gameHandler.removeCallbacks(gameRunnable);
         currentGameSpeed = config.baseGameSpeed;
+        session.resetRunClock();
     }
 
     @Override
     protected void onPause() {
         super.onPause();
+        session.stopRunClock();
         gameHandler.removeCallbacks(gameRunnable);
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        if (!isPaused && !gameView.isGameOver()) {
+        if (!session.isPaused() && !gameView.isGameOver()) {
+            session.startRunClock();
             gameHandler.postDelayed(gameRunnable, currentGameSpeed);
         }
     }
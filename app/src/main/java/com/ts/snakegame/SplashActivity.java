@@ -27,6 +27,9 @@ public class SplashActivity extends AppCompatActivity {
             return insets;
         });
 
+        // Prepare sprites and engine in the background while the menu is shown
+        WarmUpCache.getInstance().start(this);
+
         btnPlay = findViewById(R.id.btnPlay);
         btnHowToPlay = findViewById(R.id.btnHowToPlay);
 
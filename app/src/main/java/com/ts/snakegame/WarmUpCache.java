@@ -0,0 +1,108 @@
+package com.ts.snakegame;
+
+import android.content.Context;
+import android.util.DisplayMetrics;
+
+import com.ts.snakegame.audio.SoundEffects;
+import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.logic.EngineWarmUp;
+import com.ts.snakegame.logic.SpawnTables;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-level cache of work done ahead of the first game frame
+ * Started from SplashActivity: sprites are inflated and rasterized, sound
+ * effects are decoded, config tables are built and the engine is exercised
+ * on background threads, so GameView only picks up finished results
+ */
+public final class WarmUpCache {
+
+    /** Ticks of headless play used to warm the engine */
+    private static final int WARM_UP_TICKS = 20000;
+
+    private static WarmUpCache instance;
+
+    private final ExecutorService executor;
+    private volatile GraphicsConfig graphicsConfig;
+    private volatile boolean engineWarm;
+    private boolean started;
+
+    private WarmUpCache() {
+        AtomicInteger index = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "warm-up-" + index.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get singleton instance of WarmUpCache
+     */
+    public static synchronized WarmUpCache getInstance() {
+        if (instance == null) {
+            instance = new WarmUpCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Kick off all warm-up work; later calls are ignored
+     */
+    public synchronized void start(Context context) {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        Context appContext = context.getApplicationContext();
+        DisplayMetrics metrics = appContext.getResources().getDisplayMetrics();
+        GameConfig config = GameConfig.getInstance();
+
+        // Sprites: inflate vectors and rasterize them at the expected cell size
+        executor.execute(() -> {
+            GraphicsConfig vectors = new GraphicsConfig(appContext);
+            graphicsConfig = vectors.rasterize(expectedCellSize());
+        });
+
+        // Sound: synthesize samples and hand them to SoundPool for decoding
+        executor.execute(() -> SoundEffects.getInstance().prepare(appContext));
+
+        // Engine: config-derived tables, then a short headless simulation
+        executor.execute(() -> {
+            SpawnTables.get(config);
+            int gridWidth = Math.max(4, metrics.widthPixels / GameConfig.GRID_SIZE);
+            int gridHeight = Math.max(4, metrics.heightPixels / GameConfig.GRID_SIZE);
+            EngineWarmUp.run(gridWidth, gridHeight, WARM_UP_TICKS);
+            engineWarm = true;
+        });
+    }
+
+    /**
+     * Cell size GameView will derive (it uses GRID_SIZE pixels per cell)
+     */
+    private static int expectedCellSize() {
+        return GameConfig.GRID_SIZE;
+    }
+
+    /**
+     * Graphics for a new GameView: the pre-rasterized set if it is ready,
+     * otherwise inflated synchronously as before
+     */
+    public GraphicsConfig obtainGraphicsConfig(Context context) {
+        GraphicsConfig ready = graphicsConfig;
+        return ready != null ? ready : new GraphicsConfig(context);
+    }
+
+    public boolean isGraphicsReady() {
+        return graphicsConfig != null;
+    }
+
+    public boolean isEngineWarm() {
+        return engineWarm;
+    }
+}
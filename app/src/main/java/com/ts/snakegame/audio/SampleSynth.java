@@ -0,0 +1,145 @@
+package com.ts.snakegame.audio;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Generates the game's sound effects as small 16-bit mono WAV files
+ * The app ships no audio assets; samples are synthesized once into the cache
+ * directory so SoundPool can decode them ahead of play
+ */
+public final class SampleSynth {
+
+    public static final int SAMPLE_RATE = 22050;
+
+    /** Bump when render() changes so cached files are synthesized again */
+    private static final int SYNTH_VERSION = 1;
+
+    private static final int HEADER_SIZE = 44;
+    private static final int ATTACK_SAMPLES = 64;
+
+    /**
+     * Description of one effect: a pitch sweep, optionally quantized into
+     * equal notes, or white noise
+     */
+    public static final class Tone {
+        final float startHz;
+        final float endHz;
+        final int millis;
+        final int notes;
+        final boolean noise;
+
+        public Tone(float startHz, float endHz, int millis, int notes, boolean noise) {
+            this.startHz = startHz;
+            this.endHz = endHz;
+            this.millis = millis;
+            this.notes = notes;
+            this.noise = noise;
+        }
+
+        /**
+         * Short hex key that changes with any parameter or the synth version
+         */
+        String cacheKey() {
+            int hash = SYNTH_VERSION;
+            hash = 31 * hash + Float.floatToIntBits(startHz);
+            hash = 31 * hash + Float.floatToIntBits(endHz);
+            hash = 31 * hash + millis;
+            hash = 31 * hash + notes;
+            hash = 31 * hash + (noise ? 1 : 0);
+            return Integer.toHexString(hash);
+        }
+    }
+
+    private SampleSynth() {
+    }
+
+    /**
+     * Write the tone to dir/name_key.wav unless that file already exists
+     * The key covers every tone parameter, so an existing file is always
+     * current and nothing is rendered; copies of older tones for the same
+     * name are deleted when a new one is written
+     */
+    public static File writeIfMissing(Tone tone, File dir, String name) throws IOException {
+        String prefix = name + "_";
+        File file = new File(dir, prefix + tone.cacheKey() + ".wav");
+        if (file.isFile()) {
+            return file;
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File[] stale = dir.listFiles((d, fileName) -> fileName.startsWith(prefix));
+        if (stale != null) {
+            for (File old : stale) {
+                old.delete();
+            }
+        }
+        // Written under a temporary name so a killed process never leaves a short file behind
+        File partial = new File(dir, file.getName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(partial))) {
+            out.write(render(tone));
+        }
+        if (!partial.renameTo(file)) {
+            throw new IOException("Cannot write " + file);
+        }
+        return file;
+    }
+
+    /**
+     * Complete WAV file bytes for a tone
+     */
+    public static byte[] render(Tone tone) {
+        int samples = SAMPLE_RATE * tone.millis / 1000;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(buffer, samples);
+
+        long noiseState = 0x2545F4914F6CDD1DL;
+        double phase = 0;
+        for (int i = 0; i < samples; i++) {
+            float progress = (float) i / samples;
+            float value;
+            if (tone.noise) {
+                noiseState ^= noiseState << 13;
+                noiseState ^= noiseState >>> 7;
+                noiseState ^= noiseState << 17;
+                value = (noiseState >> 40) / (float) (1 << 23);
+            } else {
+                float sweep = tone.notes > 1
+                        ? (float) Math.floor(progress * tone.notes) / (tone.notes - 1)
+                        : progress;
+                float hz = tone.startHz + (tone.endHz - tone.startHz) * Math.min(1f, sweep);
+                phase += 2 * Math.PI * hz / SAMPLE_RATE;
+                // Sine with a touch of third harmonic so it cuts through on phone speakers
+                value = (float) (Math.sin(phase) * 0.8 + Math.sin(3 * phase) * 0.2);
+            }
+            // Short linear attack, exponential-ish decay to silence
+            float attack = Math.min(1f, (float) i / ATTACK_SAMPLES);
+            float decay = (1f - progress) * (1f - progress);
+            buffer.putShort((short) (value * attack * decay * 0.7f * Short.MAX_VALUE));
+        }
+        return buffer.array();
+    }
+
+    private static void writeHeader(ByteBuffer buffer, int samples) {
+        int dataSize = samples * 2;
+        buffer.put((byte) 'R').put((byte) 'I').put((byte) 'F').put((byte) 'F');
+        buffer.putInt(36 + dataSize);
+        buffer.put((byte) 'W').put((byte) 'A').put((byte) 'V').put((byte) 'E');
+        buffer.put((byte) 'f').put((byte) 'm').put((byte) 't').put((byte) ' ');
+        buffer.putInt(16);                  // PCM chunk size
+        buffer.putShort((short) 1);         // PCM
+        buffer.putShort((short) 1);         // mono
+        buffer.putInt(SAMPLE_RATE);
+        buffer.putInt(SAMPLE_RATE * 2);     // byte rate
+        buffer.putShort((short) 2);         // block align
+        buffer.putShort((short) 16);        // bits per sample
+        buffer.put((byte) 'd').put((byte) 'a').put((byte) 't').put((byte) 'a');
+        buffer.putInt(dataSize);
+    }
+}
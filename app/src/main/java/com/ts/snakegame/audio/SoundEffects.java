@@ -0,0 +1,205 @@
+package com.ts.snakegame.audio;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.SoundPool;
+import android.util.Log;
+
+import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.model.FoodType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sound effects for game events
+ * Every sample is synthesized and decoded into SoundPool ahead of play
+ * (see WarmUpCache), so triggering from the game tick is a single
+ * non-blocking play call with no allocation. Each tick may start at most
+ * GameConfig.maxSoundsPerTick sounds, higher priority events first
+ */
+public final class SoundEffects {
+
+    private static final String TAG = "SoundEffects";
+    private static final String CACHE_DIR = "sfx";
+
+    // ===== Sample Slots =====
+    private static final FoodType[] FOOD_TYPES = FoodType.values();
+    private static final int SLOT_OBSTACLE_HIT = FOOD_TYPES.length;
+    private static final int SLOT_SPEED_UP = SLOT_OBSTACLE_HIT + 1;
+    private static final int SLOT_SPEED_DOWN = SLOT_OBSTACLE_HIT + 2;
+    private static final int SLOT_GAME_OVER = SLOT_OBSTACLE_HIT + 3;
+    private static final int SLOT_COUNT = SLOT_OBSTACLE_HIT + 4;
+
+    // SoundPool priorities: when voices run out, lower priority streams are stolen first
+    private static final int PRIORITY_SPEED = 0;
+    private static final int PRIORITY_FOOD = 1;
+    private static final int PRIORITY_OBSTACLE = 2;
+    private static final int PRIORITY_GAME_OVER = 3;
+
+    private static final int MAX_STREAMS = 4;
+
+    private static SoundEffects instance;
+
+    private final int[] sampleIds = new int[SLOT_COUNT];
+    private final AtomicInteger pendingLoads = new AtomicInteger();
+    private volatile SoundPool soundPool;
+    private volatile boolean ready;
+    private boolean prepared;
+
+    // Per-tick voice budget, touched only from the game thread
+    private int startedThisTick;
+    private int slotsThisTick;
+    private int lastSpeed;
+
+    private SoundEffects() {
+    }
+
+    /**
+     * Get singleton instance of SoundEffects
+     */
+    public static synchronized SoundEffects getInstance() {
+        if (instance == null) {
+            instance = new SoundEffects();
+        }
+        return instance;
+    }
+
+    /**
+     * Synthesize and load all samples; blocking, call off the main thread.
+     * Later calls are ignored
+     */
+    public void prepare(Context context) {
+        synchronized (this) {
+            if (prepared) {
+                return;
+            }
+            prepared = true;
+        }
+
+        File dir = new File(context.getCacheDir(), CACHE_DIR);
+        File[] files = new File[SLOT_COUNT];
+        try {
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                files[slot] = SampleSynth.writeIfMissing(toneFor(slot), dir, "slot_" + slot);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Sound effects unavailable", e);
+            return;
+        }
+
+        SoundPool pool = new SoundPool.Builder()
+                .setMaxStreams(MAX_STREAMS)
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_GAME)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                        .build())
+                .build();
+        // Published before any load can complete; the extra pending count is this
+        // thread's, so ready is only set once every sample id below is stored too
+        soundPool = pool;
+        pendingLoads.set(SLOT_COUNT + 1);
+        pool.setOnLoadCompleteListener((p, sampleId, status) -> {
+            if (status != 0) {
+                Log.w(TAG, "Failed to decode sample " + sampleId);
+            }
+            loadFinished();
+        });
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            sampleIds[slot] = pool.load(files[slot].getAbsolutePath(), 1);
+        }
+        loadFinished();
+    }
+
+    private void loadFinished() {
+        if (pendingLoads.decrementAndGet() == 0) {
+            ready = true;
+        }
+    }
+
+    /**
+     * Effect for each sample slot
+     */
+    private static SampleSynth.Tone toneFor(int slot) {
+        if (slot < FOOD_TYPES.length) {
+            switch (FOOD_TYPES[slot]) {
+                case POISON:   return new SampleSynth.Tone(420, 180, 220, 0, false);
+                case BONUS:    return new SampleSynth.Tone(660, 1320, 180, 3, false);
+                case FREEZE:   return new SampleSynth.Tone(1500, 1100, 200, 4, false);
+                case SPEED:    return new SampleSynth.Tone(500, 1100, 140, 0, false);
+                case TELEPORT: return new SampleSynth.Tone(300, 1500, 200, 6, false);
+                case NORMAL:
+                default:       return new SampleSynth.Tone(880, 990, 70, 0, false);
+            }
+        }
+        if (slot == SLOT_OBSTACLE_HIT) return new SampleSynth.Tone(0, 0, 150, 0, true);
+        if (slot == SLOT_SPEED_UP) return new SampleSynth.Tone(700, 1050, 90, 2, false);
+        if (slot == SLOT_SPEED_DOWN) return new SampleSynth.Tone(1050, 700, 90, 2, false);
+        return new SampleSynth.Tone(520, 130, 600, 4, false);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== Game Events =====
+
+    /**
+     * Start of a game tick: resets the per-tick voice budget
+     */
+    public void onTick() {
+        startedThisTick = 0;
+        slotsThisTick = 0;
+    }
+
+    /**
+     * New game: forget the previous speed so the first change is not misread
+     */
+    public void onReset() {
+        lastSpeed = 0;
+    }
+
+    public void onFoodEaten(FoodType foodType) {
+        play(foodType.ordinal(), PRIORITY_FOOD);
+    }
+
+    public void onObstacleHit() {
+        play(SLOT_OBSTACLE_HIT, PRIORITY_OBSTACLE);
+    }
+
+    /**
+     * @param newSpeed Tick interval in ms (lower = faster)
+     */
+    public void onSpeedChanged(int newSpeed) {
+        int previous = lastSpeed;
+        lastSpeed = newSpeed;
+        if (previous == 0 || previous == newSpeed) {
+            return;
+        }
+        play(newSpeed < previous ? SLOT_SPEED_UP : SLOT_SPEED_DOWN, PRIORITY_SPEED);
+    }
+
+    public void onGameOver() {
+        play(SLOT_GAME_OVER, PRIORITY_GAME_OVER);
+    }
+
+    private void play(int slot, int priority) {
+        GameConfig config = GameConfig.getInstance();
+        if (!ready || !config.soundEnabled) {
+            return;
+        }
+        // The same sample twice in one tick only adds volume; game over always gets through
+        int bit = 1 << slot;
+        if ((slotsThisTick & bit) != 0) {
+            return;
+        }
+        if (startedThisTick >= config.maxSoundsPerTick && priority < PRIORITY_GAME_OVER) {
+            return;
+        }
+        slotsThisTick |= bit;
+        startedThisTick++;
+        float volume = config.soundVolume;
+        soundPool.play(sampleIds[slot], volume, volume, priority, 0, 1f);
+    }
+}
@@ -4,7 +4,9 @@ import com.ts.snakegame.model.FoodType;
 import com.ts.snakegame.model.ObstacleType;
 
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -67,6 +69,9 @@ public class GameConfig {
         FoodType.FREEZE
     ));
 
+    /** Food lifetime in ticks per type (types not listed stay until eaten) */
+    public Map<FoodType, Integer> foodLifetimeTicks = new EnumMap<>(FoodType.class);
+
     // ===== Obstacle Configuration =====
     /** Enable obstacles feature */
     public boolean obstaclesEnabled = true;
@@ -83,6 +88,18 @@ public class GameConfig {
         ObstacleType.WOOD
     ));
 
+    /** Obstacle lifetime in ticks per type (types not listed are permanent) */
+    public Map<ObstacleType, Integer> obstacleLifetimeTicks = new EnumMap<>(ObstacleType.class);
+
+    /** Ticks before expiry during which an item blinks */
+    public int expiryBlinkTicks = 15;
+
+    /** Minimum steps between new food and any hazard (2 = never adjacent) */
+    public int foodMinClearance = 2;
+
+    /** Minimum steps between a teleport target and any hazard */
+    public int teleportMinClearance = 3;
+
     // ===== Snake Configuration =====
     /** Initial snake length */
     public int initialSnakeLength = 3;
@@ -90,10 +107,66 @@ public class GameConfig {
     /** Minimum snake length (below this = game over) */
     public int minSnakeLength = 2;
 
+    // ===== Input Configuration =====
+    /** Finger travel in dp before a swipe turns the snake (lower = more responsive) */
+    public float swipeThresholdDp = 16f;
+
+    // ===== Rewind Configuration =====
+    /** Size of the rewind journal in ints (about 22 per plain tick) */
+    public int rewindJournalSize = 1 << 16;
+
+    /** Game time a rewind power-up takes back, in seconds */
+    public int rewindSeconds = 5;
+
+    // ===== Audio Configuration =====
+    /** Play sound effects for game events */
+    public boolean soundEnabled = true;
+
+    /** Sound effect volume (0.0 - 1.0) */
+    public float soundVolume = 0.8f;
+
+    /** Maximum sound effects started in one game tick */
+    public int maxSoundsPerTick = 2;
+
+    // ===== Render Quality Configuration =====
+    /** Lower frame rate and effects under thermal, battery or frame-time pressure */
+    public boolean adaptiveQuality = true;
+
     // ===== Singleton Instance =====
     private static GameConfig instance;
 
-    private GameConfig() {}
+    /** Bumped by markChanged(), lets derived tables tell whether they are stale */
+    private volatile int version;
+
+    private GameConfig() {
+        applyDefaultLifetimes();
+    }
+
+    /**
+     * Poison and bonus items despawn so they don't clutter the board forever
+     */
+    private void applyDefaultLifetimes() {
+        foodLifetimeTicks.clear();
+        foodLifetimeTicks.put(FoodType.POISON, 60);
+        foodLifetimeTicks.put(FoodType.BONUS, 40);
+        obstacleLifetimeTicks.clear();
+    }
+
+    /**
+     * Lifetime of a food type in ticks, 0 = never expires
+     */
+    public int getFoodLifetime(FoodType foodType) {
+        Integer ticks = foodLifetimeTicks.get(foodType);
+        return ticks != null ? ticks : 0;
+    }
+
+    /**
+     * Lifetime of an obstacle type in ticks, 0 = permanent
+     */
+    public int getObstacleLifetime(ObstacleType obstacleType) {
+        Integer ticks = obstacleLifetimeTicks.get(obstacleType);
+        return ticks != null ? ticks : 0;
+    }
 
     /**
      * Get singleton instance of GameConfig
@@ -114,6 +187,56 @@ public class GameConfig {
         return Math.max(minGameSpeed, Math.min(maxGameSpeed, currentSpeed));
     }
 
+    /**
+     * Stable hash of every rule that affects scoring
+     * Runs are only comparable (e.g. for high scores) when their fingerprints match
+     */
+    public int getFingerprint() {
+        int hash = 17;
+        hash = 31 * hash + (wallCollisionEnabled ? 1 : 0);
+        hash = 31 * hash + (selfCollisionEnabled ? 1 : 0);
+        hash = 31 * hash + (obstacleCollisionEnabled ? 1 : 0);
+        hash = 31 * hash + (wrapAroundMode ? 1 : 0);
+        hash = 31 * hash + baseGameSpeed;
+        hash = 31 * hash + minGameSpeed;
+        hash = 31 * hash + maxGameSpeed;
+        hash = 31 * hash + speedDecreasePerThreshold;
+        hash = 31 * hash + scoreThresholdForSpeedIncrease;
+        hash = 31 * hash + Float.floatToIntBits(scoreMultiplier);
+        hash = 31 * hash + maxFoodItems;
+        hash = 31 * hash + foodSpawnInterval;
+        for (FoodType type : FoodType.values()) {
+            hash = 31 * hash + (enabledFoodTypes.contains(type) ? type.ordinal() + 1 : 0);
+            hash = 31 * hash + getFoodLifetime(type);
+        }
+        hash = 31 * hash + (obstaclesEnabled ? 1 : 0);
+        hash = 31 * hash + maxObstacles;
+        hash = 31 * hash + obstacleSpawnInterval;
+        for (ObstacleType type : ObstacleType.values()) {
+            hash = 31 * hash + (enabledObstacleTypes.contains(type) ? type.ordinal() + 1 : 0);
+            hash = 31 * hash + getObstacleLifetime(type);
+        }
+        hash = 31 * hash + foodMinClearance;
+        hash = 31 * hash + teleportMinClearance;
+        hash = 31 * hash + initialSnakeLength;
+        hash = 31 * hash + minSnakeLength;
+        return hash;
+    }
+
+    /**
+     * Call after changing fields at runtime so tables derived from them are rebuilt
+     */
+    public void markChanged() {
+        version++;
+    }
+
+    /**
+     * Changes counted by markChanged(), for caches keyed on the configuration
+     */
+    public int getVersion() {
+        return version;
+    }
+
     /**
      * Check if food type is enabled
      */
@@ -141,6 +264,18 @@ public class GameConfig {
         maxFoodItems = 3;
         obstaclesEnabled = true;
         maxObstacles = 5;
+        expiryBlinkTicks = 15;
+        foodMinClearance = 2;
+        teleportMinClearance = 3;
+        swipeThresholdDp = 16f;
+        rewindJournalSize = 1 << 16;
+        rewindSeconds = 5;
+        soundEnabled = true;
+        soundVolume = 0.8f;
+        maxSoundsPerTick = 2;
+        adaptiveQuality = true;
+        applyDefaultLifetimes();
+        markChanged();
     }
 }
 
@@ -0,0 +1,363 @@
+package com.ts.snakegame.env;
+
+import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.logic.SnakeGameLogic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Many independent snake boards stepped in lockstep for training and bot evaluation
+ * Follows the SnakeGameLogic movement and collision rules (walls or wrap-around,
+ * self collision, one NORMAL food that grows the snake by one segment) but keeps
+ * every board in shared primitive arrays with no per-board objects or
+ * callbacks. Boards are striped across worker threads; finished boards are
+ * reset automatically within the same step
+ */
+public class BatchedSnakeEnv implements AutoCloseable {
+
+    /** Observation planes per board: body, head, food */
+    public static final int PLANES = 3;
+
+    public static final float REWARD_FOOD = 1f;
+    public static final float REWARD_DEATH = -1f;
+
+    private static final int EMPTY = 0;
+    private static final int BODY = 1;
+    private static final int FOOD = 2;
+
+    // Direction ordinals match SnakeGameLogic.Direction: UP, DOWN, LEFT, RIGHT
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+    private static final int[] OPPOSITE = {1, 0, 3, 2};
+
+    private final int boards;
+    private final int width;
+    private final int height;
+    private final int cells;
+    private final boolean wrap;
+    private final boolean wallCollision;
+    private final boolean selfCollision;
+    private final int initialLength;
+    private final int stepLimitWithoutFood;
+
+    // Per-cell state, board b owns [b * cells, (b + 1) * cells)
+    private final byte[] occupancy;
+    private final int[] body;
+
+    // Per-board state
+    private final int[] bodyStart;
+    private final int[] bodyLength;
+    private final int[] direction;
+    private final int[] foodCell;
+    private final int[] score;
+    private final int[] stepsSinceFood;
+    private final long[] rngState;
+
+    private final ExecutorService workers;
+    private final List<Callable<Void>> stripes = new ArrayList<>();
+
+    // Buffers of the step in progress, read by the stripe tasks
+    private int[] stepActions;
+    private float[] stepRewards;
+    private boolean[] stepDones;
+    private byte[] stepObservations;
+
+    /**
+     * @param boards Number of boards
+     * @param width Board width in cells
+     * @param height Board height in cells
+     * @param threads Worker threads (1 = step on the caller's thread)
+     * @param seed Base seed; board b uses a stream derived from seed and b
+     */
+    public BatchedSnakeEnv(int boards, int width, int height, int threads, long seed) {
+        GameConfig config = GameConfig.getInstance();
+        this.boards = boards;
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.wrap = config.wrapAroundMode;
+        this.wallCollision = config.wallCollisionEnabled || !config.wrapAroundMode;
+        this.selfCollision = config.selfCollisionEnabled;
+        this.initialLength = Math.max(1, Math.min(config.initialSnakeLength, width / 2));
+        this.stepLimitWithoutFood = cells * 2;
+
+        occupancy = new byte[boards * cells];
+        body = new int[boards * cells];
+        bodyStart = new int[boards];
+        bodyLength = new int[boards];
+        direction = new int[boards];
+        foodCell = new int[boards];
+        score = new int[boards];
+        stepsSinceFood = new int[boards];
+        rngState = new long[boards];
+
+        for (int b = 0; b < boards; b++) {
+            rngState[b] = mix(seed + b * 0x9E3779B97F4A7C15L);
+            resetBoard(b);
+        }
+
+        int stripeCount = Math.max(1, Math.min(threads, boards));
+        workers = stripeCount > 1 ? Executors.newFixedThreadPool(stripeCount - 1, r -> {
+            Thread thread = new Thread(r, "snake-env-worker");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        for (int s = 0; s < stripeCount; s++) {
+            final int from = (int) ((long) boards * s / stripeCount);
+            final int to = (int) ((long) boards * (s + 1) / stripeCount);
+            stripes.add(() -> {
+                stepRange(from, to);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Advance every board by one tick
+     * @param actions Direction ordinal per board (see SnakeGameLogic.Direction); reversals are ignored
+     * @param rewards Out: reward per board
+     * @param dones Out: true if the board ended this step (it has already been reset)
+     * @param observations Out: boards * PLANES * cells bytes, or null to skip
+     */
+    public void step(int[] actions, float[] rewards, boolean[] dones, byte[] observations) {
+        stepActions = actions;
+        stepRewards = rewards;
+        stepDones = dones;
+        stepObservations = observations;
+
+        if (workers == null) {
+            stepRange(0, boards);
+            return;
+        }
+
+        // Run the last stripe on the caller's thread, the rest on the pool
+        List<Future<Void>> futures = new ArrayList<>(stripes.size() - 1);
+        for (int s = 0; s < stripes.size() - 1; s++) {
+            futures.add(workers.submit(stripes.get(s)));
+        }
+        try {
+            stripes.get(stripes.size() - 1).call();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Step interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Step failed", e.getCause());
+        } catch (Exception e) {
+            throw new IllegalStateException("Step failed", e);
+        }
+    }
+
+    /**
+     * Write the current observation of every board without stepping
+     */
+    public void observe(byte[] observations) {
+        for (int b = 0; b < boards; b++) {
+            writeObservation(b, observations);
+        }
+    }
+
+    private void stepRange(int from, int to) {
+        for (int b = from; b < to; b++) {
+            boolean done = stepBoard(b, stepActions[b]);
+            stepDones[b] = done;
+            if (done) {
+                resetBoard(b);
+            }
+            if (stepObservations != null) {
+                writeObservation(b, stepObservations);
+            }
+        }
+    }
+
+    /**
+     * One tick of one board
+     * @return true if the board ended
+     */
+    private boolean stepBoard(int b, int action) {
+        int base = b * cells;
+        if (action >= 0 && action < 4 && action != OPPOSITE[direction[b]]) {
+            direction[b] = action;
+        }
+        int dir = direction[b];
+
+        int head = body[base + bodyStart[b]];
+        int x = head % width + DX[dir];
+        int y = head / width + DY[dir];
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            if (wallCollision) {
+                stepRewards[b] = REWARD_DEATH;
+                return true;
+            }
+            x = (x + width) % width;
+            y = (y + height) % height;
+        }
+        int next = y * width + x;
+
+        int tailIndex = (bodyStart[b] + bodyLength[b] - 1) % cells;
+        int tail = body[base + tailIndex];
+        boolean eats = occupancy[base + next] == FOOD;
+
+        // Same rule as SnakeGameLogic: the tail still occupies its cell during the check
+        if (selfCollision && occupancy[base + next] == BODY) {
+            stepRewards[b] = REWARD_DEATH;
+            return true;
+        }
+
+        if (!eats) {
+            occupancy[base + tail] = EMPTY;
+            bodyLength[b]--;
+        }
+        bodyStart[b] = (bodyStart[b] - 1 + cells) % cells;
+        body[base + bodyStart[b]] = next;
+        bodyLength[b]++;
+        occupancy[base + next] = BODY;
+
+        if (eats) {
+            score[b] += 1;
+            stepsSinceFood[b] = 0;
+            stepRewards[b] = REWARD_FOOD;
+            if (bodyLength[b] >= cells || !spawnFood(b)) {
+                return true; // Board is full - episode won
+            }
+            return false;
+        }
+
+        stepRewards[b] = 0f;
+        return ++stepsSinceFood[b] >= stepLimitWithoutFood;
+    }
+
+    private void resetBoard(int b) {
+        int base = b * cells;
+        Arrays.fill(occupancy, base, base + cells, (byte) EMPTY);
+        int startX = width / 2;
+        int startY = height / 2;
+        bodyStart[b] = 0;
+        bodyLength[b] = initialLength;
+        for (int i = 0; i < initialLength; i++) {
+            int cell = startY * width + startX - i;
+            body[base + i] = cell;
+            occupancy[base + cell] = BODY;
+        }
+        direction[b] = 3; // RIGHT
+        score[b] = 0;
+        stepsSinceFood[b] = 0;
+        spawnFood(b);
+    }
+
+    /**
+     * Place the food on a random empty cell (rejection sampling, then scan)
+     * @return false if the board has no empty cell
+     */
+    private boolean spawnFood(int b) {
+        int base = b * cells;
+        for (int attempt = 0; attempt < 64; attempt++) {
+            int cell = (int) ((nextRandom(b) >>> 33) % cells);
+            if (occupancy[base + cell] == EMPTY) {
+                occupancy[base + cell] = FOOD;
+                foodCell[b] = cell;
+                return true;
+            }
+        }
+        int offset = (int) ((nextRandom(b) >>> 33) % cells);
+        for (int i = 0; i < cells; i++) {
+            int cell = (offset + i) % cells;
+            if (occupancy[base + cell] == EMPTY) {
+                occupancy[base + cell] = FOOD;
+                foodCell[b] = cell;
+                return true;
+            }
+        }
+        foodCell[b] = -1;
+        return false;
+    }
+
+    private void writeObservation(int b, byte[] out) {
+        int base = b * cells;
+        int plane = b * PLANES * cells;
+        for (int c = 0; c < cells; c++) {
+            out[plane + c] = occupancy[base + c] == BODY ? (byte) 1 : 0;
+        }
+        Arrays.fill(out, plane + cells, plane + 3 * cells, (byte) 0);
+        out[plane + cells + body[base + bodyStart[b]]] = 1;
+        if (foodCell[b] >= 0) {
+            out[plane + 2 * cells + foodCell[b]] = 1;
+        }
+    }
+
+    // xorshift64* per board - deterministic for a given seed and action sequence
+    private long nextRandom(int b) {
+        long s = rngState[b];
+        s ^= s >>> 12;
+        s ^= s << 25;
+        s ^= s >>> 27;
+        rngState[b] = s;
+        return s * 0x2545F4914F6CDD1DL;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return z == 0 ? 1 : z;
+    }
+
+    // ===== Getters =====
+
+    public int getBoardCount() {
+        return boards;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Bytes needed for the observations buffer
+     */
+    public int getObservationSize() {
+        return boards * PLANES * cells;
+    }
+
+    public int getScore(int board) {
+        return score[board];
+    }
+
+    public int getLength(int board) {
+        return bodyLength[board];
+    }
+
+    /**
+     * Head cell of a board as y * width + x
+     */
+    public int getHeadCell(int board) {
+        return body[board * cells + bodyStart[board]];
+    }
+
+    /**
+     * @return Direction the board's snake is moving in
+     */
+    public SnakeGameLogic.Direction getDirection(int board) {
+        return SnakeGameLogic.Direction.values()[direction[board]];
+    }
+
+    @Override
+    public void close() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ts.snakegame.export;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Variable-width LZW compressor for GIF image data (8-bit palette indices)
+ * Produces the raw code stream; GifWriter splits it into data sub-blocks.
+ * The string table is an open-addressing hash of (prefix code, next index)
+ * pairs in two primitive arrays, reused from frame to frame. One instance
+ * per thread
+ */
+final class GifLzw {
+
+    /** Bits per palette index; also the GIF "LZW minimum code size" */
+    static final int MIN_CODE_SIZE = 8;
+
+    private static final int CLEAR = 1 << MIN_CODE_SIZE;
+    private static final int END = CLEAR + 1;
+    private static final int FIRST_FREE = CLEAR + 2;
+    private static final int MAX_CODE_SIZE = 12;
+    private static final int MAX_CODES = 1 << MAX_CODE_SIZE;
+    /** Prime comfortably above MAX_CODES, keeps probe chains short */
+    private static final int TABLE_SIZE = 5003;
+
+    private final int[] keys = new int[TABLE_SIZE];
+    private final short[] codes = new short[TABLE_SIZE];
+    private int nextCode;
+    private int codeSize;
+
+    private int bitBuffer;
+    private int bitCount;
+
+    /**
+     * Compress count palette indices into out (appended)
+     */
+    void encode(byte[] indices, int count, ByteArrayOutputStream out) {
+        bitBuffer = 0;
+        bitCount = 0;
+        resetTable();
+        emit(CLEAR, out);
+
+        int prefix = indices[0] & 0xFF;
+        for (int i = 1; i < count; i++) {
+            int next = indices[i] & 0xFF;
+            int key = (prefix << 8) | next;
+            int slot = (key * 0x9E3779B1 >>> 1) % TABLE_SIZE;
+            boolean found = false;
+            while (keys[slot] != -1) {
+                if (keys[slot] == key) {
+                    prefix = codes[slot];
+                    found = true;
+                    break;
+                }
+                slot = slot + 1 == TABLE_SIZE ? 0 : slot + 1;
+            }
+            if (found) continue;
+
+            emit(prefix, out);
+            if (nextCode < MAX_CODES) {
+                // Widen once the decoder, one entry behind, can produce the next width's codes
+                if (nextCode >= 1 << codeSize && codeSize < MAX_CODE_SIZE) {
+                    codeSize++;
+                }
+                keys[slot] = key;
+                codes[slot] = (short) nextCode++;
+            } else {
+                emit(CLEAR, out);
+                resetTable();
+            }
+            prefix = next;
+        }
+        emit(prefix, out);
+        if (nextCode >= 1 << codeSize && codeSize < MAX_CODE_SIZE) {
+            codeSize++;
+        }
+        emit(END, out);
+        if (bitCount > 0) {
+            out.write(bitBuffer & 0xFF);
+        }
+    }
+
+    private void resetTable() {
+        Arrays.fill(keys, -1);
+        nextCode = FIRST_FREE;
+        codeSize = MIN_CODE_SIZE + 1;
+    }
+
+    /**
+     * Append a code, least significant bit first
+     */
+    private void emit(int code, ByteArrayOutputStream out) {
+        bitBuffer |= code << bitCount;
+        bitCount += codeSize;
+        while (bitCount >= 8) {
+            out.write(bitBuffer & 0xFF);
+            bitBuffer >>>= 8;
+            bitCount -= 8;
+        }
+    }
+}
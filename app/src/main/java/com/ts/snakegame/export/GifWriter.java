@@ -0,0 +1,135 @@
+package com.ts.snakegame.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * GIF89a container: one global palette, looping forever, full-size frames
+ * Frames arrive already LZW-compressed (GifLzw); this class only adds the
+ * headers and splits the data into 255-byte sub-blocks, so it stays cheap
+ * enough to run on the thread that orders the frames
+ */
+final class GifWriter {
+
+    private static final int MAX_SUB_BLOCK = 255;
+
+    private final OutputStream out;
+    private final int width;
+    private final int height;
+    private final byte[] block = new byte[MAX_SUB_BLOCK];
+    private long elapsedMillis;
+
+    /**
+     * Write the file header
+     * @param palette 256 RGB colors (0xRRGGBB)
+     */
+    GifWriter(OutputStream out, int width, int height, int[] palette) throws IOException {
+        this.out = out;
+        this.width = width;
+        this.height = height;
+
+        out.write(new byte[] {'G', 'I', 'F', '8', '9', 'a'});
+        writeShort(width);
+        writeShort(height);
+        out.write(0xF7); // Global color table of 2^(7+1) entries, 8 bits per channel
+        out.write(0);    // Background color index
+        out.write(0);    // Square pixels
+        for (int i = 0; i < 256; i++) {
+            int rgb = i < palette.length ? palette[i] : 0;
+            out.write(rgb >> 16);
+            out.write(rgb >> 8);
+            out.write(rgb);
+        }
+
+        // NETSCAPE2.0 application extension: loop forever
+        out.write(new byte[] {0x21, (byte) 0xFF, 11, 'N', 'E', 'T', 'S', 'C', 'A', 'P', 'E', '2', '.', '0', 3, 1});
+        writeShort(0);
+        out.write(0);
+    }
+
+    /**
+     * Append one frame shown for durationMillis
+     * GIF delays are in 1/100 s; rounding is carried over from frame to frame
+     * so long animations keep their total duration
+     */
+    void writeFrame(ByteArrayOutputStream lzwData, int durationMillis) throws IOException {
+        long start = elapsedMillis;
+        elapsedMillis += durationMillis;
+        int delay = (int) ((elapsedMillis + 5) / 10 - (start + 5) / 10);
+
+        // Graphic control extension: no transparency, keep the frame (disposal 1)
+        out.write(new byte[] {0x21, (byte) 0xF9, 4, 0x04});
+        writeShort(delay);
+        out.write(0);
+        out.write(0);
+
+        // Image descriptor: full canvas, global palette, not interlaced
+        out.write(0x2C);
+        writeShort(0);
+        writeShort(0);
+        writeShort(width);
+        writeShort(height);
+        out.write(0);
+
+        out.write(GifLzw.MIN_CODE_SIZE);
+        SubBlockStream blocks = new SubBlockStream();
+        lzwData.writeTo(blocks);
+        blocks.finish();
+    }
+
+    /**
+     * Write the trailer; the stream stays open
+     */
+    void finish() throws IOException {
+        out.write(0x3B);
+        out.flush();
+    }
+
+    private void writeShort(int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >> 8) & 0xFF);
+    }
+
+    /**
+     * Splits whatever is written into length-prefixed sub-blocks
+     */
+    private final class SubBlockStream extends OutputStream {
+        private int filled;
+
+        @Override
+        public void write(int b) throws IOException {
+            block[filled++] = (byte) b;
+            if (filled == MAX_SUB_BLOCK) {
+                flushBlock();
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                int chunk = Math.min(length, MAX_SUB_BLOCK - filled);
+                System.arraycopy(bytes, offset, block, filled, chunk);
+                filled += chunk;
+                offset += chunk;
+                length -= chunk;
+                if (filled == MAX_SUB_BLOCK) {
+                    flushBlock();
+                }
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            out.write(filled);
+            out.write(block, 0, filled);
+            filled = 0;
+        }
+
+        void finish() throws IOException {
+            if (filled > 0) {
+                flushBlock();
+            }
+            out.write(0); // Block terminator
+        }
+    }
+}
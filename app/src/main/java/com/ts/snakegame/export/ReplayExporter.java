@@ -0,0 +1,234 @@
+package com.ts.snakegame.export;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+import com.ts.snakegame.BoardRenderer;
+import com.ts.snakegame.GraphicsConfig;
+import com.ts.snakegame.logic.RenderSnapshot;
+import com.ts.snakegame.logic.SnakeGameLogic;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays a game offscreen and saves it as an animated GIF or numbered PNGs
+ * Everything runs off the caller's thread as a pipeline: one driver thread
+ * steps the engine on game time (not wall time) and draws each tick with a
+ * BoardRenderer into one of a few reusable bitmaps; a pool of encoder
+ * threads quantizes and LZW-compresses (GIF) or PNG-compresses them in
+ * parallel; the driver writes finished frames in order as they come back.
+ * At most FRAMES_IN_FLIGHT bitmaps exist, so memory stays flat whatever
+ * the length of the game
+ */
+public class ReplayExporter {
+
+    public enum Format {
+        /** One looping GIF file, frames timed by the game speed */
+        GIF,
+        /** frame_00000.png, frame_00001.png, ... in a directory */
+        PNG_SEQUENCE
+    }
+
+    private static final int ENCODERS = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int FRAMES_IN_FLIGHT = ENCODERS * 2;
+
+    private final GraphicsConfig graphicsConfig;
+    private final ExecutorService driver;
+    private final ExecutorService encoders;
+
+    /**
+     * One reusable frame slot: the bitmap drawn on and the encoder's buffers
+     */
+    private static final class Frame {
+        final Bitmap bitmap;
+        final Canvas canvas;
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream(64 * 1024);
+        int[] pixels;
+        byte[] indices;
+        GifLzw lzw;
+        int durationMillis;
+
+        Frame(int width, int height) {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            canvas = new Canvas(bitmap);
+        }
+    }
+
+    /**
+     * @param graphicsConfig Sprites to draw with; copied per export, the caller's are not touched
+     */
+    public ReplayExporter(GraphicsConfig graphicsConfig) {
+        this.graphicsConfig = graphicsConfig;
+        this.driver = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "replay-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger index = new AtomicInteger();
+        this.encoders = Executors.newFixedThreadPool(ENCODERS, r -> {
+            Thread thread = new Thread(r, "replay-encode-" + index.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reset the game and play it for export; returns immediately
+     * The game is driven from the export thread until the future completes,
+     * so pass an engine nobody else uses (e.g. a new one with the recorded
+     * seed). It runs on game time: each tick advances its clock by the tick
+     * length, so spawns happen as in real play
+     * @param maxTicks Stop after this many ticks unless the game ends first
+     * @param target GIF file, or the directory for a PNG sequence
+     * @return Number of frames written; cancel it to stop the export
+     */
+    public Future<Integer> export(SnakeGameLogic game, ReplayInput input, int maxTicks,
+                                  int cellSize, Format format, File target) {
+        return driver.submit(() -> run(game, input, maxTicks, cellSize, format, target));
+    }
+
+    /**
+     * Stop accepting exports; running ones finish
+     */
+    public void close() {
+        driver.shutdown();
+        encoders.shutdown();
+    }
+
+    // ===== Export thread only =====
+
+    private int run(SnakeGameLogic game, ReplayInput input, int maxTicks,
+                    int cellSize, Format format, File target) throws Exception {
+        long[] gameTime = {0};
+        game.setClock(() -> gameTime[0]);
+        game.reset();
+
+        // Own sprites: drawing moves drawable bounds, which the UI's copies must not see
+        BoardRenderer renderer = new BoardRenderer(graphicsConfig.rasterize(cellSize), cellSize);
+        RenderSnapshot snapshot = new RenderSnapshot();
+        int width = game.getGridWidth() * cellSize;
+        int height = game.getGridHeight() * cellSize;
+
+        Frame[] frames = new Frame[FRAMES_IN_FLIGHT];
+        ArrayDeque<Future<Frame>> pending = new ArrayDeque<>();
+        OutputStream out = null;
+        GifWriter gif = null;
+        if (format == Format.GIF) {
+            out = new BufferedOutputStream(new FileOutputStream(target), 64 * 1024);
+            gif = new GifWriter(out, width, height, UniformPalette.COLORS);
+        } else if (!target.isDirectory() && !target.mkdirs()) {
+            throw new IOException("Cannot create " + target);
+        }
+
+        int written = 0;
+        try {
+            for (int tick = 0; tick <= maxTicks; tick++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                if (tick > 0) {
+                    if (game.isGameOver()) break;
+                    input.beforeTick(game);
+                    gameTime[0] += game.getCurrentSpeed();
+                    game.update();
+                }
+
+                // Reuse the slot of the oldest frame once it is written
+                if (pending.size() == FRAMES_IN_FLIGHT) {
+                    write(pending.poll(), gif, target, written++);
+                }
+                Frame frame = frames[tick % FRAMES_IN_FLIGHT];
+                if (frame == null) {
+                    frame = new Frame(width, height);
+                    frames[tick % FRAMES_IN_FLIGHT] = frame;
+                }
+                snapshot.capture(game, gameTime[0]);
+                frame.canvas.drawColor(Color.BLACK);
+                renderer.draw(frame.canvas, snapshot, 1f);
+                frame.durationMillis = game.getCurrentSpeed();
+
+                Frame encoding = frame;
+                pending.add(encoders.submit(() -> encode(encoding, format)));
+                while (!pending.isEmpty() && pending.peek().isDone()) {
+                    write(pending.poll(), gif, target, written++);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), gif, target, written++);
+            }
+            if (gif != null) {
+                gif.finish();
+            }
+        } finally {
+            // Bitmaps are recycled below; let encoders still reading them finish first
+            boolean interrupted = Thread.interrupted();
+            for (Future<Frame> future : pending) {
+                try {
+                    future.get();
+                } catch (ExecutionException | InterruptedException ignored) {
+                    // Export is failing or cancelled anyway
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (out != null) {
+                out.close();
+            }
+            for (Frame frame : frames) {
+                if (frame != null) {
+                    frame.bitmap.recycle();
+                }
+            }
+        }
+        return written;
+    }
+
+    private static void write(Future<Frame> future, GifWriter gif, File target, int index)
+            throws IOException, InterruptedException, ExecutionException {
+        Frame frame = future.get();
+        if (gif != null) {
+            gif.writeFrame(frame.encoded, frame.durationMillis);
+            return;
+        }
+        File file = new File(target, String.format(Locale.US, "frame_%05d.png", index));
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            frame.encoded.writeTo(out);
+        }
+    }
+
+    // ===== Encoder threads =====
+
+    private static Frame encode(Frame frame, Format format) {
+        frame.encoded.reset();
+        if (format == Format.PNG_SEQUENCE) {
+            frame.bitmap.compress(Bitmap.CompressFormat.PNG, 100, frame.encoded);
+            return frame;
+        }
+        int width = frame.bitmap.getWidth();
+        int height = frame.bitmap.getHeight();
+        if (frame.pixels == null) {
+            frame.pixels = new int[width * height];
+            frame.indices = new byte[width * height];
+            frame.lzw = new GifLzw();
+        }
+        frame.bitmap.getPixels(frame.pixels, 0, width, 0, 0, width, height);
+        UniformPalette.quantize(frame.pixels, width * height, frame.indices);
+        frame.lzw.encode(frame.indices, width * height, frame.encoded);
+        return frame;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ts.snakegame.export;
+
+import com.ts.snakegame.logic.SnakeGameLogic;
+
+/**
+ * Steers a game while it is replayed for export
+ */
+public interface ReplayInput {
+
+    /**
+     * Called before every tick; set the game's direction here
+     */
+    void beforeTick(SnakeGameLogic game);
+
+    /**
+     * Replay recorded moves: directions[t] is the Direction ordinal set
+     * before tick t + 1, or -1 to keep going straight
+     */
+    static ReplayInput recorded(byte[] directions) {
+        SnakeGameLogic.Direction[] values = SnakeGameLogic.Direction.values();
+        return game -> {
+            long tick = game.getTick();
+            if (tick < directions.length && directions[(int) tick] >= 0) {
+                game.setDirection(values[directions[(int) tick]]);
+            }
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.ts.snakegame.export;
+
+/**
+ * Fixed 6x7x6 color cube (252 colors) for GIF frames
+ * A fixed palette needs no per-frame analysis, so every frame quantizes on
+ * its own with three table lookups per pixel and all frames share the GIF's
+ * global color table. Green gets the extra level: the board is mostly grass
+ */
+final class UniformPalette {
+
+    private static final int RED_LEVELS = 6;
+    private static final int GREEN_LEVELS = 7;
+    private static final int BLUE_LEVELS = 6;
+
+    // Channel value -> that channel's share of the palette index
+    private static final byte[] RED = new byte[256];
+    private static final byte[] GREEN = new byte[256];
+    private static final byte[] BLUE = new byte[256];
+
+    /** Palette as 0xRRGGBB, index = red * 42 + green * 6 + blue */
+    static final int[] COLORS = new int[RED_LEVELS * GREEN_LEVELS * BLUE_LEVELS];
+
+    static {
+        for (int v = 0; v < 256; v++) {
+            RED[v] = (byte) (level(v, RED_LEVELS) * GREEN_LEVELS * BLUE_LEVELS);
+            GREEN[v] = (byte) (level(v, GREEN_LEVELS) * BLUE_LEVELS);
+            BLUE[v] = (byte) level(v, BLUE_LEVELS);
+        }
+        for (int r = 0; r < RED_LEVELS; r++) {
+            for (int g = 0; g < GREEN_LEVELS; g++) {
+                for (int b = 0; b < BLUE_LEVELS; b++) {
+                    COLORS[(r * GREEN_LEVELS + g) * BLUE_LEVELS + b] =
+                            value(r, RED_LEVELS) << 16 | value(g, GREEN_LEVELS) << 8 | value(b, BLUE_LEVELS);
+                }
+            }
+        }
+    }
+
+    private UniformPalette() {}
+
+    /**
+     * Map count opaque ARGB pixels to palette indices
+     */
+    static void quantize(int[] argb, int count, byte[] indices) {
+        for (int i = 0; i < count; i++) {
+            int pixel = argb[i];
+            indices[i] = (byte) (RED[(pixel >> 16) & 0xFF] + GREEN[(pixel >> 8) & 0xFF] + BLUE[pixel & 0xFF]);
+        }
+    }
+
+    /**
+     * Nearest of the channel's evenly spaced levels
+     */
+    private static int level(int value, int levels) {
+        return (value * (levels - 1) + 127) / 255;
+    }
+
+    private static int value(int level, int levels) {
+        return level * 255 / (levels - 1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ts.snakegame.input;
+
+import android.view.MotionEvent;
+
+import com.ts.snakegame.logic.SnakeGameLogic.Direction;
+
+/**
+ * Recognizes swipe directions while the finger is still moving
+ * A direction fires as soon as the finger has travelled the threshold along
+ * one axis from the anchor point, checking every batched historical sample
+ * rather than waiting for the fling at ACTION_UP. The anchor then follows the
+ * finger, so drawing an L or a zig-zag chains turns without lifting.
+ * Keeps only primitive state and allocates nothing per event
+ */
+public class SwipeRecognizer {
+
+    /** Receives each recognized direction change */
+    public interface OnSwipeListener {
+        void onSwipe(Direction direction);
+    }
+
+    /** Travel along the major axis must exceed the minor one by this factor */
+    private static final float AXIS_DOMINANCE = 1.5f;
+
+    private final OnSwipeListener listener;
+    private float thresholdPx;
+
+    private int activePointerId = MotionEvent.INVALID_POINTER_ID;
+    private float anchorX;
+    private float anchorY;
+    private Direction lastDirection;
+
+    /**
+     * @param thresholdPx Travel in pixels before a direction registers (convert from dp by the caller)
+     */
+    public SwipeRecognizer(float thresholdPx, OnSwipeListener listener) {
+        this.thresholdPx = thresholdPx;
+        this.listener = listener;
+    }
+
+    public void setThreshold(float thresholdPx) {
+        this.thresholdPx = thresholdPx;
+    }
+
+    /**
+     * Feed a touch event
+     * @return True on ACTION_DOWN (so the view keeps receiving the gesture) and
+     *         when a swipe was recognized during this event
+     */
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                activePointerId = event.getPointerId(0);
+                anchorX = event.getX(0);
+                anchorY = event.getY(0);
+                lastDirection = null;
+                return true;
+
+            case MotionEvent.ACTION_MOVE: {
+                int index = event.findPointerIndex(activePointerId);
+                if (index < 0) return false;
+                boolean recognized = false;
+                // Oldest first: samples batched since the last frame are real touch reports
+                int history = event.getHistorySize();
+                for (int h = 0; h < history; h++) {
+                    recognized |= track(event.getHistoricalX(index, h), event.getHistoricalY(index, h));
+                }
+                recognized |= track(event.getX(index), event.getY(index));
+                return recognized;
+            }
+
+            case MotionEvent.ACTION_POINTER_UP: {
+                // Hand tracking over to a remaining finger, anchored where it is now
+                int index = event.getActionIndex();
+                if (event.getPointerId(index) != activePointerId) return false;
+                int next = index == 0 ? 1 : 0;
+                activePointerId = event.getPointerId(next);
+                anchorX = event.getX(next);
+                anchorY = event.getY(next);
+                return false;
+            }
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                activePointerId = MotionEvent.INVALID_POINTER_ID;
+                lastDirection = null;
+                return false;
+
+            default:
+                return false;
+        }
+    }
+
+    private boolean track(float x, float y) {
+        float dx = x - anchorX;
+        float dy = y - anchorY;
+        float absX = Math.abs(dx);
+        float absY = Math.abs(dy);
+
+        Direction direction;
+        if (absX >= thresholdPx && absX >= absY * AXIS_DOMINANCE) {
+            direction = dx > 0 ? Direction.RIGHT : Direction.LEFT;
+        } else if (absY >= thresholdPx && absY >= absX * AXIS_DOMINANCE) {
+            direction = dy > 0 ? Direction.DOWN : Direction.UP;
+        } else {
+            return false;
+        }
+
+        // Re-anchor on every step, not only on turns, so the next turn is
+        // measured from where the finger is rather than where the swipe began
+        anchorX = x;
+        anchorY = y;
+        if (direction == lastDirection) return false;
+        lastDirection = direction;
+        listener.onSwipe(direction);
+        return true;
+    }
+}
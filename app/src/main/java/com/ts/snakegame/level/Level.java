@@ -0,0 +1,169 @@
+package com.ts.snakegame.level;
+
+import com.ts.snakegame.logic.SnakeGameLogic;
+import com.ts.snakegame.model.ObstacleType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Designed map - walls with obstacle types, spawn zones and start position
+ * A thin view over the encoded bytes (usually a memory-mapped file): walls
+ * and types are read straight from the buffer, nothing is created per cell
+ */
+public class Level {
+
+    private static final ObstacleType[] OBSTACLE_TYPES = ObstacleType.values();
+
+    private final ByteBuffer data;
+    private final int width;
+    private final int height;
+    private final int startX;
+    private final int startY;
+    private final SnakeGameLogic.Direction startDirection;
+    private final int zoneCount;
+    private final int zonesOffset;
+    private final int wallsOffset;
+    private final int typesOffset;
+
+    /**
+     * Wrap an encoded level
+     * @param data Buffer positioned at the level header; it is sliced, not copied
+     * @throws IllegalArgumentException if the header is invalid or the buffer too short
+     */
+    public Level(ByteBuffer data) {
+        this.data = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (this.data.remaining() < LevelFormat.HEADER_SIZE
+                || this.data.getInt(0) != LevelFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a level file");
+        }
+        if (this.data.getShort(4) != LevelFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported level version " + this.data.getShort(4));
+        }
+        width = this.data.getInt(8);
+        height = this.data.getInt(12);
+        if (width <= 0 || height <= 0 || width > LevelFormat.MAX_SIDE || height > LevelFormat.MAX_SIDE) {
+            throw new IllegalArgumentException("Bad level size " + width + "x" + height);
+        }
+        startX = this.data.getInt(16);
+        startY = this.data.getInt(20);
+        int direction = this.data.get(24);
+        SnakeGameLogic.Direction[] directions = SnakeGameLogic.Direction.values();
+        startDirection = direction >= 0 && direction < directions.length
+                ? directions[direction] : SnakeGameLogic.Direction.RIGHT;
+        zoneCount = this.data.getInt(28);
+
+        // Bound the zone count first so the offsets below cannot overflow
+        if (zoneCount < 0 || zoneCount > (this.data.capacity() - LevelFormat.HEADER_SIZE) / LevelFormat.ZONE_SIZE
+                || this.data.capacity() < LevelFormat.sizeOf(width, height, zoneCount)) {
+            throw new IllegalArgumentException("Truncated level data");
+        }
+        zonesOffset = LevelFormat.HEADER_SIZE;
+        wallsOffset = zonesOffset + zoneCount * LevelFormat.ZONE_SIZE;
+        typesOffset = wallsOffset + LevelFormat.wallWords(width * height) * 8;
+        if (startX < 0 || startX >= width || startY < 0 || startY >= height) {
+            throw new IllegalArgumentException("Start position outside level");
+        }
+        if (isWall(startY * width + startX)) {
+            throw new IllegalArgumentException("Start position is a wall");
+        }
+        checkWallTypes();
+    }
+
+    /**
+     * Reject wall cells whose type is not a static ObstacleType, so readers can index by it
+     * Moving types only exist as spawned obstacles, a wall never moves
+     */
+    private void checkWallTypes() {
+        int cells = width * height;
+        int typeCount = OBSTACLE_TYPES.length;
+        int words = getWallWordCount();
+        for (int w = 0; w < words; w++) {
+            long bits = getWallWord(w);
+            while (bits != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (cell < cells) {
+                    int type = getWallType(cell);
+                    if (type >= typeCount) {
+                        throw new IllegalArgumentException("Bad obstacle type " + type + " at cell " + cell);
+                    }
+                    if (OBSTACLE_TYPES[type].isMoving()) {
+                        throw new IllegalArgumentException("Moving obstacle type " + OBSTACLE_TYPES[type]
+                                + " used as a wall at cell " + cell);
+                    }
+                }
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public SnakeGameLogic.Direction getStartDirection() {
+        return startDirection;
+    }
+
+    // ===== Walls =====
+
+    public int getWallWordCount() {
+        return LevelFormat.wallWords(width * height);
+    }
+
+    /**
+     * 64 wall bits starting at cell index * 64
+     */
+    public long getWallWord(int index) {
+        return data.getLong(wallsOffset + index * 8);
+    }
+
+    public boolean isWall(int cell) {
+        return (getWallWord(cell >>> 6) & (1L << (cell & 63))) != 0;
+    }
+
+    /**
+     * ObstacleType ordinal stored for a wall cell
+     */
+    public int getWallType(int cell) {
+        int packed = data.get(typesOffset + (cell >>> 1));
+        return (cell & 1) == 0 ? packed & 0x0F : (packed >>> 4) & 0x0F;
+    }
+
+    // ===== Spawn zones =====
+
+    /**
+     * Number of food spawn rectangles, 0 = spawn anywhere
+     */
+    public int getZoneCount() {
+        return zoneCount;
+    }
+
+    public int getZoneX(int zone) {
+        return data.getInt(zonesOffset + zone * LevelFormat.ZONE_SIZE);
+    }
+
+    public int getZoneY(int zone) {
+        return data.getInt(zonesOffset + zone * LevelFormat.ZONE_SIZE + 4);
+    }
+
+    public int getZoneWidth(int zone) {
+        return data.getInt(zonesOffset + zone * LevelFormat.ZONE_SIZE + 8);
+    }
+
+    public int getZoneHeight(int zone) {
+        return data.getInt(zonesOffset + zone * LevelFormat.ZONE_SIZE + 12);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ts.snakegame.level;
+
+/**
+ * Binary layout of a level file (little-endian)
+ *
+ * Header (40 bytes):
+ *   int magic 'SNKL', short version, short flags,
+ *   int width, int height, int startX, int startY,
+ *   byte startDirection, 3 bytes padding, int zoneCount, 2 ints reserved
+ * Zones: zoneCount x (int x, int y, int width, int height)
+ * Walls: ceil(width * height / 64) longs, bit (y * width + x) set = blocked cell
+ * Types: ceil(width * height / 2) bytes, one ObstacleType ordinal nibble per cell
+ *        (low nibble = even cell), only meaningful where the wall bit is set
+ *
+ * A level pack is [int magic 'SNKP'][int count] followed by count index
+ * entries (long offset, int length, int reserved) and the level blobs.
+ */
+public final class LevelFormat {
+
+    public static final int MAGIC = 0x4C4B4E53;       // "SNKL" read little-endian
+    public static final int PACK_MAGIC = 0x504B4E53;  // "SNKP" read little-endian
+    public static final short VERSION = 1;
+
+    public static final int HEADER_SIZE = 40;
+    public static final int ZONE_SIZE = 16;
+    public static final int PACK_HEADER_SIZE = 8;
+    public static final int PACK_ENTRY_SIZE = 16;
+
+    /** Largest supported side, keeps cell indices and section sizes in int range */
+    public static final int MAX_SIDE = 8192;
+
+    private LevelFormat() {}
+
+    public static int wallWords(int cells) {
+        return (cells + 63) >>> 6;
+    }
+
+    public static int typeBytes(int cells) {
+        return (cells + 1) >>> 1;
+    }
+
+    /**
+     * Total encoded size of a level
+     */
+    public static int sizeOf(int width, int height, int zoneCount) {
+        int cells = width * height;
+        return HEADER_SIZE + zoneCount * ZONE_SIZE + wallWords(cells) * 8 + typeBytes(cells);
+    }
+}
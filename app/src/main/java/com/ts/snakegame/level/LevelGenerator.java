@@ -0,0 +1,289 @@
+package com.ts.snakegame.level;
+
+import com.ts.snakegame.logic.FloodFill;
+import com.ts.snakegame.logic.SnakeGameLogic;
+import com.ts.snakegame.model.ObstacleType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeded procedural level generator
+ * Scatters walls, wood branches and stones, then checks with a flood fill
+ * that every free cell is reachable from the start. Small sealed pockets are
+ * filled in with stone; layouts with larger ones are regenerated from a
+ * derived seed. Batches run in parallel and are ranked by
+ * path complexity
+ */
+public class LevelGenerator {
+
+    /**
+     * Obstacle density presets
+     */
+    public enum Difficulty {
+        EASY(0.04f, 2),
+        NORMAL(0.08f, 4),
+        HARD(0.14f, 6);
+
+        private final float density;
+        private final int maxWallLength;
+
+        Difficulty(float density, int maxWallLength) {
+            this.density = density;
+            this.maxWallLength = maxWallLength;
+        }
+    }
+
+    /**
+     * A validated layout and its ranking score
+     */
+    public static class GeneratedLevel {
+        private final long seed;
+        private final LevelWriter writer;
+        private final double complexity;
+
+        GeneratedLevel(long seed, LevelWriter writer, double complexity) {
+            this.seed = seed;
+            this.writer = writer;
+            this.complexity = complexity;
+        }
+
+        /** Seed that produced the accepted layout (after retries) */
+        public long getSeed() {
+            return seed;
+        }
+
+        public LevelWriter getWriter() {
+            return writer;
+        }
+
+        /**
+         * Average detour factor of shortest paths from the start (1.0 = open field)
+         */
+        public double getComplexity() {
+            return complexity;
+        }
+
+        public Level toLevel() {
+            return writer.build();
+        }
+    }
+
+    /** Layout attempts before giving up on a seed */
+    public static final int MAX_ATTEMPTS = 32;
+
+    /** Cells kept clear in front of and behind the start position */
+    private static final int START_CLEARANCE = 3;
+
+    /** Largest share of free cells that may be sealed off and filled in instead of retrying */
+    private static final float MAX_FILLED_POCKETS = 0.02f;
+
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    private final int width;
+    private final int height;
+    private final int cells;
+    private final Difficulty difficulty;
+
+    // Per-instance scratch; generate() is not thread-safe, batches use one generator per worker
+    private final long[] blocked;
+    private final byte[] types;
+    private final FloodFill floodFill;
+
+    public LevelGenerator(int width, int height, Difficulty difficulty) {
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.difficulty = difficulty;
+        this.blocked = new long[LevelFormat.wallWords(cells)];
+        this.types = new byte[LevelFormat.typeBytes(cells)];
+        this.floodFill = new FloodFill(width, height);
+    }
+
+    /**
+     * Generate a fully connected level from a seed
+     * @return The level, or null if no valid layout was found within MAX_ATTEMPTS
+     */
+    public GeneratedLevel generate(long seed) {
+        long attemptSeed = seed;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            GeneratedLevel level = tryGenerate(attemptSeed);
+            if (level != null) {
+                return level;
+            }
+            attemptSeed += SEED_STEP;
+        }
+        return null;
+    }
+
+    private GeneratedLevel tryGenerate(long seed) {
+        Random random = new Random(seed);
+        Arrays.fill(blocked, 0L);
+        Arrays.fill(types, (byte) 0);
+
+        int startX = width / 2;
+        int startY = height / 2;
+        int target = (int) (cells * difficulty.density);
+        int placed = 0;
+        int guard = target * 4;
+
+        while (placed < target && guard-- > 0) {
+            int roll = random.nextInt(10);
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            if (roll < 4) {
+                placed += placeRun(random, x, y, ObstacleType.WALL,
+                        2 + random.nextInt(difficulty.maxWallLength), startX, startY);
+            } else if (roll < 7) {
+                placed += placeRun(random, x, y, ObstacleType.WOOD, 2, startX, startY);
+            } else {
+                placed += place(x, y, ObstacleType.STONE, startX, startY) ? 1 : 0;
+            }
+        }
+
+        int start = startY * width + startX;
+        int free = FloodFill.countFree(blocked, cells);
+        int reached = floodFill.fill(blocked, start, false);
+        if (reached != free) {
+            if (free - reached > free * MAX_FILLED_POCKETS) {
+                return null;
+            }
+            fillUnreachedPockets();
+        }
+
+        LevelWriter writer = new LevelWriter(width, height)
+                .setWalls(blocked, types)
+                .setStart(startX, startY, SnakeGameLogic.Direction.RIGHT);
+        return new GeneratedLevel(seed, writer, complexity(startX, startY));
+    }
+
+    /**
+     * Place a straight horizontal or vertical run of one obstacle type
+     * @return Cells actually placed
+     */
+    private int placeRun(Random random, int x, int y, ObstacleType type, int length, int startX, int startY) {
+        boolean horizontal = random.nextBoolean();
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            int cx = horizontal ? x + i : x;
+            int cy = horizontal ? y : y + i;
+            if (cx >= width || cy >= height) break;
+            if (place(cx, cy, type, startX, startY)) count++;
+        }
+        return count;
+    }
+
+    private boolean place(int x, int y, ObstacleType type, int startX, int startY) {
+        // Keep the start row clear around the spawn so the snake has room to move
+        if (y == startY && Math.abs(x - startX) <= START_CLEARANCE) {
+            return false;
+        }
+        int cell = y * width + x;
+        long bit = 1L << (cell & 63);
+        if ((blocked[cell >>> 6] & bit) != 0) {
+            return false;
+        }
+        blocked[cell >>> 6] |= bit;
+        int index = cell >>> 1;
+        if ((cell & 1) == 0) {
+            types[index] = (byte) ((types[index] & 0xF0) | type.ordinal());
+        } else {
+            types[index] = (byte) ((types[index] & 0x0F) | (type.ordinal() << 4));
+        }
+        return true;
+    }
+
+    /**
+     * Turn free cells the last flood fill could not reach into stones
+     */
+    private void fillUnreachedPockets() {
+        for (int cell = 0; cell < cells; cell++) {
+            long bit = 1L << (cell & 63);
+            if ((blocked[cell >>> 6] & bit) == 0 && !floodFill.isReached(cell)) {
+                place(cell % width, cell / width, ObstacleType.STONE, -1, -1);
+            }
+        }
+    }
+
+    /**
+     * Ratio of BFS path length to Manhattan distance, averaged over reachable cells
+     * Uses the distances of the flood fill that just validated the layout
+     */
+    private double complexity(int startX, int startY) {
+        long manhattanSum = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (floodFill.isReached(y * width + x)) {
+                    manhattanSum += Math.abs(x - startX) + Math.abs(y - startY);
+                }
+            }
+        }
+        return manhattanSum == 0 ? 1.0 : (double) floodFill.getDistanceSum() / manhattanSum;
+    }
+
+    // ===== Batch generation =====
+
+    /**
+     * Generate count candidates from consecutive seeds across all cores
+     * @return Valid levels, most complex first
+     */
+    public static List<GeneratedLevel> generateBatch(int width, int height, Difficulty difficulty,
+                                                     long baseSeed, int count) throws InterruptedException {
+        int threads = Math.max(1, Math.min(count, Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<GeneratedLevel>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int worker = t;
+                futures.add(executor.submit(() -> {
+                    // One generator per worker so scratch buffers are never shared
+                    LevelGenerator generator = new LevelGenerator(width, height, difficulty);
+                    List<GeneratedLevel> results = new ArrayList<>();
+                    for (int i = worker; i < count; i += threads) {
+                        GeneratedLevel level = generator.generate(baseSeed + i * SEED_STEP * MAX_ATTEMPTS);
+                        if (level != null) {
+                            results.add(level);
+                        }
+                    }
+                    return results;
+                }));
+            }
+
+            List<GeneratedLevel> all = new ArrayList<>();
+            for (Future<List<GeneratedLevel>> future : futures) {
+                all.addAll(future.get());
+            }
+            all.sort((a, b) -> Double.compare(b.getComplexity(), a.getComplexity()));
+            return all;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Level generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Seed shared by every player on a calendar day
+     */
+    public static long dailySeed(LocalDate date) {
+        long seed = date.toEpochDay() * SEED_STEP;
+        seed ^= seed >>> 31;
+        return seed;
+    }
+
+    /**
+     * Best of a small parallel batch for the day
+     */
+    public static GeneratedLevel generateDaily(int width, int height, Difficulty difficulty,
+                                               LocalDate date, int candidates) throws InterruptedException {
+        List<GeneratedLevel> levels = generateBatch(width, height, difficulty, dailySeed(date), candidates);
+        return levels.isEmpty() ? null : levels.get(0);
+    }
+}
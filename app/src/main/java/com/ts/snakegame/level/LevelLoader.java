@@ -0,0 +1,66 @@
+package com.ts.snakegame.level;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory-maps level files and packs
+ * The mapping stays valid after the channel is closed, so levels can be
+ * kept around without holding file descriptors
+ */
+public final class LevelLoader {
+
+    private LevelLoader() {}
+
+    /**
+     * Map a single level file from storage
+     */
+    public static Level load(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            return new Level(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Map a level pack from storage
+     */
+    public static LevelPack loadPack(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Map a level bundled in assets
+     * The asset must be stored uncompressed (noCompress 'lvl', 'lvlpack') so it
+     * can be mapped straight out of the APK
+     */
+    public static Level loadAsset(AssetManager assets, String name) throws IOException {
+        return new Level(mapAsset(assets, name));
+    }
+
+    public static LevelPack loadPackAsset(AssetManager assets, String name) throws IOException {
+        return new LevelPack(mapAsset(assets, name));
+    }
+
+    private static MappedByteBuffer mapAsset(AssetManager assets, String name) throws IOException {
+        try (AssetFileDescriptor fd = assets.openFd(name);
+             FileInputStream stream = fd.createInputStream();
+             FileChannel channel = stream.getChannel()) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY,
+                    fd.getStartOffset(), fd.getDeclaredLength());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ts.snakegame.level;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Indexed collection of levels in one mapped buffer
+ * Only the index is read up front; a level's pages are touched when it is
+ * first opened with getLevel()
+ */
+public class LevelPack {
+
+    private final ByteBuffer data;
+    private final int count;
+
+    public LevelPack(ByteBuffer data) {
+        this.data = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (this.data.remaining() < LevelFormat.PACK_HEADER_SIZE
+                || this.data.getInt(0) != LevelFormat.PACK_MAGIC) {
+            throw new IllegalArgumentException("Not a level pack");
+        }
+        count = this.data.getInt(4);
+        if (count < 0 || this.data.capacity() < LevelFormat.PACK_HEADER_SIZE + (long) count * LevelFormat.PACK_ENTRY_SIZE) {
+            throw new IllegalArgumentException("Truncated level pack index");
+        }
+    }
+
+    public int getLevelCount() {
+        return count;
+    }
+
+    /**
+     * Open the level at an index (a view, nothing is copied)
+     */
+    public Level getLevel(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Level " + index + " of " + count);
+        }
+        int entry = LevelFormat.PACK_HEADER_SIZE + index * LevelFormat.PACK_ENTRY_SIZE;
+        long offset = data.getLong(entry);
+        int length = data.getInt(entry + 8);
+        if (offset < 0 || length < 0 || offset + length > data.capacity()) {
+            throw new IllegalArgumentException("Level " + index + " outside pack");
+        }
+        ByteBuffer slice = data.duplicate();
+        slice.position((int) offset).limit((int) offset + length);
+        return new Level(slice);
+    }
+}
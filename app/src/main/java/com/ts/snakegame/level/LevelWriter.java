@@ -0,0 +1,161 @@
+package com.ts.snakegame.level;
+
+import com.ts.snakegame.logic.SnakeGameLogic;
+import com.ts.snakegame.model.ObstacleType;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * Builds encoded levels (for the generator and map tooling)
+ */
+public class LevelWriter {
+
+    private final int width;
+    private final int height;
+    private final long[] walls;
+    private final byte[] types;
+    private final int[] zones;
+    private int zoneCount;
+    private int startX;
+    private int startY;
+    private SnakeGameLogic.Direction startDirection = SnakeGameLogic.Direction.RIGHT;
+
+    public LevelWriter(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.walls = new long[LevelFormat.wallWords(width * height)];
+        this.types = new byte[LevelFormat.typeBytes(width * height)];
+        this.zones = new int[64];
+        this.startX = width / 2;
+        this.startY = height / 2;
+    }
+
+    public LevelWriter setStart(int x, int y, SnakeGameLogic.Direction direction) {
+        this.startX = x;
+        this.startY = y;
+        this.startDirection = direction;
+        return this;
+    }
+
+    public LevelWriter setWall(int x, int y, ObstacleType type) {
+        int cell = y * width + x;
+        walls[cell >>> 6] |= 1L << (cell & 63);
+        int index = cell >>> 1;
+        if ((cell & 1) == 0) {
+            types[index] = (byte) ((types[index] & 0xF0) | type.ordinal());
+        } else {
+            types[index] = (byte) ((types[index] & 0x0F) | (type.ordinal() << 4));
+        }
+        return this;
+    }
+
+    public LevelWriter clearWall(int x, int y) {
+        int cell = y * width + x;
+        walls[cell >>> 6] &= ~(1L << (cell & 63));
+        return this;
+    }
+
+    /**
+     * Replace all walls with a prepared bitset (same layout as the file)
+     */
+    public LevelWriter setWalls(long[] bits, byte[] packedTypes) {
+        System.arraycopy(bits, 0, walls, 0, walls.length);
+        System.arraycopy(packedTypes, 0, types, 0, types.length);
+        return this;
+    }
+
+    public LevelWriter addSpawnZone(int x, int y, int zoneWidth, int zoneHeight) {
+        if (zoneCount * 4 >= zones.length) {
+            throw new IllegalStateException("Too many spawn zones");
+        }
+        zones[zoneCount * 4] = x;
+        zones[zoneCount * 4 + 1] = y;
+        zones[zoneCount * 4 + 2] = zoneWidth;
+        zones[zoneCount * 4 + 3] = zoneHeight;
+        zoneCount++;
+        return this;
+    }
+
+    public int encodedSize() {
+        return LevelFormat.sizeOf(width, height, zoneCount);
+    }
+
+    /**
+     * Encode at the buffer's position
+     */
+    public void writeTo(ByteBuffer out) {
+        ByteBuffer buffer = out.slice().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(LevelFormat.MAGIC);
+        buffer.putShort(LevelFormat.VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(width).putInt(height);
+        buffer.putInt(startX).putInt(startY);
+        buffer.put((byte) startDirection.ordinal());
+        buffer.put((byte) 0).put((byte) 0).put((byte) 0);
+        buffer.putInt(zoneCount);
+        buffer.putInt(0).putInt(0);
+        for (int i = 0; i < zoneCount * 4; i++) {
+            buffer.putInt(zones[i]);
+        }
+        for (long word : walls) {
+            buffer.putLong(word);
+        }
+        buffer.put(types);
+        out.position(out.position() + buffer.position());
+    }
+
+    public Level build() {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize());
+        writeTo(buffer);
+        buffer.flip();
+        return new Level(buffer);
+    }
+
+    public void writeTo(File file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize());
+        writeTo(buffer);
+        buffer.flip();
+        try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Write several encoded levels as one indexed pack
+     */
+    public static void writePack(File file, List<LevelWriter> levels) throws IOException {
+        int indexSize = LevelFormat.PACK_HEADER_SIZE + levels.size() * LevelFormat.PACK_ENTRY_SIZE;
+        long total = indexSize;
+        for (LevelWriter level : levels) {
+            total += level.encodedSize();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Level pack too large");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(LevelFormat.PACK_MAGIC).putInt(levels.size());
+        long offset = indexSize;
+        for (LevelWriter level : levels) {
+            buffer.putLong(offset).putInt(level.encodedSize()).putInt(0);
+            offset += level.encodedSize();
+        }
+        for (LevelWriter level : levels) {
+            level.writeTo(buffer);
+        }
+        buffer.flip();
+        try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ts.snakegame.logic;
+
+import com.ts.snakegame.model.FoodType;
+import com.ts.snakegame.model.ObstacleType;
+
+/**
+ * Fine-grained board mutations reported by SnakeGameLogic as they happen
+ * Primitive arguments only, so observers (delta streams, journals) can
+ * record every tick without allocating
+ */
+public interface BoardChangeListener {
+
+    /** Board was cleared and rebuilt from scratch (reset, level load) */
+    void onBoardReset();
+
+    /** New head segment pushed at the front of the snake */
+    void onHeadAdded(int x, int y);
+
+    /** Last segment removed from the snake */
+    void onTailRemoved(int x, int y);
+
+    /** Copy of the last segment appended (growth) */
+    void onTailDuplicated(int x, int y);
+
+    void onFoodSpawned(int x, int y, FoodType type);
+
+    void onFoodRemoved(int x, int y, FoodType type);
+
+    void onObstacleSpawned(int x, int y, ObstacleType type);
+
+    /** Obstacle despawned after its lifetime */
+    void onObstacleRemoved(int x, int y, ObstacleType type);
+
+    /** Update finished; score, speed, direction and game-over flag are final for this tick */
+    void onTickCompleted(long tick);
+}
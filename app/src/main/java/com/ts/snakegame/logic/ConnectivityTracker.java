@@ -0,0 +1,202 @@
+package com.ts.snakegame.logic;
+
+import java.util.Random;
+
+/**
+ * Tracks which free cells the snake's head can still reach
+ * The reachable region is recomputed lazily - only after something may have
+ * split the board (obstacle spawn, level load, the body closing a loop) -
+ * and the blocked/reached bitsets are reused between recomputations
+ */
+public class ConnectivityTracker {
+
+    /** Random probes inside the region before falling back to a scan */
+    private static final int SAMPLE_ATTEMPTS = 32;
+
+    private final OccupancyGrid grid;
+    private final int width;
+    private final int height;
+    private final int cells;
+    private final long[] blocked;
+    private final long[] tooSmall;
+    private final FloodFill floodFill;
+    private boolean dirty = true;
+    private int reachableCount;
+
+    public ConnectivityTracker(OccupancyGrid grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.cells = width * height;
+        this.blocked = new long[(cells + 63) >>> 6];
+        this.tooSmall = new long[blocked.length];
+        this.floodFill = new FloodFill(width, height);
+    }
+
+    /**
+     * Force a recompute before the next query
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Called after the head moved onto (x, y)
+     * Walks the 8 neighbours around the new head; if the free cells form more
+     * than one arc, the body may have sealed off part of the board
+     */
+    public void onHeadMoved(int x, int y, boolean wrap) {
+        if (dirty) return;
+
+        int arcs = 0;
+        boolean previousFree = isFreeAround(x, y, -1, 0, wrap); // last neighbour in the ring
+        boolean anyBlocked = !previousFree;
+        for (int i = 0; i < 8; i++) {
+            boolean free = isFreeAround(x, y, RING_DX[i], RING_DY[i], wrap);
+            if (free && !previousFree) arcs++;
+            anyBlocked |= !free;
+            previousFree = free;
+        }
+        if (anyBlocked && arcs > 1) {
+            dirty = true;
+        }
+    }
+
+    // Clockwise ring starting top-left, ending left
+    private static final int[] RING_DX = {-1, 0, 1, 1, 1, 0, -1, -1};
+    private static final int[] RING_DY = {-1, -1, -1, 0, 1, 1, 1, 0};
+
+    private boolean isFreeAround(int x, int y, int dx, int dy, boolean wrap) {
+        int nx = x + dx;
+        int ny = y + dy;
+        if (wrap) {
+            nx = (nx + width) % width;
+            ny = (ny + height) % height;
+        } else if (nx < 0 || nx >= width || ny < 0 || ny >= height) {
+            return false;
+        }
+        return !grid.isBlocked(ny * width + nx);
+    }
+
+    /**
+     * Pick a random free cell in the head's region, recomputing it first if needed
+     * @return Cell index, or -1 if the region has no free cell left
+     */
+    public int pickReachableFreeCell(int headX, int headY, boolean wrap, Random random) {
+        return pickReachableFreeCell(headX, headY, wrap, random, null, 0);
+    }
+
+    /**
+     * Same, preferring cells at least minClearance steps from any hazard
+     * Falls back to any free cell in the region when none is that clear
+     */
+    public int pickReachableFreeCell(int headX, int headY, boolean wrap, Random random,
+                                     HazardField hazards, int minClearance) {
+        update(headX, headY, wrap);
+        if (reachableCount <= 1) {
+            return -1;
+        }
+        if (hazards == null) {
+            minClearance = 0;
+        }
+
+        for (int i = 0; i < SAMPLE_ATTEMPTS; i++) {
+            int cell = random.nextInt(cells);
+            if (isCandidate(cell, hazards, minClearance)) {
+                return cell;
+            }
+        }
+
+        // Region is a small share of the board - choose uniformly by scanning it
+        int candidates = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (isCandidate(cell, hazards, minClearance)) candidates++;
+        }
+        if (candidates == 0) {
+            return minClearance > 0 ? pickReachableFreeCell(headX, headY, wrap, random, null, 0) : -1;
+        }
+        int pick = random.nextInt(candidates);
+        for (int cell = 0; cell < cells; cell++) {
+            if (isCandidate(cell, hazards, minClearance) && pick-- == 0) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isCandidate(int cell, HazardField hazards, int minClearance) {
+        return floodFill.isReached(cell) && grid.isFree(cell)
+                && (minClearance == 0 || hazards.getDistance(cell) >= minClearance);
+    }
+
+    // ===== Room Checks =====
+
+    /**
+     * Prepare hasRoom() queries for the current board with the snake lifted
+     * off it (teleport); the head's region must be recomputed afterwards, so
+     * this invalidates it
+     */
+    public void beginRoomChecks() {
+        for (int w = 0; w < blocked.length; w++) {
+            long bits = 0;
+            int base = w << 6;
+            int end = Math.min(64, cells - base);
+            for (int b = 0; b < end; b++) {
+                if (grid.isObstacle(base + b)) bits |= 1L << b;
+            }
+            blocked[w] = bits;
+            tooSmall[w] = 0;
+        }
+        dirty = true;
+    }
+
+    /**
+     * True if the region around the cell has at least minSize cells
+     * Regions found too small are remembered, so each is flood-filled once
+     * per beginRoomChecks()
+     */
+    public boolean hasRoom(int cell, int minSize, boolean wrap) {
+        if ((tooSmall[cell >>> 6] & (1L << (cell & 63))) != 0) {
+            return false;
+        }
+        if (floodFill.fill(blocked, cell, wrap, minSize) >= minSize) {
+            return true;
+        }
+        long[] reached = floodFill.getReached();
+        for (int w = 0; w < tooSmall.length; w++) {
+            tooSmall[w] |= reached[w];
+        }
+        return false;
+    }
+
+    /**
+     * Recompute the region now if something invalidated it
+     */
+    public void update(int headX, int headY, boolean wrap) {
+        if (dirty) {
+            recompute(headX, headY, wrap);
+        }
+    }
+
+    /**
+     * True if the cell was in the head's region at the last recompute
+     */
+    public boolean isReachable(int cell) {
+        return !dirty && floodFill.isReached(cell);
+    }
+
+    private void recompute(int headX, int headY, boolean wrap) {
+        for (int w = 0; w < blocked.length; w++) {
+            long bits = 0;
+            int base = w << 6;
+            int end = Math.min(64, cells - base);
+            for (int b = 0; b < end; b++) {
+                if (grid.isBlocked(base + b)) bits |= 1L << b;
+            }
+            blocked[w] = bits;
+        }
+        int head = grid.inBounds(headX, headY) ? headY * width + headX : 0;
+        reachableCount = floodFill.fill(blocked, head, wrap);
+        dirty = false;
+    }
+}
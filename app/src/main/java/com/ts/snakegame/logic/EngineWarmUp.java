@@ -0,0 +1,35 @@
+package com.ts.snakegame.logic;
+
+import java.util.Random;
+
+/**
+ * Short headless simulation that gets the engine's hot paths loaded and
+ * compiled before the first real game
+ */
+public final class EngineWarmUp {
+
+    private static final SnakeGameLogic.Direction[] DIRECTIONS = SnakeGameLogic.Direction.values();
+
+    private EngineWarmUp() {}
+
+    /**
+     * Run random games on a private board
+     * @return Ticks simulated (keeps the work observable so it is not optimized away)
+     */
+    public static long run(int gridWidth, int gridHeight, int ticks) {
+        SnakeGameLogic logic = new SnakeGameLogic(gridWidth, gridHeight);
+        Random random = new Random(ticks);
+        long simulated = 0;
+        for (int i = 0; i < ticks; i++) {
+            if (logic.isGameOver()) {
+                logic.reset();
+            }
+            if (random.nextInt(4) == 0) {
+                logic.setDirection(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+            }
+            logic.update();
+            simulated += logic.getTick() > 0 ? 1 : 0;
+        }
+        return simulated;
+    }
+}
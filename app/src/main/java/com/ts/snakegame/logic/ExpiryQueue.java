@@ -0,0 +1,151 @@
+package com.ts.snakegame.logic;
+
+import com.ts.snakegame.model.ItemStore;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap of item handles keyed by expiry tick
+ * Each tick only the due items at the top are popped, so expiry costs
+ * O(expired * log n); items eaten early are cancelled in O(log n) through
+ * the id -> heap position index
+ */
+public class ExpiryQueue {
+
+    private static final int NOT_QUEUED = -1;
+
+    private long[] ticks;
+    private int[] handles;
+    private int[] positionById;
+    private int size;
+
+    public ExpiryQueue(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        ticks = new long[capacity];
+        handles = new int[capacity];
+        positionById = new int[capacity];
+        Arrays.fill(positionById, NOT_QUEUED);
+    }
+
+    /**
+     * Queue an item to expire at the given tick (replaces an earlier schedule)
+     */
+    public void schedule(int handle, long expiryTick) {
+        cancel(handle);
+        int id = ItemStore.idOf(handle);
+        ensureCapacity(size + 1, id + 1);
+        int index = size++;
+        ticks[index] = expiryTick;
+        handles[index] = handle;
+        positionById[id] = index;
+        siftUp(index);
+    }
+
+    /**
+     * Drop an item from the queue (eaten or removed before it expired)
+     */
+    public void cancel(int handle) {
+        int id = ItemStore.idOf(handle);
+        if (id >= positionById.length) return;
+        int index = positionById[id];
+        if (index == NOT_QUEUED || handles[index] != handle) return;
+        removeAt(index);
+    }
+
+    /**
+     * Expiry tick of a queued item, or -1 if it never expires
+     */
+    public long getExpiryTick(int handle) {
+        int id = ItemStore.idOf(handle);
+        if (id >= positionById.length) return -1;
+        int index = positionById[id];
+        return index != NOT_QUEUED && handles[index] == handle ? ticks[index] : -1;
+    }
+
+    /**
+     * Pop the next item due at or before the tick
+     * @return Its handle, or ItemStore.NO_HANDLE when nothing is due
+     */
+    public int pollDue(long tick) {
+        if (size == 0 || ticks[0] > tick) {
+            return ItemStore.NO_HANDLE;
+        }
+        int handle = handles[0];
+        removeAt(0);
+        return handle;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positionById[ItemStore.idOf(handles[i])] = NOT_QUEUED;
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void removeAt(int index) {
+        positionById[ItemStore.idOf(handles[index])] = NOT_QUEUED;
+        int last = --size;
+        if (index == last) return;
+        move(last, index);
+        if (index > 0 && ticks[index] < ticks[(index - 1) >>> 1]) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (ticks[parent] <= ticks[index]) break;
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = index * 2 + 1;
+            if (left >= size) break;
+            int right = left + 1;
+            int smallest = right < size && ticks[right] < ticks[left] ? right : left;
+            if (ticks[index] <= ticks[smallest]) break;
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void move(int from, int to) {
+        ticks[to] = ticks[from];
+        handles[to] = handles[from];
+        positionById[ItemStore.idOf(handles[to])] = to;
+    }
+
+    private void swap(int a, int b) {
+        long tick = ticks[a];
+        int handle = handles[a];
+        ticks[a] = ticks[b];
+        handles[a] = handles[b];
+        ticks[b] = tick;
+        handles[b] = handle;
+        positionById[ItemStore.idOf(handles[a])] = a;
+        positionById[ItemStore.idOf(handles[b])] = b;
+    }
+
+    private void ensureCapacity(int entries, int ids) {
+        if (entries > ticks.length) {
+            int capacity = Math.max(entries, ticks.length * 2);
+            ticks = Arrays.copyOf(ticks, capacity);
+            handles = Arrays.copyOf(handles, capacity);
+        }
+        if (ids > positionById.length) {
+            int old = positionById.length;
+            positionById = Arrays.copyOf(positionById, Math.max(ids, old * 2));
+            Arrays.fill(positionById, old, positionById.length, NOT_QUEUED);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ts.snakegame.logic;
+
+import java.util.Arrays;
+
+/**
+ * Reusable breadth-first flood fill over a bitset of blocked cells
+ * Scratch buffers are sized once per grid, so repeated fills allocate nothing.
+ * Not thread-safe - use one instance per thread
+ */
+public class FloodFill {
+
+    private final int width;
+    private final int height;
+    private final int cells;
+    private final long[] visited;
+    private final int[] queue;
+    private long distanceSum;
+    private int maxDistance;
+
+    public FloodFill(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.visited = new long[(cells + 63) >>> 6];
+        this.queue = new int[cells];
+    }
+
+    /**
+     * Mark every free cell reachable from the start with 4-neighbour moves
+     * @param blocked Bit set = cell cannot be entered
+     * @param start Start cell (y * width + x); counted even if blocked
+     * @param wrap Treat opposite edges as connected (wrap-around mode)
+     * @return Number of reached cells; see getReached() for the set itself
+     */
+    public int fill(long[] blocked, int start, boolean wrap) {
+        return fill(blocked, start, wrap, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same, but stop once limit cells are reached
+     * The reached set and distances are then partial; the result is exact
+     * only when it is below the limit
+     */
+    public int fill(long[] blocked, int start, boolean wrap, int limit) {
+        Arrays.fill(visited, 0L);
+        distanceSum = 0;
+        maxDistance = 0;
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start >>> 6] |= 1L << (start & 63);
+
+        // Layer boundaries give BFS distances without a distance array
+        int layerEnd = tail;
+        int distance = 0;
+        while (head < tail && tail < limit) {
+            if (head == layerEnd) {
+                distance++;
+                layerEnd = tail;
+            }
+            int cell = queue[head++];
+            distanceSum += distance;
+            maxDistance = distance;
+
+            int x = cell % width;
+            int y = cell / width;
+            if (x > 0) tail = visit(blocked, cell - 1, tail);
+            else if (wrap) tail = visit(blocked, cell + width - 1, tail);
+            if (x < width - 1) tail = visit(blocked, cell + 1, tail);
+            else if (wrap) tail = visit(blocked, cell - width + 1, tail);
+            if (y > 0) tail = visit(blocked, cell - width, tail);
+            else if (wrap) tail = visit(blocked, cell + cells - width, tail);
+            if (y < height - 1) tail = visit(blocked, cell + width, tail);
+            else if (wrap) tail = visit(blocked, cell - cells + width, tail);
+        }
+        return tail;
+    }
+
+    private int visit(long[] blocked, int cell, int tail) {
+        int word = cell >>> 6;
+        long bit = 1L << (cell & 63);
+        if ((visited[word] & bit) != 0 || (blocked[word] & bit) != 0) {
+            return tail;
+        }
+        visited[word] |= bit;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    /**
+     * Bitset of cells reached by the last fill (owned by this instance)
+     */
+    public long[] getReached() {
+        return visited;
+    }
+
+    public boolean isReached(int cell) {
+        return (visited[cell >>> 6] & (1L << (cell & 63))) != 0;
+    }
+
+    /**
+     * Sum of BFS distances from the start over all reached cells
+     */
+    public long getDistanceSum() {
+        return distanceSum;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Count free (unblocked) cells in a bitset grid
+     */
+    public static int countFree(long[] blocked, int cells) {
+        int count = 0;
+        int fullWords = cells >>> 6;
+        for (int w = 0; w < fullWords; w++) {
+            count += 64 - Long.bitCount(blocked[w]);
+        }
+        int rest = cells & 63;
+        if (rest != 0) {
+            long mask = (1L << rest) - 1;
+            count += rest - Long.bitCount(blocked[fullWords] & mask);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ts.snakegame.logic;
+
+import java.util.Random;
+
+/**
+ * Seedable random source whose whole state is one readable long (SplitMix64)
+ * Drop-in for java.util.Random, whose state can't be read back, so the
+ * engine can checkpoint and restore it (rewind, replays)
+ */
+public class GameRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public GameRandom(long seed) {
+        super(seed);
+        this.state = seed;
+    }
+
+    /**
+     * Called by the Random constructor as well
+     */
+    @Override
+    public synchronized void setSeed(long seed) {
+        state = seed;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Continue from a state previously returned by getState()
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
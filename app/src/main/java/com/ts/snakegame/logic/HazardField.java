@@ -0,0 +1,408 @@
+package com.ts.snakegame.logic;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * Distance from every cell to the nearest hazard (body, obstacle or wall),
+ * in 4-neighbour steps and capped at MAX_RADIUS
+ * A change to one cell can only move distances within MAX_RADIUS of it, so
+ * updates re-relax that diamond from its unchanged rim instead of the whole
+ * board. Cells are also kept grouped by distance, which makes "a random cell
+ * with the most clearance" an O(1) pick.
+ * Cells that stopped being hazards in bulk (a teleported body) can be queued
+ * and drained over later ticks: until then the field only under-reports
+ * clearance, so every pick stays safe. Batches too large to patch (many
+ * moving obstacles) mark the field stale instead, and the next read
+ * rebuilds it once however many ticks have passed
+ */
+public class HazardField {
+
+    /** Distances are exact up to this radius; farther cells report MAX_RADIUS */
+    public static final int MAX_RADIUS = 8;
+
+    private static final int DIAMOND_CELLS = 2 * MAX_RADIUS * MAX_RADIUS + 2 * MAX_RADIUS + 1;
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    private final OccupancyGrid grid;
+    private final int width;
+    private final int height;
+    private final int cells;
+    private boolean wrap;
+    private boolean stale;
+
+    private final byte[] distance;
+
+    // Cells ordered by distance: bucket d is order[bucketStart[d] .. bucketStart[d + 1])
+    private final int[] order;
+    private final int[] position;
+    private final int[] bucketStart = new int[MAX_RADIUS + 2];
+    private final int[] bucketFill = new int[MAX_RADIUS + 1];
+
+    // Scratch for re-relaxing a region
+    private final int[] regionStamp;
+    private int stamp;
+    private int[] region;
+    private int regionSize;
+    private final byte[] tentative;
+    private final int[][] levels = new int[MAX_RADIUS + 1][];
+    private final int[] levelSizes = new int[MAX_RADIUS + 1];
+
+    // Released cells waiting to be refreshed, deduplicated by flag
+    private final int[] pending;
+    private final boolean[] isPending;
+    private int pendingHead;
+    private int pendingCount;
+
+    public HazardField(OccupancyGrid grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.cells = width * height;
+        this.distance = new byte[cells];
+        this.order = new int[cells];
+        this.position = new int[cells];
+        this.regionStamp = new int[cells];
+        this.tentative = new byte[cells];
+        this.pending = new int[cells];
+        this.isPending = new boolean[cells];
+        this.region = new int[Math.min(cells, 4 * DIAMOND_CELLS)];
+        for (int d = 0; d <= MAX_RADIUS; d++) {
+            levels[d] = new int[64];
+        }
+    }
+
+    /**
+     * Recompute the whole field from the grid
+     * @param wrap Wrap-around mode: board edges are not hazards
+     */
+    public void rebuild(boolean wrap) {
+        this.wrap = wrap;
+        stale = false;
+        while (pendingCount > 0) {
+            isPending[pollPending()] = false;
+        }
+        beginRegion();
+        for (int cell = 0; cell < cells; cell++) {
+            regionStamp[cell] = stamp;
+        }
+        relax(0, cells, true);
+
+        // Lay the buckets out with a counting sort rather than cell-by-cell moves
+        Arrays.fill(bucketStart, 0);
+        for (int cell = 0; cell < cells; cell++) {
+            distance[cell] = tentative[cell];
+            bucketStart[distance[cell] + 1]++;
+        }
+        for (int d = 1; d <= MAX_RADIUS + 1; d++) {
+            bucketStart[d] += bucketStart[d - 1];
+        }
+        System.arraycopy(bucketStart, 0, bucketFill, 0, MAX_RADIUS + 1);
+        for (int cell = 0; cell < cells; cell++) {
+            int index = bucketFill[distance[cell]]++;
+            order[index] = cell;
+            position[cell] = index;
+        }
+    }
+
+    /**
+     * Called after the grid changed at this cell (snake, obstacle or item)
+     * Cheap no-op unless the cell's hazard state flipped
+     */
+    public void refresh(int cell) {
+        if (stale) return;
+        boolean hazard = grid.isBlocked(cell);
+        if (hazard == (distance[cell] == 0)) {
+            return;
+        }
+        beginRegion();
+        addDiamond(cell);
+        relaxRegion();
+    }
+
+    /**
+     * Refresh many changed cells in one pass
+     * When the affected area approaches the board size the field is marked
+     * stale instead, and rebuilt on the next read
+     */
+    public void refresh(int[] changed, int count) {
+        if (stale) return;
+        if ((long) count * DIAMOND_CELLS > cells / 4) {
+            stale = true;
+            return;
+        }
+        beginRegion();
+        for (int i = 0; i < count; i++) {
+            int cell = changed[i];
+            if (grid.isBlocked(cell) != (distance[cell] == 0)) {
+                addDiamond(cell);
+            }
+        }
+        if (regionSize > 0) {
+            relaxRegion();
+        }
+    }
+
+    /**
+     * Queue a cell that may have stopped being a hazard; see drainPending()
+     */
+    public void deferRefresh(int cell) {
+        if (stale || isPending[cell]) return;
+        isPending[cell] = true;
+        pending[(pendingHead + pendingCount) % cells] = cell;
+        pendingCount++;
+    }
+
+    /**
+     * Refresh up to budget queued cells in one batch
+     */
+    public void drainPending(int budget) {
+        if (stale || pendingCount == 0) return;
+        beginRegion();
+        for (int i = 0; i < budget && pendingCount > 0; i++) {
+            int cell = pollPending();
+            isPending[cell] = false;
+            if (grid.isBlocked(cell) != (distance[cell] == 0)) {
+                addDiamond(cell);
+            }
+        }
+        if (regionSize > 0) {
+            relaxRegion();
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    private int pollPending() {
+        int cell = pending[pendingHead];
+        pendingHead = (pendingHead + 1) % cells;
+        pendingCount--;
+        return cell;
+    }
+
+    public int getDistance(int cell) {
+        if (stale) rebuild(wrap);
+        return distance[cell];
+    }
+
+    /**
+     * Largest distance any cell currently has (0 if the board is all hazard)
+     */
+    public int getMaxClearance() {
+        if (stale) rebuild(wrap);
+        for (int d = MAX_RADIUS; d > 0; d--) {
+            if (bucketStart[d + 1] > bucketStart[d]) return d;
+        }
+        return 0;
+    }
+
+    /**
+     * Random item-free cell among those farthest from any hazard
+     * @param minClearance Smallest acceptable distance
+     * @return Cell index, or -1 if no free cell has that much clearance
+     */
+    public int pickClearest(Random random, int minClearance) {
+        return pickClearest(random, minClearance, null);
+    }
+
+    /**
+     * Same, skipping free cells the filter rejects
+     * @param accept Extra test for free cells (e.g. room to move), null for none
+     */
+    public int pickClearest(Random random, int minClearance, IntPredicate accept) {
+        if (stale) rebuild(wrap);
+        for (int d = MAX_RADIUS; d >= Math.max(1, minClearance); d--) {
+            int from = bucketStart[d];
+            int size = bucketStart[d + 1] - from;
+            if (size == 0) continue;
+            // Items don't affect distance; probe a few times, then scan the bucket
+            for (int attempt = 0; attempt < 8; attempt++) {
+                int cell = order[from + random.nextInt(size)];
+                if (isCandidate(cell, accept)) return cell;
+            }
+            int offset = random.nextInt(size);
+            for (int i = 0; i < size; i++) {
+                int cell = order[from + (offset + i) % size];
+                if (isCandidate(cell, accept)) return cell;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isCandidate(int cell, IntPredicate accept) {
+        return grid.isFree(cell) && (accept == null || accept.test(cell));
+    }
+
+    /**
+     * Direction ordinal (UP, DOWN, LEFT, RIGHT) of the neighbour with the most
+     * clearance, preferring the given one on ties; -1 if every neighbour is a hazard
+     */
+    public int safestDirection(int cell, int preferred) {
+        if (stale) rebuild(wrap);
+        int x = cell % width;
+        int y = cell / width;
+        int best = -1;
+        int bestDistance = 0;
+        for (int i = 0; i < 4; i++) {
+            int dir = (preferred + i) & 3;
+            int neighbour = neighbour(x + DX[dir], y + DY[dir]);
+            if (neighbour < 0) continue;
+            int d = distance[neighbour];
+            if (d > bestDistance) {
+                best = dir;
+                bestDistance = d;
+            }
+        }
+        return best;
+    }
+
+    // ===== Region Relaxation =====
+
+    private void beginRegion() {
+        regionSize = 0;
+        if (++stamp == 0) {
+            Arrays.fill(regionStamp, 0);
+            stamp = 1;
+        }
+    }
+
+    private void addToRegion(int cell) {
+        if (regionStamp[cell] == stamp) return;
+        regionStamp[cell] = stamp;
+        if (regionSize == region.length) {
+            region = Arrays.copyOf(region, Math.min(cells, region.length * 2));
+        }
+        region[regionSize++] = cell;
+    }
+
+    /**
+     * Every cell within MAX_RADIUS steps of the center
+     */
+    private void addDiamond(int center) {
+        int cx = center % width;
+        int cy = center / width;
+        for (int dy = -MAX_RADIUS; dy <= MAX_RADIUS; dy++) {
+            int span = MAX_RADIUS - Math.abs(dy);
+            for (int dx = -span; dx <= span; dx++) {
+                int cell = neighbour(cx + dx, cy + dy);
+                if (cell >= 0) addToRegion(cell);
+            }
+        }
+    }
+
+    /**
+     * Recompute distances inside the region (Dial's algorithm over the
+     * 0..MAX_RADIUS buckets), seeded by its hazards, the board edges and the
+     * unchanged cells bordering it
+     */
+    private void relaxRegion() {
+        relax(0, regionSize, false);
+        for (int i = 0; i < regionSize; i++) {
+            int cell = region[i];
+            if (tentative[cell] != distance[cell]) {
+                move(cell, distance[cell], tentative[cell]);
+                distance[cell] = tentative[cell];
+            }
+        }
+    }
+
+    /**
+     * Fill tentative[] for the region (the listed cells, or every cell when
+     * whole is set, in which case there is no rim)
+     */
+    private void relax(int from, int to, boolean whole) {
+        Arrays.fill(levelSizes, 0);
+        for (int i = from; i < to; i++) {
+            int cell = whole ? i : region[i];
+            int seed = grid.isBlocked(cell) ? 0 : edgeDistance(cell);
+            tentative[cell] = (byte) seed;
+            if (seed < MAX_RADIUS) push(seed, cell);
+            if (whole) continue;
+
+            // Rim: neighbours outside the region keep their (still correct) value
+            int x = cell % width;
+            int y = cell / width;
+            for (int dir = 0; dir < 4; dir++) {
+                int outside = neighbour(x + DX[dir], y + DY[dir]);
+                if (outside >= 0 && regionStamp[outside] != stamp && distance[outside] < MAX_RADIUS - 1) {
+                    push(distance[outside], outside);
+                }
+            }
+        }
+
+        for (int d = 0; d < MAX_RADIUS - 1; d++) {
+            int[] level = levels[d];
+            for (int i = 0; i < levelSizes[d]; i++) {
+                int cell = level[i];
+                boolean inside = regionStamp[cell] == stamp;
+                if (inside && tentative[cell] != d) continue; // Stale entry
+                int x = cell % width;
+                int y = cell / width;
+                for (int dir = 0; dir < 4; dir++) {
+                    int next = neighbour(x + DX[dir], y + DY[dir]);
+                    if (next >= 0 && regionStamp[next] == stamp && tentative[next] > d + 1) {
+                        tentative[next] = (byte) (d + 1);
+                        push(d + 1, next);
+                    }
+                }
+            }
+        }
+    }
+
+    private void push(int d, int cell) {
+        if (levelSizes[d] == levels[d].length) {
+            levels[d] = Arrays.copyOf(levels[d], levels[d].length * 2);
+        }
+        levels[d][levelSizes[d]++] = cell;
+    }
+
+    /**
+     * Move a cell between distance buckets by swapping it across bucket borders
+     */
+    private void move(int cell, int from, int to) {
+        for (int d = from; d < to; d++) {
+            swap(position[cell], bucketStart[d + 1] - 1);
+            bucketStart[d + 1]--;
+        }
+        for (int d = from; d > to; d--) {
+            swap(position[cell], bucketStart[d]);
+            bucketStart[d]++;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int a = order[i];
+        int b = order[j];
+        order[i] = b;
+        order[j] = a;
+        position[b] = i;
+        position[a] = j;
+    }
+
+    /**
+     * Steps to leave the board (walls are hazards unless wrapping), capped
+     */
+    private int edgeDistance(int cell) {
+        if (wrap) return MAX_RADIUS;
+        int x = cell % width;
+        int y = cell / width;
+        int d = Math.min(Math.min(x + 1, width - x), Math.min(y + 1, height - y));
+        return Math.min(d, MAX_RADIUS);
+    }
+
+    /**
+     * Cell index of (x, y), wrapped or -1 when off the board
+     */
+    private int neighbour(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            if (!wrap) return -1;
+            x = (x + width) % width;
+            y = (y + height) % height;
+        }
+        return y * width + x;
+    }
+}
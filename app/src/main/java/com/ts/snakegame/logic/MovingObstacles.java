@@ -0,0 +1,252 @@
+package com.ts.snakegame.logic;
+
+import com.ts.snakegame.model.ItemStore;
+import com.ts.snakegame.model.ObstacleType;
+
+import java.util.Arrays;
+
+/**
+ * Paths and positions of obstacles that move one step per tick
+ * A path is laid out once, when the obstacle appears, from its anchor cell
+ * and a shape number (orientation); it never depends on the board contents,
+ * so replays and rewinds rebuild exactly the same path. All movers live in
+ * flat primitive arrays indexed by slot, paths MAX_PATH cells apart, and
+ * step() advances them all in one pass over those arrays
+ */
+public class MovingObstacles {
+
+    /** Longest path (cells in one full cycle) */
+    public static final int MAX_PATH = 16;
+
+    /** Number of shapes (orientations) each path type has */
+    public static final int SHAPES = 4;
+
+    /** Cells a patrolling wall paces along, including its anchor */
+    private static final int PATROL_SPAN = 5;
+
+    // Rolling stones walk the rim of a 3x3 square starting at its corner
+    private static final int[] LOOP_DX = {0, 1, 2, 2, 2, 1, 0, 0};
+    private static final int[] LOOP_DY = {0, 0, 0, 1, 2, 2, 2, 1};
+
+    private static final int NO_SLOT = -1;
+
+    private int[] handles = new int[8];
+    private int[] anchors = new int[8];
+    private int[] shapes = new int[8];
+    private int[] phases = new int[8];
+    private int[] lengths = new int[8];
+    private int[] paths = new int[8 * MAX_PATH];
+    private int[] slotById = new int[8];
+    private int size;
+    private long hash;
+
+    public MovingObstacles() {
+        Arrays.fill(slotById, NO_SLOT);
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            slotById[ItemStore.idOf(handles[i])] = NO_SLOT;
+        }
+        size = 0;
+        hash = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Start moving an obstacle that was just placed on its anchor cell
+     */
+    public void add(int handle, ObstacleType type, int anchor, int shape, int width, int height) {
+        restore(handle, type, anchor, shape, 0, width, height);
+    }
+
+    /**
+     * Register an obstacle with a known path and position on it (undo, resize)
+     * @param phase Index of the obstacle's current cell on the path
+     */
+    public void restore(int handle, ObstacleType type, int anchor, int shape, int phase, int width, int height) {
+        int id = ItemStore.idOf(handle);
+        ensureCapacity(size + 1, id + 1);
+        int slot = size++;
+        handles[slot] = handle;
+        anchors[slot] = anchor;
+        shapes[slot] = shape;
+        lengths[slot] = buildPath(slot * MAX_PATH, type, anchor, shape, width, height);
+        phases[slot] = Math.min(phase, lengths[slot] - 1);
+        slotById[id] = slot;
+        hash ^= Zobrist.key(anchor, Zobrist.MOVER_SHAPE + shape)
+                ^ Zobrist.key(cellOf(slot), Zobrist.MOVER_PHASE + phases[slot]);
+    }
+
+    /**
+     * Stop tracking an obstacle (removed from the board); no-op for static ones
+     */
+    public void remove(int handle) {
+        int slot = slotOf(handle);
+        if (slot == NO_SLOT) return;
+        hash ^= Zobrist.key(anchors[slot], Zobrist.MOVER_SHAPE + shapes[slot])
+                ^ Zobrist.key(cellOf(slot), Zobrist.MOVER_PHASE + phases[slot]);
+        slotById[ItemStore.idOf(handle)] = NO_SLOT;
+
+        int last = --size;
+        if (slot != last) {
+            handles[slot] = handles[last];
+            anchors[slot] = anchors[last];
+            shapes[slot] = shapes[last];
+            phases[slot] = phases[last];
+            lengths[slot] = lengths[last];
+            System.arraycopy(paths, last * MAX_PATH, paths, slot * MAX_PATH, MAX_PATH);
+            slotById[ItemStore.idOf(handles[slot])] = slot;
+        }
+    }
+
+    /**
+     * Slot of a moving obstacle, or -1 if the handle is not a mover
+     */
+    public int slotOf(int handle) {
+        int id = ItemStore.idOf(handle);
+        if (id >= slotById.length) return NO_SLOT;
+        int slot = slotById[id];
+        return slot != NO_SLOT && handles[slot] == handle ? slot : NO_SLOT;
+    }
+
+    public int anchorAt(int slot) {
+        return anchors[slot];
+    }
+
+    public int shapeAt(int slot) {
+        return shapes[slot];
+    }
+
+    public int phaseAt(int slot) {
+        return phases[slot];
+    }
+
+    /**
+     * Advance every mover one step, in slot order
+     * A mover waits when its next cell is not free (snake, food, another
+     * obstacle), so obstacles never land on anything; each move is applied to
+     * the grid and the store at once, which lets a mover follow one that just
+     * left its cell within the same pass
+     * @param moves Receives (to, from, previous phase) per move; at least 3 * size() long
+     * @return Number of moves written
+     */
+    public int step(OccupancyGrid grid, ItemStore obstacles, int[] moves) {
+        int count = 0;
+        for (int slot = 0; slot < size; slot++) {
+            int length = lengths[slot];
+            if (length < 2) continue;
+            int base = slot * MAX_PATH;
+            int phase = phases[slot];
+            int next = phase + 1 == length ? 0 : phase + 1;
+            int to = paths[base + next];
+            if (!grid.isFree(to)) continue;
+
+            int from = paths[base + phase];
+            grid.setObstacle(to, grid.getItem(from) - OccupancyGrid.OBSTACLE_BASE);
+            grid.clearItem(from);
+            obstacles.move(handles[slot], to);
+            phases[slot] = next;
+            hash ^= Zobrist.key(from, Zobrist.MOVER_PHASE + phase) ^ Zobrist.key(to, Zobrist.MOVER_PHASE + next);
+
+            moves[count * 3] = to;
+            moves[count * 3 + 1] = from;
+            moves[count * 3 + 2] = phase;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Take back a step of the mover now on cell to (rewind)
+     */
+    public void unstep(OccupancyGrid grid, ItemStore obstacles, int to, int from, int phase) {
+        int handle = obstacles.findByCell(to);
+        int slot = slotOf(handle);
+        grid.setObstacle(from, grid.getItem(to) - OccupancyGrid.OBSTACLE_BASE);
+        grid.clearItem(to);
+        obstacles.move(handle, from);
+        hash ^= Zobrist.key(to, Zobrist.MOVER_PHASE + phases[slot]) ^ Zobrist.key(from, Zobrist.MOVER_PHASE + phase);
+        phases[slot] = phase;
+    }
+
+    /**
+     * Zobrist hash of every mover's path and position on it
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    private int cellOf(int slot) {
+        return paths[slot * MAX_PATH + phases[slot]];
+    }
+
+    // ===== Paths =====
+
+    /**
+     * Lay out one full cycle of the path at paths[base..]
+     * Parts that would leave the board are cut (patrols) or mirrored (loops);
+     * a path with nowhere to go is a single cell and never moves
+     * @return Path length
+     */
+    private int buildPath(int base, ObstacleType type, int anchor, int shape, int width, int height) {
+        int x = anchor % width;
+        int y = anchor / width;
+        paths[base] = anchor;
+
+        if (type == ObstacleType.PATROL_WALL) {
+            // Shape: 0 right, 1 left, 2 down, 3 up; out along the line and back
+            int dx = shape == 0 ? 1 : shape == 1 ? -1 : 0;
+            int dy = shape == 2 ? 1 : shape == 3 ? -1 : 0;
+            int span = 1;
+            while (span < PATROL_SPAN && inBounds(x + dx * span, y + dy * span, width, height)) {
+                paths[base + span] = (y + dy * span) * width + x + dx * span;
+                span++;
+            }
+            for (int i = span - 2; i >= 1; i--) {
+                paths[base + 2 * span - 2 - i] = paths[base + i];
+            }
+            return Math.max(1, 2 * span - 2);
+        }
+
+        // Rolling stone; shape bits pick the quadrant the square extends into
+        for (int attempt = 0; attempt < SHAPES; attempt++) {
+            int s = (shape + attempt) % SHAPES;
+            int sx = (s & 1) == 0 ? 1 : -1;
+            int sy = (s & 2) == 0 ? 1 : -1;
+            if (!inBounds(x + 2 * sx, y + 2 * sy, width, height)) continue;
+            for (int i = 0; i < LOOP_DX.length; i++) {
+                // Mirroring one axis would reverse the direction; swap axes to keep it clockwise
+                int ox = sx * sy > 0 ? LOOP_DX[i] : LOOP_DY[i];
+                int oy = sx * sy > 0 ? LOOP_DY[i] : LOOP_DX[i];
+                paths[base + i] = (y + sy * oy) * width + x + sx * ox;
+            }
+            return LOOP_DX.length;
+        }
+        return 1;
+    }
+
+    private static boolean inBounds(int x, int y, int width, int height) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private void ensureCapacity(int slots, int ids) {
+        if (slots > handles.length) {
+            int capacity = Math.max(slots, handles.length * 2);
+            handles = Arrays.copyOf(handles, capacity);
+            anchors = Arrays.copyOf(anchors, capacity);
+            shapes = Arrays.copyOf(shapes, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            paths = Arrays.copyOf(paths, capacity * MAX_PATH);
+        }
+        if (ids > slotById.length) {
+            int old = slotById.length;
+            slotById = Arrays.copyOf(slotById, Math.max(ids, old * 2));
+            Arrays.fill(slotById, old, slotById.length, NO_SLOT);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ts.snakegame.logic;
+
+import java.util.Arrays;
+
+/**
+ * Per-cell occupancy of the board for O(1) collision and spawn checks
+ * Items (food, obstacles, level walls) are stored as one code per cell; snake
+ * segments are counted separately because growth stacks several segments on
+ * the same cell. A Zobrist hash of everything on the board is kept up to date
+ * by each change
+ */
+public class OccupancyGrid {
+
+    /** Nothing on the cell */
+    public static final byte EMPTY = 0;
+
+    /** Codes OBSTACLE_BASE + ObstacleType ordinal */
+    public static final byte OBSTACLE_BASE = 1;
+
+    /** Codes FOOD_BASE + FoodType ordinal */
+    public static final byte FOOD_BASE = 64;
+
+    private final int width;
+    private final int height;
+    private final byte[] items;
+    private final short[] snake;
+    private long hash;
+
+    public OccupancyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.items = new byte[width * height];
+        this.snake = new short[width * height];
+    }
+
+    public void clear() {
+        Arrays.fill(items, EMPTY);
+        Arrays.fill(snake, (short) 0);
+        hash = 0;
+    }
+
+    public int cellOf(int x, int y) {
+        return y * width + x;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    // ===== Snake =====
+
+    /**
+     * Count a segment on the cell; segments off the board (no walls, no wrap) are not tracked
+     */
+    public void addSnake(int x, int y) {
+        if (!inBounds(x, y)) return;
+        int cell = y * width + x;
+        // Stacked segments each get their own key so pairs don't cancel out
+        hash ^= Zobrist.key(cell, Zobrist.SNAKE_LEVEL + ++snake[cell]);
+    }
+
+    public void removeSnake(int x, int y) {
+        if (!inBounds(x, y)) return;
+        int cell = y * width + x;
+        hash ^= Zobrist.key(cell, Zobrist.SNAKE_LEVEL + snake[cell]--);
+    }
+
+    public boolean isSnake(int x, int y) {
+        return inBounds(x, y) && snake[y * width + x] > 0;
+    }
+
+    // ===== Items =====
+
+    public void setObstacle(int cell, int obstacleOrdinal) {
+        setItem(cell, (byte) (OBSTACLE_BASE + obstacleOrdinal));
+    }
+
+    public void setFood(int cell, int foodOrdinal) {
+        setItem(cell, (byte) (FOOD_BASE + foodOrdinal));
+    }
+
+    public void clearItem(int cell) {
+        setItem(cell, EMPTY);
+    }
+
+    private void setItem(int cell, byte code) {
+        if (items[cell] != EMPTY) hash ^= Zobrist.key(cell, items[cell]);
+        if (code != EMPTY) hash ^= Zobrist.key(cell, code);
+        items[cell] = code;
+    }
+
+    public byte getItem(int cell) {
+        return items[cell];
+    }
+
+    public boolean isObstacle(int x, int y) {
+        if (!inBounds(x, y)) return false;
+        byte code = items[y * width + x];
+        return code >= OBSTACLE_BASE && code < FOOD_BASE;
+    }
+
+    public boolean isFood(int x, int y) {
+        return inBounds(x, y) && items[y * width + x] >= FOOD_BASE;
+    }
+
+    public boolean isObstacle(int cell) {
+        byte code = items[cell];
+        return code >= OBSTACLE_BASE && code < FOOD_BASE;
+    }
+
+    /**
+     * True when the snake cannot pass through the cell (body or obstacle)
+     */
+    public boolean isBlocked(int cell) {
+        byte code = items[cell];
+        return snake[cell] > 0 || (code >= OBSTACLE_BASE && code < FOOD_BASE);
+    }
+
+    /**
+     * True when nothing (snake, food, obstacle) occupies the cell
+     */
+    public boolean isFree(int x, int y) {
+        int cell = y * width + x;
+        return items[cell] == EMPTY && snake[cell] == 0;
+    }
+
+    public boolean isFree(int cell) {
+        return items[cell] == EMPTY && snake[cell] == 0;
+    }
+
+    /**
+     * Zobrist hash of snake segments and items on the board
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,205 @@
+package com.ts.snakegame.logic;
+
+import android.graphics.Point;
+
+import com.ts.snakegame.level.Level;
+import com.ts.snakegame.model.ItemStore;
+
+import java.util.Arrays;
+
+/**
+ * Everything the renderer draws for one finished tick, in primitive arrays
+ * Filled by the simulation with capture() and handed over through a
+ * SnapshotExchange; the arrays are reused from capture to capture and only
+ * grow when the snake or the item count outgrows them
+ */
+public class RenderSnapshot {
+
+    private int gridWidth;
+    private int gridHeight;
+    private Level level;
+    private long tick;
+    private long tickUptime;
+    private int score;
+    private int speed;
+    private boolean gameOver;
+    private int previousTailX;
+    private int previousTailY;
+
+    // Snake body, index 0 = head
+    private int[] bodyX = new int[64];
+    private int[] bodyY = new int[64];
+    private int length;
+
+    private int[] foodCells = new int[16];
+    private int[] foodTypes = new int[16];
+    private long[] foodExpiry = new long[16];
+    private int foodCount;
+
+    private int[] obstacleCells = new int[16];
+    private int[] obstacleTypes = new int[16];
+    private long[] obstacleExpiry = new long[16];
+    private int obstacleCount;
+
+    /**
+     * Copy the game's current state (simulation thread)
+     * @param tickUptime Clock reading when the tick finished, for interpolation
+     */
+    public void capture(SnakeGameLogic game, long tickUptime) {
+        gridWidth = game.getGridWidth();
+        gridHeight = game.getGridHeight();
+        level = game.getLevel();
+        tick = game.getTick();
+        this.tickUptime = tickUptime;
+        score = game.getScore();
+        speed = game.getCurrentSpeed();
+        gameOver = game.isGameOver();
+        previousTailX = game.getPreviousTailX();
+        previousTailY = game.getPreviousTailY();
+
+        length = game.getSnakeLength();
+        if (length > bodyX.length) {
+            bodyX = new int[Math.max(length, bodyX.length * 2)];
+            bodyY = new int[bodyX.length];
+        }
+        for (int i = 0; i < length; i++) {
+            Point segment = game.getSnakeSegment(i);
+            bodyX[i] = segment.x;
+            bodyY[i] = segment.y;
+        }
+
+        ItemStore foods = game.getFoodStore();
+        foodCount = foods.size();
+        if (foodCount > foodCells.length) {
+            int capacity = Math.max(foodCount, foodCells.length * 2);
+            foodCells = Arrays.copyOf(foodCells, capacity);
+            foodTypes = Arrays.copyOf(foodTypes, capacity);
+            foodExpiry = Arrays.copyOf(foodExpiry, capacity);
+        }
+        for (int i = 0; i < foodCount; i++) {
+            foodCells[i] = foods.cellAt(i);
+            foodTypes[i] = foods.typeAt(i);
+            foodExpiry[i] = game.getFoodExpiryTick(foods.handleAt(i));
+        }
+
+        ItemStore obstacles = game.getObstacleStore();
+        obstacleCount = obstacles.size();
+        if (obstacleCount > obstacleCells.length) {
+            int capacity = Math.max(obstacleCount, obstacleCells.length * 2);
+            obstacleCells = Arrays.copyOf(obstacleCells, capacity);
+            obstacleTypes = Arrays.copyOf(obstacleTypes, capacity);
+            obstacleExpiry = Arrays.copyOf(obstacleExpiry, capacity);
+        }
+        for (int i = 0; i < obstacleCount; i++) {
+            obstacleCells[i] = obstacles.cellAt(i);
+            obstacleTypes[i] = obstacles.typeAt(i);
+            obstacleExpiry[i] = game.getObstacleExpiryTick(obstacles.handleAt(i));
+        }
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    /**
+     * Active level, or null on an open board
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Clock reading passed to capture()
+     */
+    public long getTickUptime() {
+        return tickUptime;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getCurrentSpeed() {
+        return speed;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Tail cell before this tick, for interpolating tail movement
+     */
+    public int getPreviousTailX() {
+        return previousTailX;
+    }
+
+    public int getPreviousTailY() {
+        return previousTailY;
+    }
+
+    // ===== Snake =====
+
+    public int getSnakeLength() {
+        return length;
+    }
+
+    /**
+     * Segment position (0 = head)
+     */
+    public int getSegmentX(int index) {
+        return bodyX[index];
+    }
+
+    public int getSegmentY(int index) {
+        return bodyY[index];
+    }
+
+    // ===== Items =====
+
+    public int getFoodCount() {
+        return foodCount;
+    }
+
+    public int getFoodCell(int index) {
+        return foodCells[index];
+    }
+
+    public int getFoodType(int index) {
+        return foodTypes[index];
+    }
+
+    /**
+     * Tick at which the food despawns, or -1 if it stays until eaten
+     */
+    public long getFoodExpiryTick(int index) {
+        return foodExpiry[index];
+    }
+
+    public int getObstacleCount() {
+        return obstacleCount;
+    }
+
+    public int getObstacleCell(int index) {
+        return obstacleCells[index];
+    }
+
+    public int getObstacleType(int index) {
+        return obstacleTypes[index];
+    }
+
+    /**
+     * Tick at which the obstacle despawns, or -1 if it is permanent
+     */
+    public long getObstacleExpiryTick(int index) {
+        return obstacleExpiry[index];
+    }
+}
@@ -0,0 +1,204 @@
+package com.ts.snakegame.logic;
+
+/**
+ * Fixed-size ring of reversible per-tick deltas, stored as ints
+ * Each record is its arguments followed by a header word (op << 8 | argument
+ * count), so the journal can be read backwards from the newest record. A tick
+ * ends with an OP_TICK record holding the scalar state from before the tick
+ * and the tick's total length; ticks whose start has been overwritten can no
+ * longer be undone. Memory depends only on the capacity, not the board
+ */
+public class RewindJournal {
+
+    // ===== Record Types =====
+    /** Pre-tick scalars, written last in each tick */
+    public static final int OP_TICK = 1;
+    /** Head pushed onto cell */
+    public static final int OP_HEAD = 2;
+    /** Tail segment dropped from cell */
+    public static final int OP_TAIL_REMOVED = 3;
+    /** Tail segment duplicated on cell (growth) */
+    public static final int OP_TAIL_DUPLICATED = 4;
+    /** Item added: cell, type */
+    public static final int OP_FOOD_ADDED = 5;
+    public static final int OP_OBSTACLE_ADDED = 6;
+    /** Item removed: cell, type, spawn tick, spawn time, expiry tick */
+    public static final int OP_FOOD_REMOVED = 7;
+    public static final int OP_OBSTACLE_REMOVED = 8;
+    /** Body segment that was on cell before a teleport, head first */
+    public static final int OP_SEGMENT = 9;
+    /** Snake collapsed onto cell, with its length */
+    public static final int OP_TELEPORT = 10;
+    /** Moving obstacle stepped onto cell: cell, from cell, phase before the step */
+    public static final int OP_OBSTACLE_MOVED = 11;
+    /** Path of a moving obstacle about to be removed: cell, anchor, shape, phase */
+    public static final int OP_MOVER = 12;
+
+    // ===== OP_TICK Arguments =====
+    public static final int TICK_NUMBER = 0;        // long
+    public static final int TICK_TIME = 2;          // long, wall clock at tick start
+    public static final int TICK_RANDOM = 4;        // long, RNG state
+    public static final int TICK_FOOD_TIMER = 6;    // long
+    public static final int TICK_OBSTACLE_TIMER = 8; // long
+    public static final int TICK_DIRECTION = 10;
+    public static final int TICK_NEXT_DIRECTION = 11;
+    public static final int TICK_SCORE = 12;
+    public static final int TICK_SPEED = 13;
+    public static final int TICK_TAIL_X = 14;
+    public static final int TICK_TAIL_Y = 15;
+    public static final int TICK_LENGTH = 16;
+    private static final int TICK_ARGS = 17;
+
+    // ===== Item Arguments =====
+    public static final int ITEM_CELL = 0;
+    public static final int ITEM_TYPE = 1;
+    public static final int ITEM_SPAWN_TICK = 2;    // long
+    public static final int ITEM_SPAWN_TIME = 4;    // long
+    public static final int ITEM_EXPIRY_TICK = 6;   // long, -1 = never
+    private static final int ITEM_ARGS = 8;
+
+    private final int[] ring;
+    private final int capacity;
+    private long end;           // Total ints ever written, minus ints popped
+    private int readable;       // Ints readable backwards from end
+    private long tickStart;
+    private final int[] tickArgs = new int[TICK_ARGS];
+
+    /**
+     * @param capacity Ring size in ints
+     */
+    public RewindJournal(int capacity) {
+        this.capacity = Math.max(64, capacity);
+        this.ring = new int[this.capacity];
+    }
+
+    public void clear() {
+        readable = 0;
+        tickStart = end;
+    }
+
+    // ===== Writing =====
+
+    /**
+     * Remember the scalars from before a tick; written out by endTick()
+     */
+    public void beginTick(long tick, long time, long randomState, long foodTimer, long obstacleTimer,
+                          int direction, int nextDirection, int score, int speed, int tailX, int tailY) {
+        tickStart = end;
+        putLong(tickArgs, TICK_NUMBER, tick);
+        putLong(tickArgs, TICK_TIME, time);
+        putLong(tickArgs, TICK_RANDOM, randomState);
+        putLong(tickArgs, TICK_FOOD_TIMER, foodTimer);
+        putLong(tickArgs, TICK_OBSTACLE_TIMER, obstacleTimer);
+        tickArgs[TICK_DIRECTION] = direction;
+        tickArgs[TICK_NEXT_DIRECTION] = nextDirection;
+        tickArgs[TICK_SCORE] = score;
+        tickArgs[TICK_SPEED] = speed;
+        tickArgs[TICK_TAIL_X] = tailX;
+        tickArgs[TICK_TAIL_Y] = tailY;
+    }
+
+    public void endTick() {
+        tickArgs[TICK_LENGTH] = (int) (end - tickStart) + TICK_ARGS + 1;
+        for (int i = 0; i < TICK_ARGS; i++) {
+            write(tickArgs[i]);
+        }
+        write(OP_TICK << 8 | TICK_ARGS);
+    }
+
+    public void record(int op, int a) {
+        write(a);
+        write(op << 8 | 1);
+    }
+
+    public void record(int op, int a, int b) {
+        write(a);
+        write(b);
+        write(op << 8 | 2);
+    }
+
+    public void record(int op, int a, int b, int c) {
+        write(a);
+        write(b);
+        write(c);
+        write(op << 8 | 3);
+    }
+
+    public void record(int op, int a, int b, int c, int d) {
+        write(a);
+        write(b);
+        write(c);
+        write(d);
+        write(op << 8 | 4);
+    }
+
+    public void recordItem(int op, int cell, int type, long spawnTick, long spawnTime, long expiryTick) {
+        write(cell);
+        write(type);
+        writeLong(spawnTick);
+        writeLong(spawnTime);
+        writeLong(expiryTick);
+        write(op << 8 | ITEM_ARGS);
+    }
+
+    private void writeLong(long value) {
+        write((int) (value >>> 32));
+        write((int) value);
+    }
+
+    private void write(int value) {
+        ring[(int) (end % capacity)] = value;
+        end++;
+        if (readable < capacity) readable++;
+    }
+
+    private static void putLong(int[] target, int index, long value) {
+        target[index] = (int) (value >>> 32);
+        target[index + 1] = (int) value;
+    }
+
+    // ===== Reading Backwards =====
+
+    /**
+     * True if the newest complete tick is still fully in the ring
+     */
+    public boolean canStepBack() {
+        return readable > 0 && op() == OP_TICK && arg(TICK_LENGTH) <= readable;
+    }
+
+    /**
+     * Type of the newest record
+     */
+    public int op() {
+        return header() >>> 8;
+    }
+
+    public int arg(int index) {
+        int count = header() & 0xFF;
+        return at(end - 1 - count + index);
+    }
+
+    public long longArg(int index) {
+        return (long) arg(index) << 32 | (arg(index + 1) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Drop the newest record
+     * @return Number of ints it occupied
+     */
+    public int pop() {
+        int size = (header() & 0xFF) + 1;
+        end -= size;
+        readable -= size;
+        tickStart = Math.min(tickStart, end);
+        return size;
+    }
+
+    private int header() {
+        return at(end - 1);
+    }
+
+    private int at(long position) {
+        return ring[(int) (position % capacity)];
+    }
+}
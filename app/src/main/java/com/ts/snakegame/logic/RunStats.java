@@ -0,0 +1,126 @@
+package com.ts.snakegame.logic;
+
+import com.ts.snakegame.model.FoodType;
+
+import java.util.Arrays;
+
+/**
+ * Counters for one run, filled in by SnakeGameLogic as it plays
+ * Every counter is a preallocated primitive, so a tick adds a few
+ * increments and nothing else. Ticks are counted as played: a rewind does
+ * not take them back. Copy the stats out (copyFrom) before handing them to
+ * another thread, the engine keeps writing its own instance
+ */
+public class RunStats {
+
+    /** Speeds are bucketed by exact tick length in ms, clamped to this range */
+    public static final int MAX_TRACKED_SPEED = 2000;
+
+    private final int[] foodsEaten = new int[FoodType.values().length];
+    private final int[] ticksAtSpeed = new int[MAX_TRACKED_SPEED + 1];
+    private long ticks;
+    private long gameMillis;
+    private int turns;
+    private int maxLength;
+    private int finalScore;
+    private int finalLength;
+    private SnakeGameLogic.DeathCause deathCause = SnakeGameLogic.DeathCause.NONE;
+
+    public void reset(int initialLength) {
+        Arrays.fill(foodsEaten, 0);
+        Arrays.fill(ticksAtSpeed, 0);
+        ticks = 0;
+        gameMillis = 0;
+        turns = 0;
+        maxLength = initialLength;
+        finalScore = 0;
+        finalLength = initialLength;
+        deathCause = SnakeGameLogic.DeathCause.NONE;
+    }
+
+    // ===== Engine Hooks =====
+
+    void onTick(int speed, boolean turned) {
+        ticks++;
+        gameMillis += speed;
+        ticksAtSpeed[Math.max(0, Math.min(MAX_TRACKED_SPEED, speed))]++;
+        if (turned) turns++;
+    }
+
+    void onFoodEaten(int foodOrdinal) {
+        foodsEaten[foodOrdinal]++;
+    }
+
+    void onLength(int length) {
+        if (length > maxLength) maxLength = length;
+    }
+
+    void onGameOver(SnakeGameLogic.DeathCause cause, int score, int length) {
+        deathCause = cause;
+        finalScore = score;
+        finalLength = length;
+    }
+
+    // ===== Snapshot =====
+
+    /**
+     * Overwrite these stats with another run's (no allocation)
+     */
+    public void copyFrom(RunStats other) {
+        System.arraycopy(other.foodsEaten, 0, foodsEaten, 0, foodsEaten.length);
+        System.arraycopy(other.ticksAtSpeed, 0, ticksAtSpeed, 0, ticksAtSpeed.length);
+        ticks = other.ticks;
+        gameMillis = other.gameMillis;
+        turns = other.turns;
+        maxLength = other.maxLength;
+        finalScore = other.finalScore;
+        finalLength = other.finalLength;
+        deathCause = other.deathCause;
+    }
+
+    public int getFoodsEaten(FoodType type) {
+        return foodsEaten[type.ordinal()];
+    }
+
+    /**
+     * Ticks played at a tick length of speed ms
+     */
+    public int getTicksAtSpeed(int speed) {
+        return speed >= 0 && speed <= MAX_TRACKED_SPEED ? ticksAtSpeed[speed] : 0;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Game time played, the sum of every tick's length (pauses excluded)
+     */
+    public long getGameMillis() {
+        return gameMillis;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public float getTurnsPerMinute() {
+        return gameMillis > 0 ? turns * 60000f / gameMillis : 0f;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    public int getFinalLength() {
+        return finalLength;
+    }
+
+    public SnakeGameLogic.DeathCause getDeathCause() {
+        return deathCause;
+    }
+}
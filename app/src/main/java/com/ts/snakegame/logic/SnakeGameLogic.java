@@ -3,14 +3,17 @@ package com.ts.snakegame.logic;
 import android.graphics.Point;
 
 import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.level.Level;
 import com.ts.snakegame.model.Food;
 import com.ts.snakegame.model.FoodType;
+import com.ts.snakegame.model.ItemStore;
 import com.ts.snakegame.model.Obstacle;
 import com.ts.snakegame.model.ObstacleType;
+import com.ts.snakegame.trace.Tracer;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.function.LongSupplier;
 
 /**
  * Core game logic class - handles snake movement, collisions, scoring
@@ -25,6 +28,13 @@ public class SnakeGameLogic {
         UP, DOWN, LEFT, RIGHT
     }
 
+    /**
+     * Reason a run ended
+     */
+    public enum DeathCause {
+        NONE, WALL, SELF, OBSTACLE, POISON
+    }
+
     /**
      * Interface for game events - used to notify view layer
      */
@@ -36,34 +46,95 @@ public class SnakeGameLogic {
         void onSpeedChanged(int newSpeed);
     }
 
-    private final int gridWidth;
-    private final int gridHeight;
-    private final Random random;
+    private static final FoodType[] FOOD_TYPES = FoodType.values();
+    private static final ObstacleType[] OBSTACLE_TYPES = ObstacleType.values();
+
+    /** Cells a teleport vacated that are returned to the hazard field per tick */
+    private static final int HAZARD_RELEASES_PER_TICK = 32;
+
+    // Board-sized state is replaced as a whole by resize()
+    private int gridWidth;
+    private int gridHeight;
+    private final GameRandom random;
     private final GameConfig config;
+    private OccupancyGrid grid;
+    private ConnectivityTracker connectivity;
+    private HazardField hazards;
+    private final RewindJournal journal;
+    private final RunStats stats = new RunStats();
+    private final MovingObstacles movers = new MovingObstacles();
+    private int[] moverMoves = new int[0];
+    private int[] moverCells = new int[0];
 
     private List<Point> snake;
-    private List<Food> foods;
-    private List<Obstacle> obstacles;
+    private ItemStore foods;
+    private ItemStore obstacles;
+    private final ExpiryQueue foodExpiry;
+    private final ExpiryQueue obstacleExpiry;
     private Direction direction;
     private Direction nextDirection;
     private boolean isGameOver;
+    private DeathCause deathCause;
     private int score;
     private int currentSpeed;
     private long lastFoodSpawnTime;
     private long lastObstacleSpawnTime;
+    private long tick;
+    private int previousTailX;
+    private int previousTailY;
+    private Level level;
     private GameEventListener eventListener;
+    // Spawn timers, item spawn times and rewind windows read this clock
+    private LongSupplier clock = System::currentTimeMillis;
+    private final List<BoardChangeListener> boardListeners = new ArrayList<>();
+
+    // Tick pipeline, assembled on reset; stages pass the head and eaten food along
+    private TickStage[] pipeline;
+    private int[] pipelineSections;
+    private boolean moverStageAssembled;
+    private final List<TickStage> customStages = new ArrayList<>();
+    private final List<TickStage.Phase> customPhases = new ArrayList<>();
+    private Point nextHead;
+    private int eatenFood = ItemStore.NO_HANDLE;
 
     /**
      * Constructor - initializes game with grid dimensions
      */
     public SnakeGameLogic(int gridWidth, int gridHeight) {
+        this(gridWidth, gridHeight, System.nanoTime());
+    }
+
+    /**
+     * Constructor with a fixed seed: the same seed and inputs replay the same game
+     */
+    public SnakeGameLogic(int gridWidth, int gridHeight, long seed) {
         this.gridWidth = gridWidth;
         this.gridHeight = gridHeight;
-        this.random = new Random();
+        this.random = new GameRandom(seed);
         this.config = GameConfig.getInstance();
         this.snake = new ArrayList<>();
-        this.foods = new ArrayList<>();
-        this.obstacles = new ArrayList<>();
+        this.foods = new ItemStore(gridWidth, gridWidth * gridHeight, config.maxFoodItems);
+        this.obstacles = new ItemStore(gridWidth, gridWidth * gridHeight, config.maxObstacles);
+        this.foodExpiry = new ExpiryQueue(config.maxFoodItems);
+        this.obstacleExpiry = new ExpiryQueue(config.maxObstacles);
+        this.grid = new OccupancyGrid(gridWidth, gridHeight);
+        this.connectivity = new ConnectivityTracker(grid);
+        this.hazards = new HazardField(grid);
+        this.journal = new RewindJournal(config.rewindJournalSize);
+        reset();
+    }
+
+    /**
+     * Play on a designed level from now on (takes effect immediately with a reset)
+     * @param level Level with the same dimensions as the grid, or null for an open board
+     * @throws IllegalArgumentException if the level size does not match the grid
+     */
+    public void loadLevel(Level level) {
+        if (level != null && (level.getWidth() != gridWidth || level.getHeight() != gridHeight)) {
+            throw new IllegalArgumentException("Level is " + level.getWidth() + "x" + level.getHeight()
+                    + ", grid is " + gridWidth + "x" + gridHeight);
+        }
+        this.level = level;
         reset();
     }
 
@@ -74,26 +145,304 @@ public class SnakeGameLogic {
         snake.clear();
         foods.clear();
         obstacles.clear();
+        foodExpiry.clear();
+        obstacleExpiry.clear();
+        movers.clear();
+        grid.clear();
 
-        // Initialize snake in center
+        // Initialize snake in center, or at the level's start facing its start direction
         int startX = gridWidth / 2;
         int startY = gridHeight / 2;
+        Direction startDirection = Direction.RIGHT;
+        if (level != null) {
+            applyLevelWalls();
+            startX = level.getStartX();
+            startY = level.getStartY();
+            startDirection = level.getStartDirection();
+        }
+        Point step = calculateStep(startDirection);
         for (int i = 0; i < config.initialSnakeLength; i++) {
-            snake.add(new Point(startX - i, startY));
+            // Body trails behind the head; stack segments at the border if it runs out of room
+            int x = Math.max(0, Math.min(gridWidth - 1, startX - step.x * i));
+            int y = Math.max(0, Math.min(gridHeight - 1, startY - step.y * i));
+            snake.add(new Point(x, y));
+            grid.addSnake(x, y);
         }
-
-        direction = Direction.RIGHT;
-        nextDirection = Direction.RIGHT;
+        tick = 0;
+        stats.reset(snake.size());
+        Point tail = snake.get(snake.size() - 1);
+        previousTailX = tail.x;
+        previousTailY = tail.y;
+        connectivity.invalidate();
+        hazards.rebuild(config.wrapAroundMode);
+
+        direction = startDirection;
+        nextDirection = startDirection;
         isGameOver = false;
+        deathCause = DeathCause.NONE;
         score = 0;
         currentSpeed = config.baseGameSpeed;
-        lastFoodSpawnTime = System.currentTimeMillis();
-        lastObstacleSpawnTime = System.currentTimeMillis();
+        lastFoodSpawnTime = clock.getAsLong();
+        lastObstacleSpawnTime = clock.getAsLong();
 
         // Spawn initial food
         spawnFood();
+        journal.clear();
+        assemblePipeline();
+
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onBoardReset();
+        }
+    }
+
+    /**
+     * Copy the level's wall bitset into the occupancy grid
+     * Walks set bits only, so sparse levels cost proportional to their walls
+     */
+    private void applyLevelWalls() {
+        int cells = gridWidth * gridHeight;
+        int words = level.getWallWordCount();
+        for (int w = 0; w < words; w++) {
+            long bits = level.getWallWord(w);
+            while (bits != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (cell < cells) {
+                    grid.setObstacle(cell, level.getWallType(cell));
+                }
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    // ===== Synthetic States =====
+
+    /**
+     * Replace the snake with the given cells (y * width + x), head first
+     * Used by tools and benchmarks to set up states that are impractical to
+     * reach by playing; items and walls stay as they are
+     */
+    public void placeSnake(int[] cells, int length, Direction heading) {
+        if (length < 1 || length > cells.length) {
+            throw new IllegalArgumentException("Invalid snake length " + length);
+        }
+        for (int i = 0; i < snake.size(); i++) {
+            Point segment = snake.get(i);
+            grid.removeSnake(segment.x, segment.y);
+        }
+        snake.clear();
+        for (int i = 0; i < length; i++) {
+            int x = cells[i] % gridWidth;
+            int y = cells[i] / gridWidth;
+            snake.add(new Point(x, y));
+            grid.addSnake(x, y);
+        }
+        Point tail = snake.get(length - 1);
+        previousTailX = tail.x;
+        previousTailY = tail.y;
+        direction = heading;
+        nextDirection = heading;
+        connectivity.invalidate();
+        hazards.rebuild(config.wrapAroundMode);
+        journal.clear();
+
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onBoardReset();
+        }
+    }
+
+    /**
+     * Put a food item on a free cell, ignoring the spawn limit and timer
+     * @return false if the cell is not free
+     */
+    public boolean placeFood(int x, int y, FoodType type) {
+        if (!grid.inBounds(x, y) || !grid.isFree(x, y)) {
+            return false;
+        }
+        addFood(grid.cellOf(x, y), type);
+        journal.clear();
+        return true;
+    }
+
+    /**
+     * Put an obstacle on a free cell, ignoring the spawn limit and timer
+     * @return false if the cell is not free
+     */
+    public boolean placeObstacle(int x, int y, ObstacleType type) {
+        if (!grid.inBounds(x, y) || !grid.isFree(x, y)) {
+            return false;
+        }
+        addObstacle(grid.cellOf(x, y), type);
+        journal.clear();
+        return true;
+    }
+
+    // ===== Resizing =====
+
+    /**
+     * Move the running game onto a board of another size (rotation, split
+     * screen, folding) instead of starting over
+     * Everything shifts by one offset: centered, then nudged so the head and
+     * as much of the body as fits stay on the board. With wrap-around the body
+     * is wrapped onto the new board instead. Without it, the snake is cut at
+     * the first segment that still falls off, and items that fall off or land
+     * on the snake are dropped. Score, tick, timers and item lifetimes carry
+     * over; the rewind journal is cleared
+     * @throws IllegalStateException if a level is loaded (levels have a fixed size)
+     */
+    public void resize(int newWidth, int newHeight) {
+        if (newWidth < 1 || newHeight < 1) {
+            throw new IllegalArgumentException("Invalid board size " + newWidth + "x" + newHeight);
+        }
+        if (newWidth == gridWidth && newHeight == gridHeight) return;
+        if (level != null) {
+            throw new IllegalStateException("Level boards cannot be resized");
+        }
+        boolean wrap = config.wrapAroundMode;
+
+        // Unwrap the body relative to the head so it stays contiguous when shifted
+        int length = snake.size();
+        int[] xs = new int[length];
+        int[] ys = new int[length];
+        xs[0] = snake.get(0).x;
+        ys[0] = snake.get(0).y;
+        for (int i = 1; i < length; i++) {
+            Point segment = snake.get(i);
+            xs[i] = xs[i - 1] + unwrapStep(segment.x - snake.get(i - 1).x, gridWidth);
+            ys[i] = ys[i - 1] + unwrapStep(segment.y - snake.get(i - 1).y, gridHeight);
+        }
+        Point oldTail = snake.get(length - 1);
+        int tailFromX = xs[length - 1] + unwrapStep(previousTailX - oldTail.x, gridWidth);
+        int tailFromY = ys[length - 1] + unwrapStep(previousTailY - oldTail.y, gridHeight);
+        int offsetX = resizeOffset(xs, length, gridWidth, newWidth, wrap);
+        int offsetY = resizeOffset(ys, length, gridHeight, newHeight, wrap);
+
+        int oldWidth = gridWidth;
+        ItemStore oldFoods = foods;
+        ItemStore oldObstacles = obstacles;
+        gridWidth = newWidth;
+        gridHeight = newHeight;
+        int cells = newWidth * newHeight;
+        grid = new OccupancyGrid(newWidth, newHeight);
+        connectivity = new ConnectivityTracker(grid);
+        hazards = new HazardField(grid);
+        foods = new ItemStore(newWidth, cells, config.maxFoodItems);
+        obstacles = new ItemStore(newWidth, cells, config.maxObstacles);
+
+        snake.clear();
+        for (int i = 0; i < length; i++) {
+            int x = shift(xs[i], offsetX, newWidth, wrap);
+            int y = shift(ys[i], offsetY, newHeight, wrap);
+            if (i > 0 && !grid.inBounds(x, y)) break;
+            snake.add(new Point(x, y));
+            grid.addSnake(x, y);
+        }
+        Point tail = snake.get(snake.size() - 1);
+        previousTailX = tail.x;
+        previousTailY = tail.y;
+        if (snake.size() == length) {
+            int x = shift(tailFromX, offsetX, newWidth, wrap);
+            int y = shift(tailFromY, offsetY, newHeight, wrap);
+            if (grid.inBounds(x, y)) {
+                previousTailX = x;
+                previousTailY = y;
+            }
+        }
+
+        // Handles change with the new stores, so lifetimes and path shapes are read first
+        long[] obstacleExpiryTicks = expiryTicks(oldObstacles, obstacleExpiry);
+        long[] foodExpiryTicks = expiryTicks(oldFoods, foodExpiry);
+        int[] moverShapes = new int[oldObstacles.size()];
+        for (int i = 0; i < moverShapes.length; i++) {
+            int slot = movers.slotOf(oldObstacles.handleAt(i));
+            moverShapes[i] = slot >= 0 ? movers.shapeAt(slot) : 0;
+        }
+        obstacleExpiry.clear();
+        foodExpiry.clear();
+        movers.clear();
+        for (int i = 0; i < oldObstacles.size(); i++) {
+            int cell = remapCell(oldObstacles.cellAt(i), oldWidth, offsetX, offsetY, wrap);
+            if (cell < 0) continue;
+            int handle = obstacles.add(cell, oldObstacles.typeAt(i),
+                    oldObstacles.spawnTickAt(i), oldObstacles.spawnTimeAt(i));
+            if (obstacleExpiryTicks[i] >= 0) {
+                obstacleExpiry.schedule(handle, obstacleExpiryTicks[i]);
+            }
+            grid.setObstacle(cell, oldObstacles.typeAt(i));
+            ObstacleType type = OBSTACLE_TYPES[oldObstacles.typeAt(i)];
+            if (type.isMoving()) {
+                // The path restarts from where the obstacle is now
+                movers.add(handle, type, cell, moverShapes[i], newWidth, newHeight);
+            }
+        }
+        for (int i = 0; i < oldFoods.size(); i++) {
+            int cell = remapCell(oldFoods.cellAt(i), oldWidth, offsetX, offsetY, wrap);
+            if (cell < 0) continue;
+            int handle = foods.add(cell, oldFoods.typeAt(i), oldFoods.spawnTickAt(i), oldFoods.spawnTimeAt(i));
+            if (foodExpiryTicks[i] >= 0) {
+                foodExpiry.schedule(handle, foodExpiryTicks[i]);
+            }
+            grid.setFood(cell, oldFoods.typeAt(i));
+        }
+
+        hazards.rebuild(wrap);
+        journal.clear();
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onBoardReset();
+        }
+    }
+
+    /**
+     * Step between consecutive segments with the wrap-around seam removed
+     */
+    private static int unwrapStep(int delta, int size) {
+        if (delta > 1) return delta - size;
+        if (delta < -1) return delta + size;
+        return delta;
+    }
+
+    /**
+     * Shift along one axis that centers the old board on the new one, kept
+     * within the range that leaves the whole body (or at least the head) on it
+     */
+    private static int resizeOffset(int[] coords, int length, int oldSize, int newSize, boolean wrap) {
+        int offset = (newSize - oldSize) / 2;
+        if (wrap) return offset;
+        int min = coords[0];
+        int max = coords[0];
+        for (int i = 1; i < length; i++) {
+            min = Math.min(min, coords[i]);
+            max = Math.max(max, coords[i]);
+        }
+        if (max - min >= newSize) {
+            min = coords[0];
+            max = coords[0];
+        }
+        return Math.max(-min, Math.min(newSize - 1 - max, offset));
+    }
+
+    private static int shift(int coord, int offset, int size, boolean wrap) {
+        return wrap ? Math.floorMod(coord + offset, size) : coord + offset;
+    }
+
+    /**
+     * Old cell moved onto the current board, or -1 if it falls off or is taken
+     */
+    private int remapCell(int cell, int oldWidth, int offsetX, int offsetY, boolean wrap) {
+        int x = shift(cell % oldWidth, offsetX, gridWidth, wrap);
+        int y = shift(cell / oldWidth, offsetY, gridHeight, wrap);
+        if (!grid.inBounds(x, y) || !grid.isFree(x, y)) return -1;
+        return grid.cellOf(x, y);
+    }
+
+    private static long[] expiryTicks(ItemStore store, ExpiryQueue queue) {
+        long[] ticks = new long[store.size()];
+        for (int i = 0; i < ticks.length; i++) {
+            ticks[i] = queue.getExpiryTick(store.handleAt(i));
+        }
+        return ticks;
     }
 
+
     /**
      * Set snake movement direction (with reverse prevention)
      */
@@ -109,56 +458,278 @@ public class SnakeGameLogic {
 
     /**
      * Main game update - called each frame
-     * Handles movement, collisions, spawning
+     * Runs the tick pipeline assembled from the configuration at reset
      */
     public void update() {
         if (isGameOver) return;
+        if (Tracer.enabled) Tracer.begin(Tracer.TICK);
+        journal.beginTick(tick, clock.getAsLong(), random.getState(),
+                lastFoodSpawnTime, lastObstacleSpawnTime, direction.ordinal(), nextDirection.ordinal(),
+                score, currentSpeed, previousTailX, previousTailY);
+
+        TickStage[] stages = pipeline;
+        for (int i = 0; i < stages.length; i++) {
+            if (Tracer.enabled) Tracer.begin(pipelineSections[i]);
+            boolean carryOn = stages[i].run(this);
+            if (Tracer.enabled) Tracer.end(pipelineSections[i]);
+            if (!carryOn) break;
+        }
+        finishTick();
+        if (Tracer.enabled) Tracer.end(Tracer.TICK);
+    }
 
-        direction = nextDirection;
-        Point head = snake.get(0);
-        Point newHead = calculateNewHead(head);
+    // ===== Tick Pipeline =====
 
-        // Apply wrap-around if enabled
-        if (config.wrapAroundMode) {
-            newHead = wrapPosition(newHead);
+    /**
+     * Add a stage to every tick from now on, after the built-in stages of
+     * its phase; kept across resets
+     */
+    public void addTickStage(TickStage.Phase phase, TickStage stage) {
+        customStages.add(stage);
+        customPhases.add(phase);
+        assemblePipeline();
+    }
+
+    public void removeTickStage(TickStage stage) {
+        int index = customStages.indexOf(stage);
+        if (index >= 0) {
+            customStages.remove(index);
+            customPhases.remove(index);
+            assemblePipeline();
         }
+    }
 
-        // Check wall collision
-        if (config.wallCollisionEnabled && !config.wrapAroundMode) {
-            if (isOutOfBounds(newHead)) {
-                gameOver();
-                return;
+    /**
+     * Re-read the rule switches in GameConfig (done on every reset; call it
+     * when the configuration changed mid-game)
+     */
+    public void assemblePipeline() {
+        List<TickStage> stages = new ArrayList<>();
+        List<Integer> sections = new ArrayList<>();
+        for (TickStage.Phase phase : TickStage.Phase.values()) {
+            int section = traceSection(phase);
+            switch (phase) {
+                case INPUT:
+                    stages.add(game -> applyInput());
+                    break;
+                case MOVE:
+                    moverStageAssembled = movers.size() > 0 || anyMovingObstacleEnabled();
+                    if (moverStageAssembled) {
+                        stages.add(game -> moveObstacles());
+                        sections.add(section);
+                    }
+                    stages.add(config.wrapAroundMode ? game -> moveHeadWrapped() : game -> moveHead());
+                    break;
+                case COLLIDE:
+                    if (config.wallCollisionEnabled && !config.wrapAroundMode) {
+                        stages.add(game -> !isOutOfBounds(nextHead) || collide(DeathCause.WALL));
+                        sections.add(section);
+                    }
+                    if (config.selfCollisionEnabled) {
+                        stages.add(game -> !isPointOnSnake(nextHead) || collide(DeathCause.SELF));
+                        sections.add(section);
+                    }
+                    if (config.obstacleCollisionEnabled) {
+                        stages.add(game -> !isPointOnObstacle(nextHead) || collide(DeathCause.OBSTACLE));
+                        sections.add(section);
+                    }
+                    break;
+                case CONSUME:
+                    stages.add(game -> consume());
+                    break;
+                case EFFECTS:
+                    stages.add(game -> eatenFood == ItemStore.NO_HANDLE || handleFoodEaten(eatenFood));
+                    break;
+                case EXPIRE:
+                    stages.add(game -> expireItems());
+                    break;
+                case SPAWN:
+                    stages.add(game -> trySpawnFood());
+                    if (config.obstaclesEnabled) {
+                        stages.add(game -> trySpawnObstacle());
+                        sections.add(section);
+                    }
+                    break;
             }
+            // Every built-in case above adds exactly one unconditional stage
+            while (sections.size() < stages.size()) {
+                sections.add(section);
+            }
+            for (int i = 0; i < customStages.size(); i++) {
+                if (customPhases.get(i) == phase) {
+                    stages.add(customStages.get(i));
+                    sections.add(section);
+                }
+            }
+        }
+        pipeline = stages.toArray(new TickStage[0]);
+        pipelineSections = new int[sections.size()];
+        for (int i = 0; i < pipelineSections.length; i++) {
+            pipelineSections[i] = sections.get(i);
         }
+    }
 
-        // Check self collision
-        if (config.selfCollisionEnabled && isPointOnSnake(newHead)) {
-            gameOver();
-            return;
+    private static int traceSection(TickStage.Phase phase) {
+        switch (phase) {
+            case COLLIDE:
+                return Tracer.TICK_COLLISIONS;
+            case CONSUME:
+            case EFFECTS:
+                return Tracer.TICK_CONSUME;
+            case EXPIRE:
+            case SPAWN:
+                return Tracer.TICK_SPAWN;
+            default:
+                return Tracer.TICK_MOVE;
         }
+    }
 
-        // Check obstacle collision
-        if (config.obstacleCollisionEnabled && isPointOnObstacle(newHead)) {
-            if (eventListener != null) {
-                eventListener.onObstacleHit();
-            }
-            gameOver();
-            return;
+    /**
+     * A mover appeared that the pipeline has no stage for (placed by hand or undone)
+     */
+    private void ensureMoverStage() {
+        if (!moverStageAssembled) {
+            assemblePipeline();
         }
+    }
 
+    private boolean anyMovingObstacleEnabled() {
+        for (ObstacleType type : OBSTACLE_TYPES) {
+            if (type.isMoving() && config.isObstacleTypeEnabled(type)) return true;
+        }
+        return false;
+    }
+
+    // ===== Built-in Stages =====
+
+    private boolean applyInput() {
+        tick++;
+        stats.onTick(currentSpeed, nextDirection != direction);
+        direction = nextDirection;
+        Point tailBefore = snake.get(snake.size() - 1);
+        previousTailX = tailBefore.x;
+        previousTailY = tailBefore.y;
+        eatenFood = ItemStore.NO_HANDLE;
+        return true;
+    }
+
+    private boolean moveHead() {
+        nextHead = calculateNewHead(snake.get(0));
+        return true;
+    }
+
+    private boolean moveHeadWrapped() {
+        nextHead = wrapPosition(calculateNewHead(snake.get(0)));
+        return true;
+    }
+
+    /**
+     * End the tick with a collision
+     * @return false, for stages to return directly
+     */
+    private boolean collide(DeathCause cause) {
+        if (cause == DeathCause.OBSTACLE && eventListener != null) {
+            eventListener.onObstacleHit();
+        }
+        gameOver(cause);
+        return false;
+    }
+
+    /**
+     * Push the head; take the food under it for the effects stage, or move the tail up
+     */
+    private boolean consume() {
+        Point newHead = nextHead;
         snake.add(0, newHead);
+        grid.addSnake(newHead.x, newHead.y);
+        journal.record(RewindJournal.OP_HEAD, grid.cellOf(newHead.x, newHead.y));
+        hazards.refresh(grid.cellOf(newHead.x, newHead.y));
+        connectivity.onHeadMoved(newHead.x, newHead.y, config.wrapAroundMode);
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onHeadAdded(newHead.x, newHead.y);
+        }
 
-        // Check food collision
-        Food eatenFood = getFoodAt(newHead);
-        if (eatenFood != null) {
-            handleFoodEaten(eatenFood);
-        } else {
-            snake.remove(snake.size() - 1);
+        eatenFood = getFoodAt(newHead);
+        if (eatenFood == ItemStore.NO_HANDLE) {
+            removeTail();
         }
+        return true;
+    }
 
-        // Spawn new items based on time
-        trySpawnFood();
-        trySpawnObstacle();
+    /**
+     * Step every moving obstacle along its path before the snake moves, so
+     * this tick's collisions see where they are now
+     * Occupancy changes as a batch in one pass; the hazard field then
+     * re-relaxes around all moved cells together
+     */
+    private boolean moveObstacles() {
+        if (moverMoves.length < movers.size() * 3) {
+            moverMoves = new int[movers.size() * 3];
+            moverCells = new int[movers.size() * 2];
+        }
+        int moved = movers.step(grid, obstacles, moverMoves);
+        if (moved == 0) return true;
+        for (int m = 0; m < moved; m++) {
+            int to = moverMoves[m * 3];
+            int from = moverMoves[m * 3 + 1];
+            journal.record(RewindJournal.OP_OBSTACLE_MOVED, to, from, moverMoves[m * 3 + 2]);
+            moverCells[m * 2] = from;
+            moverCells[m * 2 + 1] = to;
+            if (!boardListeners.isEmpty()) {
+                ObstacleType type = OBSTACLE_TYPES[grid.getItem(to) - OccupancyGrid.OBSTACLE_BASE];
+                for (int i = 0; i < boardListeners.size(); i++) {
+                    boardListeners.get(i).onObstacleRemoved(from % gridWidth, from / gridWidth, type);
+                    boardListeners.get(i).onObstacleSpawned(to % gridWidth, to / gridWidth, type);
+                }
+            }
+        }
+        hazards.refresh(moverCells, moved * 2);
+        connectivity.invalidate();
+        return true;
+    }
+
+    /**
+     * Remove the last snake segment and report it
+     */
+    private void removeTail() {
+        Point tail = snake.remove(snake.size() - 1);
+        grid.removeSnake(tail.x, tail.y);
+        hazards.refresh(grid.cellOf(tail.x, tail.y));
+        journal.record(RewindJournal.OP_TAIL_REMOVED, grid.cellOf(tail.x, tail.y));
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onTailRemoved(tail.x, tail.y);
+        }
+    }
+
+    /**
+     * Close the tick's journal entry and report it
+     */
+    private void finishTick() {
+        stats.onLength(snake.size());
+        journal.endTick();
+        notifyTickCompleted();
+    }
+
+    private void notifyTickCompleted() {
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onTickCompleted(tick);
+        }
+    }
+
+    /**
+     * Unit step for a direction
+     */
+    private static Point calculateStep(Direction direction) {
+        switch (direction) {
+            case UP:
+                return new Point(0, -1);
+            case DOWN:
+                return new Point(0, 1);
+            case LEFT:
+                return new Point(-1, 0);
+            default:
+                return new Point(1, 0);
+        }
     }
 
     /**
@@ -196,9 +767,13 @@ public class SnakeGameLogic {
 
     /**
      * Handle food consumption
+     * @return false if the food ended the game
      */
-    private void handleFoodEaten(Food food) {
-        FoodType type = food.getType();
+    private boolean handleFoodEaten(int foodHandle) {
+        int foodIndex = foods.indexOf(foodHandle);
+        FoodType type = FOOD_TYPES[foods.typeAt(foodIndex)];
+        int foodCell = foods.cellAt(foodIndex);
+        stats.onFoodEaten(type.ordinal());
 
         // Apply score
         int scoreGain = (int)(type.getScoreValue() * config.scoreMultiplier);
@@ -209,22 +784,40 @@ public class SnakeGameLogic {
         if (lengthChange > 0) {
             // Keep last segment (don't remove)
             for (int i = 1; i < lengthChange; i++) {
-                snake.add(snake.get(snake.size() - 1));
+                Point tail = snake.get(snake.size() - 1);
+                snake.add(tail);
+                grid.addSnake(tail.x, tail.y);
+                journal.record(RewindJournal.OP_TAIL_DUPLICATED, grid.cellOf(tail.x, tail.y));
+                for (int l = 0; l < boardListeners.size(); l++) {
+                    boardListeners.get(l).onTailDuplicated(tail.x, tail.y);
+                }
             }
         } else if (lengthChange < 0) {
             // Remove segments
             for (int i = 0; i < Math.abs(lengthChange) && snake.size() > config.minSnakeLength; i++) {
-                snake.remove(snake.size() - 1);
+                removeTail();
             }
             // Game over if too short
             if (snake.size() < config.minSnakeLength) {
-                gameOver();
-                return;
+                gameOver(DeathCause.POISON);
+                return false;
             }
         }
 
         // Remove eaten food
-        foods.remove(food);
+        journal.recordItem(RewindJournal.OP_FOOD_REMOVED, foodCell, type.ordinal(),
+                foods.spawnTickAt(foods.indexOf(foodHandle)), foods.spawnTimeAt(foods.indexOf(foodHandle)),
+                foodExpiry.getExpiryTick(foodHandle));
+        foods.remove(foodHandle);
+        foodExpiry.cancel(foodHandle);
+        grid.clearItem(foodCell);
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onFoodRemoved(foodCell % gridWidth, foodCell / gridWidth, type);
+        }
+
+        if (type == FoodType.TELEPORT) {
+            teleport();
+        }
 
         // Update speed based on score
         int newSpeed = config.getCurrentSpeed(score);
@@ -240,6 +833,58 @@ public class SnakeGameLogic {
             eventListener.onScoreChanged(score);
             eventListener.onFoodEaten(type);
         }
+        return true;
+    }
+
+    /**
+     * Move the snake to a random cell with the most clearance from any hazard
+     * The body collapses onto the target cell and unfolds as it moves on;
+     * the heading points at the clearest neighbour. Nothing happens if no
+     * free cell has at least GameConfig.teleportMinClearance and room for
+     * the body
+     */
+    private void teleport() {
+        // The landing region must fit the whole body with the old body gone,
+        // otherwise the snake unfolds into a sealed pocket and dies there
+        int length = snake.size();
+        connectivity.beginRoomChecks();
+        int target = hazards.pickClearest(random, config.teleportMinClearance,
+                cell -> connectivity.hasRoom(cell, length + 1, config.wrapAroundMode));
+        if (target < 0) {
+            return;
+        }
+
+        // The vacated body is released into the field over the next ticks
+        for (int i = length - 1; i >= 0; i--) {
+            Point segment = snake.get(i);
+            journal.record(RewindJournal.OP_SEGMENT, grid.cellOf(segment.x, segment.y));
+        }
+        journal.record(RewindJournal.OP_TELEPORT, target, length);
+        for (int i = 0; i < length; i++) {
+            Point segment = snake.get(i);
+            grid.removeSnake(segment.x, segment.y);
+            hazards.deferRefresh(grid.cellOf(segment.x, segment.y));
+        }
+        Point landing = new Point(target % gridWidth, target / gridWidth);
+        snake.clear();
+        for (int i = 0; i < length; i++) {
+            snake.add(landing);
+            grid.addSnake(landing.x, landing.y);
+        }
+        hazards.refresh(target);
+        connectivity.invalidate();
+
+        int heading = hazards.safestDirection(target, direction.ordinal());
+        if (heading >= 0) {
+            direction = Direction.values()[heading];
+            nextDirection = direction;
+        }
+        previousTailX = landing.x;
+        previousTailY = landing.y;
+
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onBoardReset();
+        }
     }
 
     /**
@@ -249,22 +894,78 @@ public class SnakeGameLogic {
         if (foods.size() >= config.maxFoodItems) return;
 
         FoodType selectedType = selectRandomFoodType();
-        Point position = findEmptyPosition();
+        Point position = findReachablePosition();
 
         if (position != null) {
-            foods.add(new Food(position, selectedType));
+            addFood(grid.cellOf(position.x, position.y), selectedType);
+        }
+    }
+
+    private void addFood(int cell, FoodType type) {
+        int handle = foods.add(cell, type.ordinal(), tick, clock.getAsLong());
+        int lifetime = config.getFoodLifetime(type);
+        if (lifetime > 0) {
+            foodExpiry.schedule(handle, tick + lifetime);
+        }
+        grid.setFood(cell, type.ordinal());
+        journal.record(RewindJournal.OP_FOOD_ADDED, cell, type.ordinal());
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onFoodSpawned(cell % gridWidth, cell / gridWidth, type);
+        }
+    }
+
+    /**
+     * Remove every food and obstacle whose expiry tick has been reached
+     * Only due items are touched (heap top), whatever the number of timed items
+     */
+    private boolean expireItems() {
+        // Cells a teleport vacated rejoin the hazard field first, a few per tick
+        hazards.drainPending(HAZARD_RELEASES_PER_TICK);
+        int handle;
+        while ((handle = foodExpiry.pollDue(tick)) != ItemStore.NO_HANDLE) {
+            int index = foods.indexOf(handle);
+            int cell = foods.cellAt(index);
+            FoodType type = FOOD_TYPES[foods.typeAt(index)];
+            journal.recordItem(RewindJournal.OP_FOOD_REMOVED, cell, type.ordinal(),
+                    foods.spawnTickAt(index), foods.spawnTimeAt(index), tick);
+            foods.removeIndex(index);
+            grid.clearItem(cell);
+            for (int i = 0; i < boardListeners.size(); i++) {
+                boardListeners.get(i).onFoodRemoved(cell % gridWidth, cell / gridWidth, type);
+            }
         }
+        while ((handle = obstacleExpiry.pollDue(tick)) != ItemStore.NO_HANDLE) {
+            int index = obstacles.indexOf(handle);
+            int cell = obstacles.cellAt(index);
+            ObstacleType type = OBSTACLE_TYPES[obstacles.typeAt(index)];
+            int slot = movers.slotOf(handle);
+            if (slot >= 0) {
+                journal.record(RewindJournal.OP_MOVER, cell, movers.anchorAt(slot), movers.shapeAt(slot),
+                        movers.phaseAt(slot));
+                movers.remove(handle);
+            }
+            journal.recordItem(RewindJournal.OP_OBSTACLE_REMOVED, cell, type.ordinal(),
+                    obstacles.spawnTickAt(index), obstacles.spawnTimeAt(index), tick);
+            obstacles.removeIndex(index);
+            grid.clearItem(cell);
+            hazards.refresh(cell);
+            for (int i = 0; i < boardListeners.size(); i++) {
+                boardListeners.get(i).onObstacleRemoved(cell % gridWidth, cell / gridWidth, type);
+            }
+        }
+        return true;
     }
 
     /**
      * Try to spawn food based on timer
      */
-    private void trySpawnFood() {
-        long currentTime = System.currentTimeMillis();
+    private boolean trySpawnFood() {
+        long currentTime = clock.getAsLong();
         if (currentTime - lastFoodSpawnTime >= config.foodSpawnInterval) {
             spawnFood();
             lastFoodSpawnTime = currentTime;
         }
+        return true;
     }
 
     /**
@@ -278,84 +979,96 @@ public class SnakeGameLogic {
         Point position = findEmptyPosition();
 
         if (position != null) {
-            obstacles.add(new Obstacle(position, selectedType));
+            addObstacle(grid.cellOf(position.x, position.y), selectedType);
+        }
+    }
+
+    private void addObstacle(int cell, ObstacleType type) {
+        int handle = obstacles.add(cell, type.ordinal(), tick, clock.getAsLong());
+        int lifetime = config.getObstacleLifetime(type);
+        if (lifetime > 0) {
+            obstacleExpiry.schedule(handle, tick + lifetime);
+        }
+        grid.setObstacle(cell, type.ordinal());
+        if (type.isMoving()) {
+            movers.add(handle, type, cell, random.nextInt(MovingObstacles.SHAPES), gridWidth, gridHeight);
+            ensureMoverStage();
+        }
+        hazards.refresh(cell);
+        connectivity.invalidate();
+        journal.record(RewindJournal.OP_OBSTACLE_ADDED, cell, type.ordinal());
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onObstacleSpawned(cell % gridWidth, cell / gridWidth, type);
         }
     }
 
     /**
-     * Try to spawn obstacle based on timer
+     * Try to spawn obstacle based on timer (only in the pipeline when obstacles are enabled)
      */
-    private void trySpawnObstacle() {
-        if (!config.obstaclesEnabled) return;
-
-        long currentTime = System.currentTimeMillis();
+    private boolean trySpawnObstacle() {
+        long currentTime = clock.getAsLong();
         if (currentTime - lastObstacleSpawnTime >= config.obstacleSpawnInterval) {
             spawnObstacle();
             lastObstacleSpawnTime = currentTime;
         }
+        return true;
     }
 
     /**
      * Select random food type based on probabilities
      */
     private FoodType selectRandomFoodType() {
-        List<FoodType> availableTypes = new ArrayList<>();
-        for (FoodType type : FoodType.values()) {
-            if (config.isFoodTypeEnabled(type)) {
-                availableTypes.add(type);
-            }
-        }
-
-        if (availableTypes.isEmpty()) {
-            return FoodType.NORMAL;
-        }
-
-        // Weighted random selection
-        float totalProbability = 0;
-        for (FoodType type : availableTypes) {
-            totalProbability += type.getSpawnProbability();
-        }
-
-        float randomValue = random.nextFloat() * totalProbability;
-        float cumulative = 0;
-
-        for (FoodType type : availableTypes) {
-            cumulative += type.getSpawnProbability();
-            if (randomValue <= cumulative) {
-                return type;
-            }
-        }
-
-        return availableTypes.get(0);
+        return SpawnTables.get(config).pickFood(random);
     }
 
     /**
      * Select random obstacle type
      */
     private ObstacleType selectRandomObstacleType() {
-        List<ObstacleType> availableTypes = new ArrayList<>();
-        for (ObstacleType type : ObstacleType.values()) {
-            if (config.isObstacleTypeEnabled(type)) {
-                availableTypes.add(type);
-            }
-        }
+        return SpawnTables.get(config).pickObstacle(random);
+    }
 
-        if (availableTypes.isEmpty()) {
-            return ObstacleType.STONE;
+    /**
+     * Find an empty position the head can actually reach
+     * Prefers the level's spawn zones, falls back to any reachable cell
+     */
+    private Point findReachablePosition() {
+        Point head = snake.get(0);
+        if (level != null && level.getZoneCount() > 0) {
+            connectivity.update(head.x, head.y, config.wrapAroundMode);
+            Point position = findEmptyPosition();
+            if (position != null) {
+                int cell = grid.cellOf(position.x, position.y);
+                if (connectivity.isReachable(cell) && hazards.getDistance(cell) >= config.foodMinClearance) {
+                    return position;
+                }
+            }
         }
-
-        return availableTypes.get(random.nextInt(availableTypes.size()));
+        int cell = connectivity.pickReachableFreeCell(head.x, head.y, config.wrapAroundMode, random,
+                hazards, config.foodMinClearance);
+        return cell < 0 ? null : new Point(cell % gridWidth, cell / gridWidth);
     }
 
     /**
      * Find empty position not occupied by snake, food, or obstacles
+     * Restricted to the level's spawn zones when it defines any
      */
     private Point findEmptyPosition() {
         int maxAttempts = 100;
         for (int i = 0; i < maxAttempts; i++) {
-            Point pos = new Point(random.nextInt(gridWidth), random.nextInt(gridHeight));
-            if (!isPointOnSnake(pos) && getFoodAt(pos) == null && !isPointOnObstacle(pos)) {
-                return pos;
+            int x;
+            int y;
+            if (level != null && level.getZoneCount() > 0) {
+                int zone = random.nextInt(level.getZoneCount());
+                x = level.getZoneX(zone) + random.nextInt(Math.max(1, level.getZoneWidth(zone)));
+                y = level.getZoneY(zone) + random.nextInt(Math.max(1, level.getZoneHeight(zone)));
+                if (!grid.inBounds(x, y)) continue;
+            } else {
+                x = random.nextInt(gridWidth);
+                y = random.nextInt(gridHeight);
+            }
+            if (grid.isFree(x, y)) {
+                return new Point(x, y);
             }
         }
         return null; // No empty position found
@@ -365,12 +1078,7 @@ public class SnakeGameLogic {
      * Check if point is on snake
      */
     private boolean isPointOnSnake(Point point) {
-        for (Point segment : snake) {
-            if (segment.equals(point.x, point.y)) {
-                return true;
-            }
-        }
-        return false;
+        return grid.isSnake(point.x, point.y);
     }
 
     /**
@@ -381,39 +1089,192 @@ public class SnakeGameLogic {
     }
 
     /**
-     * Get food at position
+     * Get handle of the food at position, or NO_HANDLE
      */
-    private Food getFoodAt(Point point) {
-        for (Food food : foods) {
-            if (food.getPosition().equals(point.x, point.y)) {
-                return food;
-            }
+    private int getFoodAt(Point point) {
+        if (!grid.isFood(point.x, point.y)) {
+            return ItemStore.NO_HANDLE;
         }
-        return null;
+        return foods.findByCell(grid.cellOf(point.x, point.y));
     }
 
     /**
      * Check if point has obstacle
      */
     private boolean isPointOnObstacle(Point point) {
-        for (Obstacle obstacle : obstacles) {
-            if (obstacle.getPosition().equals(point.x, point.y)) {
-                return true;
-            }
-        }
-        return false;
+        return grid.isObstacle(point.x, point.y);
     }
 
     /**
      * Trigger game over
      */
-    private void gameOver() {
+    private void gameOver(DeathCause cause) {
         isGameOver = true;
+        deathCause = cause;
+        stats.onGameOver(cause, score, snake.size());
         if (eventListener != null) {
             eventListener.onGameOver(score);
         }
     }
 
+    // ===== Rewind =====
+
+    /**
+     * True if at least one tick can be undone
+     */
+    public boolean canStepBack() {
+        return journal.canStepBack();
+    }
+
+    /**
+     * Undo the last tick, including a tick that ended the game
+     * @return false if the journal holds no complete tick
+     */
+    public boolean stepBack() {
+        if (!journal.canStepBack()) {
+            return false;
+        }
+        Direction[] directions = Direction.values();
+        tick = journal.longArg(RewindJournal.TICK_NUMBER);
+        random.setState(journal.longArg(RewindJournal.TICK_RANDOM));
+        lastFoodSpawnTime = journal.longArg(RewindJournal.TICK_FOOD_TIMER);
+        lastObstacleSpawnTime = journal.longArg(RewindJournal.TICK_OBSTACLE_TIMER);
+        direction = directions[journal.arg(RewindJournal.TICK_DIRECTION)];
+        nextDirection = directions[journal.arg(RewindJournal.TICK_NEXT_DIRECTION)];
+        score = journal.arg(RewindJournal.TICK_SCORE);
+        currentSpeed = journal.arg(RewindJournal.TICK_SPEED);
+        previousTailX = journal.arg(RewindJournal.TICK_TAIL_X);
+        previousTailY = journal.arg(RewindJournal.TICK_TAIL_Y);
+        int remaining = journal.arg(RewindJournal.TICK_LENGTH) - journal.pop();
+        while (remaining > 0) {
+            undoRecord();
+            remaining -= journal.pop();
+        }
+        isGameOver = false;
+        deathCause = DeathCause.NONE;
+        connectivity.invalidate();
+
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).onBoardReset();
+        }
+        if (eventListener != null) {
+            eventListener.onScoreChanged(score);
+        }
+        return true;
+    }
+
+    /**
+     * Step back over every tick played in the last millis of game time
+     * (measured from the newest tick, so time spent paused doesn't count)
+     * @return Number of ticks undone
+     */
+    public int rewind(long millis) {
+        if (!journal.canStepBack()) {
+            return 0;
+        }
+        long target = journal.longArg(RewindJournal.TICK_TIME) - millis;
+        int steps = 0;
+        while (journal.canStepBack() && journal.longArg(RewindJournal.TICK_TIME) >= target && stepBack()) {
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Reverse the newest journal record (the caller pops it)
+     */
+    private void undoRecord() {
+        int cell = journal.arg(0);
+        int x = cell % gridWidth;
+        int y = cell / gridWidth;
+        switch (journal.op()) {
+            case RewindJournal.OP_HEAD:
+                snake.remove(0);
+                grid.removeSnake(x, y);
+                hazards.refresh(cell);
+                break;
+            case RewindJournal.OP_TAIL_REMOVED:
+                snake.add(new Point(x, y));
+                grid.addSnake(x, y);
+                hazards.refresh(cell);
+                break;
+            case RewindJournal.OP_TAIL_DUPLICATED:
+                snake.remove(snake.size() - 1);
+                grid.removeSnake(x, y);
+                break;
+            case RewindJournal.OP_TELEPORT:
+                for (int i = 0; i < snake.size(); i++) {
+                    grid.removeSnake(x, y);
+                }
+                snake.clear();
+                hazards.refresh(cell);
+                break;
+            case RewindJournal.OP_SEGMENT:
+                // Recorded tail first, so these arrive head first
+                snake.add(new Point(x, y));
+                grid.addSnake(x, y);
+                hazards.refresh(cell);
+                break;
+            case RewindJournal.OP_FOOD_ADDED: {
+                int handle = foods.findByCell(cell);
+                foods.remove(handle);
+                foodExpiry.cancel(handle);
+                grid.clearItem(cell);
+                break;
+            }
+            case RewindJournal.OP_OBSTACLE_ADDED: {
+                int handle = obstacles.findByCell(cell);
+                movers.remove(handle);
+                obstacles.remove(handle);
+                obstacleExpiry.cancel(handle);
+                grid.clearItem(cell);
+                hazards.refresh(cell);
+                break;
+            }
+            case RewindJournal.OP_FOOD_REMOVED: {
+                int type = journal.arg(RewindJournal.ITEM_TYPE);
+                int handle = foods.add(cell, type, journal.longArg(RewindJournal.ITEM_SPAWN_TICK),
+                        journal.longArg(RewindJournal.ITEM_SPAWN_TIME));
+                long expiry = journal.longArg(RewindJournal.ITEM_EXPIRY_TICK);
+                if (expiry >= 0) {
+                    foodExpiry.schedule(handle, expiry);
+                }
+                grid.setFood(cell, type);
+                break;
+            }
+            case RewindJournal.OP_OBSTACLE_REMOVED: {
+                int type = journal.arg(RewindJournal.ITEM_TYPE);
+                int handle = obstacles.add(cell, type, journal.longArg(RewindJournal.ITEM_SPAWN_TICK),
+                        journal.longArg(RewindJournal.ITEM_SPAWN_TIME));
+                long expiry = journal.longArg(RewindJournal.ITEM_EXPIRY_TICK);
+                if (expiry >= 0) {
+                    obstacleExpiry.schedule(handle, expiry);
+                }
+                grid.setObstacle(cell, type);
+                hazards.refresh(cell);
+                break;
+            }
+            case RewindJournal.OP_OBSTACLE_MOVED: {
+                int from = journal.arg(1);
+                movers.unstep(grid, obstacles, cell, from, journal.arg(2));
+                hazards.refresh(cell);
+                hazards.refresh(from);
+                connectivity.invalidate();
+                break;
+            }
+            case RewindJournal.OP_MOVER: {
+                // Popped after OP_OBSTACLE_REMOVED put the obstacle back
+                int handle = obstacles.findByCell(cell);
+                ObstacleType type = OBSTACLE_TYPES[obstacles.typeAt(obstacles.indexOf(handle))];
+                movers.restore(handle, type, journal.arg(1), journal.arg(2), journal.arg(3), gridWidth, gridHeight);
+                ensureMoverStage();
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown journal record " + journal.op());
+        }
+    }
+
     // ===== Getters =====
 
     public List<Point> getSnake() {
@@ -421,11 +1282,101 @@ public class SnakeGameLogic {
     }
 
     public List<Food> getFoods() {
-        return new ArrayList<>(foods);
+        List<Food> views = new ArrayList<>(foods.size());
+        for (int i = 0; i < foods.size(); i++) {
+            views.add(new Food(foods, foods.handleAt(i)));
+        }
+        return views;
     }
 
     public List<Obstacle> getObstacles() {
-        return new ArrayList<>(obstacles);
+        List<Obstacle> views = new ArrayList<>(obstacles.size());
+        for (int i = 0; i < obstacles.size(); i++) {
+            views.add(new Obstacle(obstacles, obstacles.handleAt(i)));
+        }
+        return views;
+    }
+
+    /**
+     * Live food storage for allocation-free iteration - read-only for callers
+     */
+    public ItemStore getFoodStore() {
+        return foods;
+    }
+
+    /**
+     * Tick at which a food despawns, or -1 if it stays until eaten
+     */
+    public long getFoodExpiryTick(int foodHandle) {
+        return foodExpiry.getExpiryTick(foodHandle);
+    }
+
+    /**
+     * Tick at which an obstacle despawns, or -1 if it is permanent
+     */
+    public long getObstacleExpiryTick(int obstacleHandle) {
+        return obstacleExpiry.getExpiryTick(obstacleHandle);
+    }
+
+    /**
+     * Live obstacle storage for allocation-free iteration - read-only for callers
+     */
+    public ItemStore getObstacleStore() {
+        return obstacles;
+    }
+
+    /**
+     * 64-bit Zobrist hash of the game state: body cells (with stacking),
+     * head, tail, items, moving obstacle paths, direction, score and game
+     * over. Board changes are hashed incrementally, so this is O(1); equal
+     * games give equal hashes, which makes it a per-tick desync check and a
+     * transposition key
+     */
+    public long getStateHash() {
+        Point head = snake.get(0);
+        Point tail = snake.get(snake.size() - 1);
+        long hash = grid.getHash() ^ movers.getHash()
+                ^ Zobrist.key(grid.cellOf(head.x, head.y), Zobrist.HEAD)
+                ^ Zobrist.key(grid.cellOf(tail.x, tail.y), Zobrist.TAIL)
+                ^ Zobrist.key(direction.ordinal(), Zobrist.DIRECTION)
+                ^ Zobrist.key(score, Zobrist.SCORE);
+        return isGameOver ? hash ^ Zobrist.key(0, Zobrist.GAME_OVER) : hash;
+    }
+
+    /**
+     * Counters of the current run, live - copy them before leaving the game thread
+     */
+    public RunStats getRunStats() {
+        return stats;
+    }
+
+    public int getSnakeLength() {
+        return snake.size();
+    }
+
+    /**
+     * Live segment without copying the body (0 = head) - read-only for callers
+     */
+    public Point getSnakeSegment(int index) {
+        return snake.get(index);
+    }
+
+    /**
+     * Tail cell before the last update, for interpolating tail movement
+     */
+    public int getPreviousTailX() {
+        return previousTailX;
+    }
+
+    public int getPreviousTailY() {
+        return previousTailY;
+    }
+
+    /**
+     * Number of updates since the last reset
+     */
+    public long getTick() {
+        return tick;
     }
 
     public Direction getDirection() {
@@ -436,6 +1387,13 @@ public class SnakeGameLogic {
         return isGameOver;
     }
 
+    /**
+     * Why the last run ended, NONE while still running
+     */
+    public DeathCause getDeathCause() {
+        return deathCause;
+    }
+
     public int getScore() {
         return score;
     }
@@ -444,6 +1402,27 @@ public class SnakeGameLogic {
         return currentSpeed;
     }
 
+    /**
+     * Active level, or null on an open board
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Live occupancy of the board - read-only for callers
+     */
+    public OccupancyGrid getOccupancyGrid() {
+        return grid;
+    }
+
+    /**
+     * Paths of the moving obstacles, for checks in this package
+     */
+    MovingObstacles getMovingObstacles() {
+        return movers;
+    }
+
     public int getGridWidth() {
         return gridWidth;
     }
@@ -452,8 +1431,25 @@ public class SnakeGameLogic {
         return gridHeight;
     }
 
+    /**
+     * Replace the wall clock (ms) behind spawn timers and rewind, e.g. with
+     * game time for replays that run faster than real time; takes effect
+     * for timers from the next reset
+     */
+    public void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
     public void setEventListener(GameEventListener listener) {
         this.eventListener = listener;
     }
+
+    public void addBoardChangeListener(BoardChangeListener listener) {
+        boardListeners.add(listener);
+    }
+
+    public void removeBoardChangeListener(BoardChangeListener listener) {
+        boardListeners.remove(listener);
+    }
 }
 
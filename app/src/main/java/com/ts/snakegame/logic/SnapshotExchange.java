@@ -0,0 +1,44 @@
+package com.ts.snakegame.logic;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple buffer handing RenderSnapshots from the simulation to the renderer
+ * The writer fills its back buffer and publishes it by swapping it with the
+ * middle one; the reader swaps its front buffer with the middle one when a
+ * newer tick is waiting there. Both swaps are a single atomic exchange, so
+ * neither side ever blocks or sees a half-written snapshot, and the reader
+ * skips ticks it was too slow for. One writer thread and one reader thread
+ */
+public class SnapshotExchange {
+
+    private static final int INDEX_MASK = 3;
+    /** Set in middle when it holds a tick the reader has not taken yet */
+    private static final int FRESH = 4;
+
+    private final RenderSnapshot[] buffers = {
+            new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()
+    };
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // Writer thread only
+    private int front = 2; // Reader thread only
+
+    /**
+     * Capture a finished tick and make it the newest snapshot (writer thread)
+     */
+    public void publish(SnakeGameLogic game, long tickUptime) {
+        buffers[back].capture(game, tickUptime);
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Newest complete snapshot (reader thread); stays valid and unchanged
+     * until this thread calls acquire() again
+     */
+    public RenderSnapshot acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return buffers[front];
+    }
+}
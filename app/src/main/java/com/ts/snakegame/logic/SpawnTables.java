@@ -0,0 +1,89 @@
+package com.ts.snakegame.logic;
+
+import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.model.FoodType;
+import com.ts.snakegame.model.ObstacleType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Spawn lookup tables derived from the configuration
+ * Built once per configuration version instead of filtering enum values on
+ * every spawn, so spawning allocates nothing and only reads one counter
+ */
+public final class SpawnTables {
+
+    private static volatile SpawnTables cached;
+
+    private final int version;
+    private final FoodType[] foodTypes;
+    private final float[] foodCumulative;
+    private final ObstacleType[] obstacleTypes;
+
+    private SpawnTables(GameConfig config) {
+        version = config.getVersion();
+
+        List<FoodType> foods = new ArrayList<>();
+        for (FoodType type : FoodType.values()) {
+            if (config.isFoodTypeEnabled(type)) {
+                foods.add(type);
+            }
+        }
+        if (foods.isEmpty()) {
+            foods.add(FoodType.NORMAL);
+        }
+        foodTypes = foods.toArray(new FoodType[0]);
+        foodCumulative = new float[foodTypes.length];
+        float total = 0;
+        for (int i = 0; i < foodTypes.length; i++) {
+            total += foodTypes[i].getSpawnProbability();
+            foodCumulative[i] = total;
+        }
+
+        List<ObstacleType> obstacles = new ArrayList<>();
+        for (ObstacleType type : ObstacleType.values()) {
+            if (config.isObstacleTypeEnabled(type)) {
+                obstacles.add(type);
+            }
+        }
+        if (obstacles.isEmpty()) {
+            obstacles.add(ObstacleType.STONE);
+        }
+        obstacleTypes = obstacles.toArray(new ObstacleType[0]);
+    }
+
+    /**
+     * Tables for the configuration's current values, rebuilt only after
+     * GameConfig.markChanged()
+     */
+    public static SpawnTables get(GameConfig config) {
+        SpawnTables tables = cached;
+        if (tables == null || tables.version != config.getVersion()) {
+            tables = new SpawnTables(config);
+            cached = tables;
+        }
+        return tables;
+    }
+
+    /**
+     * Weighted random food type
+     */
+    public FoodType pickFood(Random random) {
+        float value = random.nextFloat() * foodCumulative[foodCumulative.length - 1];
+        for (int i = 0; i < foodCumulative.length; i++) {
+            if (value <= foodCumulative[i]) {
+                return foodTypes[i];
+            }
+        }
+        return foodTypes[0];
+    }
+
+    /**
+     * Uniform random obstacle type
+     */
+    public ObstacleType pickObstacle(Random random) {
+        return obstacleTypes[random.nextInt(obstacleTypes.length)];
+    }
+}
@@ -0,0 +1,38 @@
+package com.ts.snakegame.logic;
+
+/**
+ * One step of a game tick
+ * SnakeGameLogic assembles its tick from stages once per game, grouped by
+ * phase in the order below. Rules that are switched off in the
+ * configuration are left out of the pipeline rather than tested each tick.
+ * Game modes add their own stages with SnakeGameLogic.addTickStage(); they
+ * run after the built-in stages of their phase
+ */
+public interface TickStage {
+
+    /**
+     * Tick phases, in execution order
+     */
+    enum Phase {
+        /** Buffered input becomes the direction for this tick */
+        INPUT,
+        /** Moving obstacles step, then the next head position is computed */
+        MOVE,
+        /** Wall, self and obstacle collisions for the next head */
+        COLLIDE,
+        /** Head is pushed; the food under it is taken, otherwise the tail moves up */
+        CONSUME,
+        /** Eaten food takes effect: score, length, teleport, speed */
+        EFFECTS,
+        /** Items whose lifetime ran out disappear */
+        EXPIRE,
+        /** Timed food and obstacle spawns */
+        SPAWN
+    }
+
+    /**
+     * Run the stage
+     * @return false to end the tick early (the game is over)
+     */
+    boolean run(SnakeGameLogic game);
+}
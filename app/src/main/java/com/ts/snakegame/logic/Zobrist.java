@@ -0,0 +1,59 @@
+package com.ts.snakegame.logic;
+
+/**
+ * Zobrist keys for 64-bit state hashing
+ * Keys are derived on the fly by mixing (cell, kind) with the SplitMix64
+ * finalizer instead of being read from a table, so there is nothing to
+ * allocate or initialize and any board size works. XOR a key in when the
+ * feature appears and out again when it disappears
+ */
+public final class Zobrist {
+
+    // ===== Kinds =====
+    // Item codes from OccupancyGrid (1..127) are used as kinds directly
+
+    /** Head position */
+    public static final int HEAD = 128;
+
+    /** Tail position */
+    public static final int TAIL = 129;
+
+    /** Movement direction (cell = ordinal) */
+    public static final int DIRECTION = 130;
+
+    /** Game over flag (cell = 0) */
+    public static final int GAME_OVER = 131;
+
+    /** Score (cell = score) */
+    public static final int SCORE = 132;
+
+    /** Path shape s of a moving obstacle anchored on a cell is kind MOVER_SHAPE + s */
+    public static final int MOVER_SHAPE = 160;
+
+    /** Moving obstacle on a cell at path position p is kind MOVER_PHASE + p */
+    public static final int MOVER_PHASE = 192;
+
+    /** Snake segment number n stacked on a cell is kind SNAKE_LEVEL + n */
+    public static final int SNAKE_LEVEL = 256;
+
+    private static final long SALT = 0x5DEECE66DL * 0x9E3779B97F4A7C15L;
+
+    private Zobrist() {
+    }
+
+    /**
+     * Key for a feature of the given kind on a cell
+     */
+    public static long key(int cell, int kind) {
+        return mix(((long) cell << 20 | kind) + SALT);
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
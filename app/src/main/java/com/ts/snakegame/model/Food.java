@@ -1,21 +1,34 @@
 package com.ts.snakegame.model;
 import android.graphics.Point;
+/**
+ * Food item - a lightweight view over one entry of the engine's ItemStore
+ * Reads through to the store; using it after the food was eaten throws
+ */
 public class Food {
-    private final Point position;
-    private final FoodType type;
-    private final long spawnTime;
-    public Food(Point position, FoodType type) {
-        this.position = position;
-        this.type = type;
-        this.spawnTime = System.currentTimeMillis();
+    private static final FoodType[] TYPES = FoodType.values();
+    private final ItemStore store;
+    private final int handle;
+    public Food(ItemStore store, int handle) {
+        this.store = store;
+        this.handle = handle;
     }
     public Point getPosition() {
-        return position;
+        int cell = store.cellAt(store.indexOf(handle));
+        return new Point(cell % store.getGridWidth(), cell / store.getGridWidth());
     }
     public FoodType getType() {
-        return type;
+        return TYPES[store.typeAt(store.indexOf(handle))];
     }
     public long getSpawnTime() {
-        return spawnTime;
+        return store.spawnTimeAt(store.indexOf(handle));
+    }
+    public long getSpawnTick() {
+        return store.spawnTickAt(store.indexOf(handle));
+    }
+    public int getHandle() {
+        return handle;
+    }
+    public boolean isValid() {
+        return store.isValid(handle);
     }
 }
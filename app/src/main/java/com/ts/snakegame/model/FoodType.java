@@ -1,27 +1,29 @@
 package com.ts.snakegame.model;
 
+import com.ts.snakegame.R;
+
 /**
  * Enum defining different types of food items with their effects
  * Each food type has unique properties affecting gameplay
  */
 public enum FoodType {
     /** Normal food - Classic apple that grows snake by 1 segment */
-    NORMAL(10, 1, 0, 0, "Normal Apple", 1.0f),
+    NORMAL(10, 1, 0, 0, "Normal Apple", 1.0f, R.drawable.food_normal_apple),
 
     /** Poison food - Reduces snake length by 2 segments (game over if too short) */
-    POISON(-20, -2, 0, 0, "Poison", 0.15f),
+    POISON(-20, -2, 0, 0, "Poison", 0.15f, R.drawable.food_poison),
 
     /** Bonus food - Rare item giving extra points and length */
-    BONUS(50, 2, 0, 0, "Bonus Cherry", 0.1f),
+    BONUS(50, 2, 0, 0, "Bonus Cherry", 0.1f, R.drawable.food_bonus_cherry),
 
     /** Freeze food - Temporarily slows down the snake */
-    FREEZE(15, 1, 3000, -50, "Freeze Berry", 0.2f),
+    FREEZE(15, 1, 3000, -50, "Freeze Berry", 0.2f, R.drawable.food_freeze_berry),
 
     /** Speed food - Temporarily speeds up the snake */
-    SPEED(20, 1, 3000, 50, "Speed Strawberry", 0.15f),
+    SPEED(20, 1, 3000, 50, "Speed Strawberry", 0.15f, R.drawable.food_speed_strawberry),
 
     /** Teleport food - Moves snake to random safe location */
-    TELEPORT(25, 0, 0, 0, "Teleport Fruit", 0.1f);
+    TELEPORT(25, 0, 0, 0, "Teleport Fruit", 0.1f, R.drawable.food_teleport_fruit);
 
     private final int scoreValue;
     private final int lengthChange;
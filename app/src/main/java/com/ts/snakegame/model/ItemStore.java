@@ -0,0 +1,219 @@
+package com.ts.snakegame.model;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays storage for board items (foods or obstacles)
+ * Live items are packed densely in parallel primitive arrays, so iteration is
+ * a linear scan and removal is an O(1) swap with the last item. Items are
+ * addressed from outside by generation-tagged handles, which stay valid while
+ * items move inside the arrays and turn stale once the item is removed
+ */
+public class ItemStore {
+
+    /** Returned when there is no item */
+    public static final int NO_HANDLE = -1;
+
+    private static final int ID_BITS = 20;
+    private static final int ID_MASK = (1 << ID_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - ID_BITS)) - 1;
+
+    private final int gridWidth;
+    private final int[] cellToId;
+
+    // Dense arrays, index < size
+    private int[] cells;
+    private int[] types;
+    private long[] spawnTicks;
+    private long[] spawnTimes;
+    private int[] denseToId;
+
+    // Sparse arrays, indexed by stable id
+    private int[] idToDense;
+    private int[] generations;
+    private int[] freeIds;
+    private int freeCount;
+    private int nextId;
+
+    private int size;
+
+    /**
+     * @param gridWidth Board width (to convert cells to points)
+     * @param cellCount Board cells, for O(1) lookup by cell
+     * @param initialCapacity Starting array size, grows by doubling
+     */
+    public ItemStore(int gridWidth, int cellCount, int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        this.gridWidth = gridWidth;
+        this.cellToId = new int[cellCount];
+        Arrays.fill(cellToId, NO_HANDLE);
+        cells = new int[capacity];
+        types = new int[capacity];
+        spawnTicks = new long[capacity];
+        spawnTimes = new long[capacity];
+        denseToId = new int[capacity];
+        idToDense = new int[capacity];
+        generations = new int[capacity];
+        freeIds = new int[capacity];
+    }
+
+    /**
+     * Add an item; the cell must not already hold one
+     * @return Handle of the new item
+     */
+    public int add(int cell, int typeOrdinal, long spawnTick, long spawnTime) {
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        if (id > ID_MASK) {
+            throw new IllegalStateException("Item store full");
+        }
+        if (size == cells.length || id >= idToDense.length) {
+            grow();
+        }
+
+        int index = size++;
+        cells[index] = cell;
+        types[index] = typeOrdinal;
+        spawnTicks[index] = spawnTick;
+        spawnTimes[index] = spawnTime;
+        denseToId[index] = id;
+        idToDense[id] = index;
+        cellToId[cell] = id;
+        return handleOf(id);
+    }
+
+    /**
+     * Remove an item by handle
+     * @return false if the handle was stale
+     */
+    public boolean remove(int handle) {
+        if (!isValid(handle)) {
+            return false;
+        }
+        removeIndex(idToDense[handle & ID_MASK]);
+        return true;
+    }
+
+    /**
+     * Remove the item at a dense index (while iterating, re-check the same index afterwards)
+     */
+    public void removeIndex(int index) {
+        int id = denseToId[index];
+        cellToId[cells[index]] = NO_HANDLE;
+
+        int last = --size;
+        if (index != last) {
+            cells[index] = cells[last];
+            types[index] = types[last];
+            spawnTicks[index] = spawnTicks[last];
+            spawnTimes[index] = spawnTimes[last];
+            int movedId = denseToId[last];
+            denseToId[index] = movedId;
+            idToDense[movedId] = index;
+        }
+
+        generations[id] = (generations[id] + 1) & GENERATION_MASK;
+        freeIds[freeCount++] = id;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            int id = denseToId[i];
+            cellToId[cells[i]] = NO_HANDLE;
+            generations[id] = (generations[id] + 1) & GENERATION_MASK;
+            freeIds[freeCount++] = id;
+        }
+        size = 0;
+    }
+
+    /**
+     * Move a live item to another (empty) cell; the handle stays valid
+     */
+    public void move(int handle, int newCell) {
+        int id = handle & ID_MASK;
+        int index = indexOf(handle);
+        cellToId[cells[index]] = NO_HANDLE;
+        cells[index] = newCell;
+        cellToId[newCell] = id;
+    }
+
+    public boolean isValid(int handle) {
+        if (handle < 0) return false;
+        int id = handle & ID_MASK;
+        return id < nextId && generations[id] == (handle >>> ID_BITS)
+                && idToDense[id] < size && denseToId[idToDense[id]] == id;
+    }
+
+    /**
+     * Handle of the item on a cell, or NO_HANDLE
+     */
+    public int findByCell(int cell) {
+        int id = cellToId[cell];
+        return id == NO_HANDLE ? NO_HANDLE : handleOf(id);
+    }
+
+    /**
+     * Stable slot id of a handle (dense, reused after removal) - for side tables
+     */
+    public static int idOf(int handle) {
+        return handle & ID_MASK;
+    }
+
+    private int handleOf(int id) {
+        return (generations[id] << ID_BITS) | id;
+    }
+
+    private void grow() {
+        int capacity = cells.length * 2;
+        cells = Arrays.copyOf(cells, capacity);
+        types = Arrays.copyOf(types, capacity);
+        spawnTicks = Arrays.copyOf(spawnTicks, capacity);
+        spawnTimes = Arrays.copyOf(spawnTimes, capacity);
+        denseToId = Arrays.copyOf(denseToId, capacity);
+        idToDense = Arrays.copyOf(idToDense, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        freeIds = Arrays.copyOf(freeIds, capacity);
+    }
+
+    // ===== Dense iteration =====
+
+    public int size() {
+        return size;
+    }
+
+    public int cellAt(int index) {
+        return cells[index];
+    }
+
+    public int typeAt(int index) {
+        return types[index];
+    }
+
+    public long spawnTickAt(int index) {
+        return spawnTicks[index];
+    }
+
+    public long spawnTimeAt(int index) {
+        return spawnTimes[index];
+    }
+
+    public int handleAt(int index) {
+        return handleOf(denseToId[index]);
+    }
+
+    // ===== Handle access =====
+
+    /**
+     * Current dense index of a live item
+     * @throws IllegalStateException if the handle is stale
+     */
+    public int indexOf(int handle) {
+        if (!isValid(handle)) {
+            throw new IllegalStateException("Item was removed");
+        }
+        return idToDense[handle & ID_MASK];
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+}
@@ -1,21 +1,34 @@
 package com.ts.snakegame.model;
 import android.graphics.Point;
+/**
+ * Obstacle - a lightweight view over one entry of the engine's ItemStore
+ * Reads through to the store; using it after the obstacle was removed throws
+ */
 public class Obstacle {
-    private final Point position;
-    private final ObstacleType type;
-    private final long spawnTime;
-    public Obstacle(Point position, ObstacleType type) {
-        this.position = position;
-        this.type = type;
-        this.spawnTime = System.currentTimeMillis();
+    private static final ObstacleType[] TYPES = ObstacleType.values();
+    private final ItemStore store;
+    private final int handle;
+    public Obstacle(ItemStore store, int handle) {
+        this.store = store;
+        this.handle = handle;
     }
     public Point getPosition() {
-        return position;
+        int cell = store.cellAt(store.indexOf(handle));
+        return new Point(cell % store.getGridWidth(), cell / store.getGridWidth());
     }
     public ObstacleType getType() {
-        return type;
+        return TYPES[store.typeAt(store.indexOf(handle))];
     }
     public long getSpawnTime() {
-        return spawnTime;
+        return store.spawnTimeAt(store.indexOf(handle));
+    }
+    public long getSpawnTick() {
+        return store.spawnTickAt(store.indexOf(handle));
+    }
+    public int getHandle() {
+        return handle;
+    }
+    public boolean isValid() {
+        return store.isValid(handle);
     }
 }
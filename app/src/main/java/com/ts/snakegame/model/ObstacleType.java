@@ -21,16 +21,32 @@ public enum ObstacleType {
     /**
      * Wall segment - Additional wall pieces
      */
-    WALL("Wall", 0.2f, R.drawable.obstacle_wall);
+    WALL("Wall", 0.2f, R.drawable.obstacle_wall),
+
+    /**
+     * Patrolling wall - Paces back and forth along a short line
+     */
+    PATROL_WALL("Patrolling Wall", 0.1f, R.drawable.obstacle_wall, true),
+
+    /**
+     * Rolling stone - Circles a small square
+     */
+    ROLLING_STONE("Rolling Stone", 0.1f, R.drawable.obstacle_stone, true);
 
     private final String displayName;
     private final float spawnProbability;
     private final int drawableResId;
+    private final boolean moving;
 
     ObstacleType(String displayName, float spawnProbability, int drawableResId) {
+        this(displayName, spawnProbability, drawableResId, false);
+    }
+
+    ObstacleType(String displayName, float spawnProbability, int drawableResId, boolean moving) {
         this.displayName = displayName;
         this.spawnProbability = spawnProbability;
         this.drawableResId = drawableResId;
+        this.moving = moving;
     }
 
     public String getDisplayName() {
@@ -48,5 +64,12 @@ public enum ObstacleType {
     public int getDrawableResId() {
         return drawableResId;
     }
+
+    /**
+     * True if the obstacle advances along a path every tick
+     */
+    public boolean isMoving() {
+        return moving;
+    }
 }
 
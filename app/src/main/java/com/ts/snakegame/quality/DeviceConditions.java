@@ -0,0 +1,25 @@
+package com.ts.snakegame.quality;
+
+/**
+ * Device state the QualityGovernor reacts to
+ * Polled about once per second; tests substitute a scripted implementation
+ */
+public interface DeviceConditions {
+
+    /** Thermal status values, as in android.os.PowerManager */
+    int THERMAL_NONE = 0;
+    int THERMAL_LIGHT = 1;
+    int THERMAL_MODERATE = 2;
+    int THERMAL_SEVERE = 3;
+    int THERMAL_CRITICAL = 4;
+
+    /**
+     * Current thermal status, THERMAL_NONE and up (values above CRITICAL count as CRITICAL)
+     */
+    int getThermalStatus();
+
+    /**
+     * True while battery saver is on
+     */
+    boolean isPowerSaveMode();
+}
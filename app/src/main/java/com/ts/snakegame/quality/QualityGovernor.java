@@ -0,0 +1,157 @@
+package com.ts.snakegame.quality;
+
+/**
+ * Picks the render QualityLevel from thermal status, battery saver and
+ * measured draw times
+ * Each input names the best level it allows. Quality drops as soon as an
+ * evaluation asks for less, but rises only one step at a time and only after
+ * every input has allowed more for a hold period. Rising and then dropping
+ * again soon after doubles the hold, so a device on the edge settles instead
+ * of flapping between two levels. The simulation is never slowed, only the
+ * rendering
+ */
+public class QualityGovernor {
+
+    /**
+     * Notified on the thread that reports frames
+     */
+    public interface Listener {
+        void onQualityChanged(QualityLevel level);
+    }
+
+    /** Inputs are re-read and frame times averaged over windows this long */
+    public static final long EVALUATE_INTERVAL_MS = 1000;
+
+    /** Average draw time above which the current level is too expensive */
+    static final long SLOW_FRAME_NANOS = 10_000_000L;
+
+    /** Average draw time below which the next level up is worth trying */
+    static final long FAST_FRAME_NANOS = 4_000_000L;
+
+    /** Frames a window needs before its draw times count */
+    static final int MIN_FRAMES = 10;
+
+    static final long MIN_RAISE_HOLD_MS = 10_000;
+    static final long MAX_RAISE_HOLD_MS = 5 * 60_000;
+
+    private final DeviceConditions conditions;
+    private Listener listener;
+    private QualityLevel level = QualityLevel.FULL;
+
+    // Current evaluation window
+    private long windowStart = -1;
+    private long windowNanos;
+    private int windowFrames;
+
+    private long raiseAllowedSince = -1;
+    private long lastRaise = -MAX_RAISE_HOLD_MS;
+    private long lastDrop = -MAX_RAISE_HOLD_MS;
+    private long raiseHold = MIN_RAISE_HOLD_MS;
+
+    public QualityGovernor(DeviceConditions conditions) {
+        this.conditions = conditions;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public QualityLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Report one drawn frame; evaluates once per EVALUATE_INTERVAL_MS
+     * @param drawNanos Time spent drawing the frame
+     * @param nowMillis Monotonic clock (uptime)
+     */
+    public void onFrame(long drawNanos, long nowMillis) {
+        if (windowStart < 0) {
+            windowStart = nowMillis;
+        }
+        windowNanos += drawNanos;
+        windowFrames++;
+        if (nowMillis - windowStart >= EVALUATE_INTERVAL_MS) {
+            evaluate(nowMillis);
+        }
+    }
+
+    /**
+     * Periodic check for when frames may not be coming (paused game, static
+     * screen): evaluates only if no evaluation ran for EVALUATE_INTERVAL_MS,
+     * so frame-time windows driven by onFrame() are not cut short
+     */
+    public void evaluateIfDue(long nowMillis) {
+        if (windowStart < 0 || nowMillis - windowStart >= EVALUATE_INTERVAL_MS) {
+            evaluate(nowMillis);
+        }
+    }
+
+    /**
+     * Re-read the device state and apply the result now, also without frames
+     * (paused game); starts a new frame-time window
+     */
+    public void evaluate(long nowMillis) {
+        QualityLevel target = worse(thermalLimit(conditions.getThermalStatus()),
+                conditions.isPowerSaveMode() ? QualityLevel.BALANCED : QualityLevel.FULL);
+        target = worse(target, frameTimeLimit());
+        windowStart = nowMillis;
+        windowNanos = 0;
+        windowFrames = 0;
+
+        if (target.ordinal() > level.ordinal()) {
+            // A drop soon after a raise means the raise was premature
+            if (nowMillis - lastRaise < 2 * raiseHold) {
+                raiseHold = Math.min(raiseHold * 2, MAX_RAISE_HOLD_MS);
+            }
+            lastDrop = nowMillis;
+            raiseAllowedSince = -1;
+            setLevel(target);
+        } else if (target.ordinal() < level.ordinal()) {
+            if (raiseAllowedSince < 0) {
+                raiseAllowedSince = nowMillis;
+            } else if (nowMillis - raiseAllowedSince >= raiseHold) {
+                lastRaise = nowMillis;
+                raiseAllowedSince = nowMillis;
+                setLevel(level.higher());
+            }
+        } else {
+            raiseAllowedSince = -1;
+        }
+        if (nowMillis - lastDrop >= MAX_RAISE_HOLD_MS) {
+            raiseHold = MIN_RAISE_HOLD_MS;
+        }
+    }
+
+    private void setLevel(QualityLevel newLevel) {
+        level = newLevel;
+        if (listener != null) {
+            listener.onQualityChanged(newLevel);
+        }
+    }
+
+    /**
+     * Best level the last window's draw times allow, relative to the current one
+     */
+    private QualityLevel frameTimeLimit() {
+        if (windowFrames < MIN_FRAMES) {
+            return level.higher();
+        }
+        long average = windowNanos / windowFrames;
+        if (average > SLOW_FRAME_NANOS) {
+            return level.lower();
+        }
+        return average < FAST_FRAME_NANOS ? level.higher() : level;
+    }
+
+    private static QualityLevel thermalLimit(int thermalStatus) {
+        if (thermalStatus >= DeviceConditions.THERMAL_CRITICAL) return QualityLevel.MINIMAL;
+        if (thermalStatus == DeviceConditions.THERMAL_SEVERE) return QualityLevel.SAVER;
+        if (thermalStatus == DeviceConditions.THERMAL_MODERATE) return QualityLevel.BALANCED;
+        return QualityLevel.FULL;
+    }
+
+    private static QualityLevel worse(QualityLevel a, QualityLevel b) {
+        return a.ordinal() >= b.ordinal() ? a : b;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ts.snakegame.quality;
+
+/**
+ * Render quality steps, best first; the simulation tick rate is the same at every level
+ */
+public enum QualityLevel {
+    /** Display refresh rate, interpolated movement, text shadow, full sprites */
+    FULL(0, true, true, false),
+    /** Redraws capped at 30 fps, no text shadow */
+    BALANCED(30, true, false, false),
+    /** No interpolation: the board is redrawn only when a tick changes it */
+    SAVER(0, false, false, false),
+    /** As SAVER, with flat colored cells instead of sprites and grass tiles */
+    MINIMAL(0, false, false, true);
+
+    private final int maxFramesPerSecond;
+    private final boolean interpolation;
+    private final boolean textShadow;
+    private final boolean simpleSprites;
+
+    QualityLevel(int maxFramesPerSecond, boolean interpolation, boolean textShadow, boolean simpleSprites) {
+        this.maxFramesPerSecond = maxFramesPerSecond;
+        this.interpolation = interpolation;
+        this.textShadow = textShadow;
+        this.simpleSprites = simpleSprites;
+    }
+
+    /**
+     * Cap on redraws while interpolating, 0 for the display rate
+     */
+    public int getMaxFramesPerSecond() {
+        return maxFramesPerSecond;
+    }
+
+    public boolean hasInterpolation() {
+        return interpolation;
+    }
+
+    public boolean hasTextShadow() {
+        return textShadow;
+    }
+
+    public boolean hasSimpleSprites() {
+        return simpleSprites;
+    }
+
+    /**
+     * One step lower, or this level if it is the lowest
+     */
+    public QualityLevel lower() {
+        QualityLevel[] levels = values();
+        return levels[Math.min(ordinal() + 1, levels.length - 1)];
+    }
+
+    /**
+     * One step higher, or this level if it is the highest
+     */
+    public QualityLevel higher() {
+        return values()[Math.max(ordinal() - 1, 0)];
+    }
+}
@@ -0,0 +1,26 @@
+package com.ts.snakegame.quality;
+
+import android.content.Context;
+import android.os.PowerManager;
+
+/**
+ * Reads thermal status and battery saver from PowerManager
+ */
+public class SystemDeviceConditions implements DeviceConditions {
+
+    private final PowerManager powerManager;
+
+    public SystemDeviceConditions(Context context) {
+        this.powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+    }
+
+    @Override
+    public int getThermalStatus() {
+        return powerManager != null ? powerManager.getCurrentThermalStatus() : THERMAL_NONE;
+    }
+
+    @Override
+    public boolean isPowerSaveMode() {
+        return powerManager != null && powerManager.isPowerSaveMode();
+    }
+}
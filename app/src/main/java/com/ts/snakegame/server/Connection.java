@@ -0,0 +1,29 @@
+package com.ts.snakegame.server;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Server-side handle of one connected client
+ * Implemented by each transport (NIO sockets, in-process loopback)
+ */
+public interface Connection {
+
+    /**
+     * Queue a complete frame for delivery
+     * Called from tick threads; must not block. Implementations may drop the
+     * frame when the client is too slow - state frames are full snapshots so
+     * the next one supersedes it.
+     * @param frame Frame between position and limit, only read during the call
+     */
+    void send(ByteBuffer frame);
+
+    /**
+     * Close the connection, the server is notified through disconnect()
+     */
+    void close();
+
+    /** Slot used by the server to attach per-connection state */
+    Object getAttachment();
+
+    void setAttachment(Object attachment);
+}
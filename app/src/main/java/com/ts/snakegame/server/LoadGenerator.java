@@ -0,0 +1,190 @@
+package com.ts.snakegame.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Spins up a MatchServer plus simulated clients in one process
+ * Usage: LoadGenerator [loopback|tcp] [matches] [playersPerMatch] [seconds] [tickMs]
+ * TCP mode binds to localhost only, so no external service is involved
+ */
+public class LoadGenerator {
+
+    private static final int GRID_WIDTH = 30;
+    private static final int GRID_HEIGHT = 50;
+
+    private final MatchServer server;
+    private final List<SimulatedClient> clients = new ArrayList<>();
+
+    public LoadGenerator(MatchServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Connect simulated clients through the in-process transport
+     */
+    public void connectLoopback(int matches, int playersPerMatch) {
+        LoopbackTransport transport = new LoopbackTransport(server);
+        for (int m = 0; m < matches; m++) {
+            for (int p = 0; p < playersPerMatch; p++) {
+                SimulatedClient client = createClient(m, p);
+                LoopbackTransport.Endpoint endpoint = transport.connect(client);
+                client.setSink(endpoint::send);
+                client.join();
+            }
+        }
+    }
+
+    /**
+     * Connect simulated clients over localhost sockets, served by one client selector thread
+     */
+    public Thread connectTcp(int port, int matches, int playersPerMatch) throws IOException {
+        Selector selector = Selector.open();
+        for (int m = 0; m < matches; m++) {
+            for (int p = 0; p < playersPerMatch; p++) {
+                SimulatedClient client = createClient(m, p);
+                SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                TcpClient tcp = new TcpClient(channel, client);
+                tcp.key = channel.register(selector, SelectionKey.OP_READ, tcp);
+                client.setSink(tcp::send);
+                client.join();
+            }
+        }
+
+        Thread thread = new Thread(() -> runClientLoop(selector), "snake-load-clients");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private SimulatedClient createClient(int match, int player) {
+        SimulatedClient client = new SimulatedClient(match, GRID_WIDTH, GRID_HEIGHT, match * 1000L + player);
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * Socket wrapper for one simulated client (client selector thread only)
+     */
+    private static final class TcpClient {
+        final SocketChannel channel;
+        final SimulatedClient client;
+        final ByteBuffer inbound = ByteBuffer.allocate(Protocol.MAX_FRAME_SIZE * 2);
+        final ByteBuffer outbound = ByteBuffer.allocate(4096);
+        SelectionKey key;
+
+        TcpClient(SocketChannel channel, SimulatedClient client) {
+            this.channel = channel;
+            this.client = client;
+        }
+
+        void send(ByteBuffer frames) {
+            if (outbound.remaining() < frames.remaining()) {
+                return;
+            }
+            outbound.put(frames);
+            flush();
+        }
+
+        void flush() {
+            try {
+                outbound.flip();
+                channel.write(outbound);
+                boolean pending = outbound.hasRemaining();
+                outbound.compact();
+                if (key != null) {
+                    key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+                }
+            } catch (IOException e) {
+                outbound.clear();
+            }
+        }
+
+        void read() throws IOException {
+            if (channel.read(inbound) < 0) {
+                throw new IOException("Server closed connection");
+            }
+            inbound.flip();
+            Protocol.readFrames(inbound, client);
+            inbound.compact();
+        }
+    }
+
+    private static void runClientLoop(Selector selector) {
+        while (selector.isOpen()) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    TcpClient tcp = (TcpClient) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            tcp.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            tcp.flush();
+                        }
+                    } catch (IOException e) {
+                        key.cancel();
+                    }
+                }
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    public long totalStatesReceived() {
+        long total = 0;
+        for (SimulatedClient client : clients) {
+            total += client.statesReceived;
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "loopback";
+        int matches = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int playersPerMatch = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int tickMs = args.length > 4 ? Integer.parseInt(args[4]) : 50;
+
+        MatchServer server = new MatchServer(GRID_WIDTH, GRID_HEIGHT, tickMs,
+                Runtime.getRuntime().availableProcessors());
+        LoadGenerator generator = new LoadGenerator(server);
+        NioTransport transport = null;
+
+        if ("tcp".equals(mode)) {
+            transport = new NioTransport(server, new InetSocketAddress("127.0.0.1", 0));
+            transport.start();
+            generator.connectTcp(transport.getPort(), matches, playersPerMatch);
+        } else {
+            generator.connectLoopback(matches, playersPerMatch);
+        }
+
+        long start = System.nanoTime();
+        for (int s = 1; s <= seconds; s++) {
+            Thread.sleep(1000);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            long steps = server.getStats().arenaSteps.sum();
+            System.out.printf("[%2ds] %s steps/s=%.0f states=%d%n",
+                    s, server.getStats(), steps / elapsed, generator.totalStatesReceived());
+        }
+
+        if (transport != null) {
+            transport.close();
+        }
+        server.shutdown();
+    }
+}
@@ -0,0 +1,96 @@
+package com.ts.snakegame.server;
+
+import java.nio.ByteBuffer;
+
+/**
+ * In-process transport - clients talk to the MatchServer without sockets
+ * Frames are delivered synchronously: client frames on the caller's thread,
+ * server frames on the tick thread that produced them
+ */
+public class LoopbackTransport {
+
+    private final MatchServer server;
+
+    /**
+     * Client side of a loopback connection
+     */
+    public final class Endpoint implements Protocol.FrameHandler {
+        private final LoopbackConnection connection;
+
+        private Endpoint(LoopbackConnection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * Send complete frames (between position and limit) to the server
+         */
+        public void send(ByteBuffer frames) {
+            if (!connection.closed && !Protocol.readFrames(frames, this)) {
+                connection.close();
+            }
+        }
+
+        @Override
+        public void onFrame(byte type, ByteBuffer payload) {
+            server.onFrame(connection, type, payload);
+        }
+
+        public void close() {
+            connection.close();
+        }
+    }
+
+    /**
+     * Server side of a loopback connection
+     */
+    private final class LoopbackConnection implements Connection {
+        private final Protocol.FrameHandler client;
+        private volatile Object attachment;
+        private volatile boolean closed;
+
+        LoopbackConnection(Protocol.FrameHandler client) {
+            this.client = client;
+        }
+
+        @Override
+        public void send(ByteBuffer frame) {
+            if (closed) {
+                return;
+            }
+            server.getStats().framesSent.increment();
+            Protocol.readFrames(frame, client);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            server.disconnect(this);
+        }
+
+        @Override
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        @Override
+        public void setAttachment(Object attachment) {
+            this.attachment = attachment;
+        }
+    }
+
+    public LoopbackTransport(MatchServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Open a connection whose server frames are delivered to the given handler
+     */
+    public Endpoint connect(Protocol.FrameHandler client) {
+        LoopbackConnection connection = new LoopbackConnection(client);
+        server.connected(connection);
+        return new Endpoint(connection);
+    }
+}
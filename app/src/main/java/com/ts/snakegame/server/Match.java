@@ -0,0 +1,145 @@
+package com.ts.snakegame.server;
+
+import com.ts.snakegame.logic.SnakeGameLogic;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * One hosted match - a set of player arenas stepped in lockstep
+ * All arena state is owned by the tick task; other threads only hand over
+ * inputs (volatile) and membership changes (queue drained at tick start)
+ */
+class Match implements Runnable {
+
+    /**
+     * A player slot: its arena and the latest input received for it
+     */
+    static final class Player {
+        final Connection connection;
+        final SnakeGameLogic arena;
+        volatile SnakeGameLogic.Direction pendingDirection;
+        volatile boolean restartRequested;
+        Match match;
+
+        Player(Connection connection, int gridWidth, int gridHeight) {
+            this.connection = connection;
+            this.arena = new SnakeGameLogic(gridWidth, gridHeight);
+        }
+    }
+
+    private final int id;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final List<Player> players = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Player> joining = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Player> leaving = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer frameBuffer = ByteBuffer.allocate(Protocol.MAX_FRAME_SIZE);
+    private final ServerStats stats;
+    private final MatchServer owner;
+
+    private long tick;
+    private ScheduledFuture<?> schedule;
+
+    Match(int id, int gridWidth, int gridHeight, ServerStats stats, MatchServer owner) {
+        this.id = id;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.stats = stats;
+        this.owner = owner;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    Player createPlayer(Connection connection) {
+        Player player = new Player(connection, gridWidth, gridHeight);
+        player.match = this;
+        return player;
+    }
+
+    void join(Player player) {
+        joining.add(player);
+    }
+
+    void leave(Player player) {
+        leaving.add(player);
+    }
+
+    void setSchedule(ScheduledFuture<?> schedule) {
+        this.schedule = schedule;
+    }
+
+    ScheduledFuture<?> getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * Advance every arena by one tick and broadcast the resulting state
+     */
+    @Override
+    public void run() {
+        try {
+            applyMembershipChanges();
+            if (players.isEmpty()) {
+                owner.retireIfIdle(this);
+                return;
+            }
+            tick++;
+
+            for (int i = 0; i < players.size(); i++) {
+                Player player = players.get(i);
+                SnakeGameLogic arena = player.arena;
+
+                if (player.restartRequested) {
+                    player.restartRequested = false;
+                    arena.reset();
+                }
+
+                SnakeGameLogic.Direction direction = player.pendingDirection;
+                if (direction != null) {
+                    player.pendingDirection = null;
+                    arena.setDirection(direction);
+                }
+                arena.update();
+
+                frameBuffer.clear();
+                if (Protocol.writeState(frameBuffer, tick, arena)) {
+                    frameBuffer.flip();
+                    player.connection.send(frameBuffer);
+                } else {
+                    stats.framesDropped.increment();
+                }
+            }
+            stats.ticks.increment();
+            stats.arenaSteps.add(players.size());
+        } catch (RuntimeException e) {
+            // A failing arena must not cancel the periodic task for the whole match
+            stats.tickErrors.increment();
+        }
+    }
+
+    /**
+     * True when no player is active or waiting to join
+     */
+    boolean isIdle() {
+        return players.isEmpty() && joining.isEmpty();
+    }
+
+    private void applyMembershipChanges() {
+        // Joins first: a player that joined and left between two ticks must not stay behind
+        Player player;
+        while ((player = joining.poll()) != null) {
+            if (!players.contains(player)) {
+                players.add(player);
+            }
+        }
+        while ((player = leaving.poll()) != null) {
+            players.remove(player);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.ts.snakegame.server;
+
+import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.logic.SnakeGameLogic;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Authoritative headless tick server - hosts many matches in one process
+ * Transport-agnostic: transports decode frames and call onFrame()/disconnect(),
+ * matches tick on a shared scheduled executor sized to the available cores
+ */
+public class MatchServer {
+
+    private final int gridWidth;
+    private final int gridHeight;
+    private final long tickIntervalMs;
+    private final ScheduledThreadPoolExecutor tickExecutor;
+    private final Map<Integer, Match> matches = new HashMap<>();
+    private final ServerStats stats = new ServerStats();
+
+    /**
+     * @param gridWidth Arena width in cells
+     * @param gridHeight Arena height in cells
+     * @param tickIntervalMs Fixed tick interval for every match
+     * @param tickThreads Size of the shared tick executor
+     */
+    public MatchServer(int gridWidth, int gridHeight, long tickIntervalMs, int tickThreads) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.tickIntervalMs = tickIntervalMs;
+
+        // Initialize the shared config before any tick thread can race on it
+        GameConfig.getInstance();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread thread = new Thread(r, "snake-tick-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        tickExecutor = new ScheduledThreadPoolExecutor(tickThreads, factory);
+        tickExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    public MatchServer(int gridWidth, int gridHeight) {
+        this(gridWidth, gridHeight, GameConfig.getInstance().baseGameSpeed,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Handle a frame received from a client
+     * Called on the transport thread - only hands data over, never touches arenas
+     */
+    public void onFrame(Connection connection, byte type, ByteBuffer payload) {
+        switch (type) {
+            case Protocol.MSG_JOIN:
+                if (payload.remaining() < 4) {
+                    connection.close();
+                    return;
+                }
+                join(connection, payload.getInt());
+                break;
+            case Protocol.MSG_INPUT:
+                if (payload.remaining() < 1) {
+                    connection.close();
+                    return;
+                }
+                Match.Player player = (Match.Player) connection.getAttachment();
+                SnakeGameLogic.Direction direction = Protocol.readDirection(payload);
+                if (player != null && direction != null) {
+                    player.pendingDirection = direction;
+                    stats.inputsReceived.increment();
+                }
+                break;
+            case Protocol.MSG_LEAVE:
+                leave(connection);
+                break;
+            default:
+                connection.close();
+                break;
+        }
+    }
+
+    /**
+     * Called by transports once per connection when it opens
+     */
+    public void connected(Connection connection) {
+        stats.connections.incrementAndGet();
+    }
+
+    /**
+     * Called by transports once per connection when it closes
+     */
+    public void disconnect(Connection connection) {
+        leave(connection);
+        stats.connections.decrementAndGet();
+    }
+
+    private void join(Connection connection, int matchId) {
+        Match.Player current = (Match.Player) connection.getAttachment();
+        if (current != null && current.match.getId() == matchId) {
+            // Joining the same match again restarts the player's arena
+            current.restartRequested = true;
+            return;
+        }
+        leave(connection);
+
+        synchronized (matches) {
+            Match match = matches.get(matchId);
+            if (match == null) {
+                match = new Match(matchId, gridWidth, gridHeight, stats, this);
+                // Fixed delay: a match that fell behind (overloaded pool, GC pause)
+                // resumes at its normal pace instead of replaying the missed ticks in a burst
+                match.setSchedule(tickExecutor.scheduleWithFixedDelay(
+                        match, tickIntervalMs, tickIntervalMs, TimeUnit.MILLISECONDS));
+                matches.put(matchId, match);
+                stats.matches.incrementAndGet();
+            }
+            Match.Player player = match.createPlayer(connection);
+            connection.setAttachment(player);
+            match.join(player);
+        }
+    }
+
+    private void leave(Connection connection) {
+        Match.Player player = (Match.Player) connection.getAttachment();
+        if (player == null) {
+            return;
+        }
+        connection.setAttachment(null);
+        player.match.leave(player);
+    }
+
+    /**
+     * Stop ticking a match that has no players left
+     * Runs on the match's own tick thread; the lock orders it against join()
+     */
+    void retireIfIdle(Match match) {
+        synchronized (matches) {
+            if (!match.isIdle() || matches.get(match.getId()) != match) {
+                return;
+            }
+            matches.remove(match.getId());
+            match.getSchedule().cancel(false);
+            stats.matches.decrementAndGet();
+        }
+    }
+
+    public ServerStats getStats() {
+        return stats;
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    /**
+     * Stop all matches
+     */
+    public void shutdown() {
+        tickExecutor.shutdownNow();
+        synchronized (matches) {
+            matches.clear();
+        }
+    }
+
+    /**
+     * Wait for running ticks to finish after shutdown()
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return tickExecutor.awaitTermination(timeout, unit);
+    }
+}
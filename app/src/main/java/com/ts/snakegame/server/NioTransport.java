@@ -0,0 +1,257 @@
+package com.ts.snakegame.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking socket transport - a single selector thread serves every client
+ * Reads are decoded and handed to the MatchServer on the selector thread;
+ * tick threads append outgoing frames to per-connection buffers and wake the
+ * selector, which performs the actual socket writes
+ */
+public class NioTransport implements Closeable {
+
+    /** Outgoing bytes buffered per client before frames start being dropped */
+    private static final int OUTBOUND_CAPACITY = 256 * 1024;
+
+    private final MatchServer server;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ConcurrentLinkedQueue<NioConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * Server-side connection bound to a socket channel
+     */
+    private final class NioConnection implements Connection, Protocol.FrameHandler {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer inbound = ByteBuffer.allocate(Protocol.MAX_FRAME_SIZE * 2);
+        final ByteBuffer outbound = ByteBuffer.allocateDirect(OUTBOUND_CAPACITY);
+        final AtomicBoolean writeQueued = new AtomicBoolean();
+        volatile Object attachment;
+        boolean closed;
+
+        NioConnection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        @Override
+        public void send(ByteBuffer frame) {
+            synchronized (outbound) {
+                if (closed || outbound.remaining() < frame.remaining()) {
+                    server.getStats().framesDropped.increment();
+                    return;
+                }
+                outbound.put(frame.duplicate());
+            }
+            server.getStats().framesSent.increment();
+            if (writeQueued.compareAndSet(false, true)) {
+                pendingWrites.add(this);
+                selector.wakeup();
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (outbound) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Already closed by the peer
+            }
+            server.disconnect(this);
+        }
+
+        @Override
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        @Override
+        public void setAttachment(Object attachment) {
+            this.attachment = attachment;
+        }
+
+        @Override
+        public void onFrame(byte type, ByteBuffer payload) {
+            server.onFrame(this, type, payload);
+        }
+
+        void read() throws IOException {
+            int count = channel.read(inbound);
+            if (count < 0) {
+                close();
+                return;
+            }
+            inbound.flip();
+            boolean valid = Protocol.readFrames(inbound, this);
+            inbound.compact();
+            if (!valid) {
+                close();
+            }
+        }
+
+        void write() throws IOException {
+            synchronized (outbound) {
+                outbound.flip();
+                channel.write(outbound);
+                boolean drained = !outbound.hasRemaining();
+                outbound.compact();
+                if (drained) {
+                    key.interestOps(SelectionKey.OP_READ);
+                    writeQueued.set(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bind the listening socket; call start() to begin serving
+     * @param address Bind address, port 0 picks a free port
+     */
+    public NioTransport(MatchServer server, InetSocketAddress address) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(address);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.selectorThread = new Thread(this::runLoop, "snake-selector");
+        selectorThread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        selectorThread.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                selector.select();
+                registerPendingWrites();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+            } catch (IOException e) {
+                if (!running) {
+                    break;
+                }
+            }
+        }
+        shutdown();
+    }
+
+    /**
+     * Close every client, the listening socket and the selector
+     * Runs on the selector thread once the loop has stopped, so no key is in use
+     */
+    private void shutdown() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof NioConnection) {
+                ((NioConnection) key.attachment()).close();
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException ignored) {
+            // Nothing left to serve either way
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        NioConnection connection = (NioConnection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.write();
+            }
+        } catch (IOException | RuntimeException e) {
+            // A malformed frame only drops its own client, never the selector thread
+            connection.close();
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            NioConnection connection = new NioConnection(channel, key);
+            key.attach(connection);
+            server.connected(connection);
+        } catch (IOException e) {
+            // Client vanished during accept, nothing to clean up
+        }
+    }
+
+    private void registerPendingWrites() {
+        NioConnection connection;
+        while ((connection = pendingWrites.poll()) != null) {
+            if (connection.key.isValid()) {
+                connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (selectorThread.getState() == Thread.State.NEW) {
+            // Never started: nothing else touches the selector
+            shutdown();
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        if (Thread.currentThread() == selectorThread) {
+            return;
+        }
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the selector");
+        }
+    }
+}
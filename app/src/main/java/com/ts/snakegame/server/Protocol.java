@@ -0,0 +1,166 @@
+package com.ts.snakegame.server;
+
+import android.graphics.Point;
+
+import com.ts.snakegame.logic.SnakeGameLogic;
+import com.ts.snakegame.model.ItemStore;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format shared by the tick server and its clients
+ * Every frame is [int length][byte type][payload], length covers type + payload
+ */
+public final class Protocol {
+
+    // ===== Client -> Server =====
+    /** Join (or restart in) a match: [int matchId] */
+    public static final byte MSG_JOIN = 1;
+
+    /** Direction input for the next tick: [byte direction ordinal] */
+    public static final byte MSG_INPUT = 2;
+
+    /** Leave the current match, no payload */
+    public static final byte MSG_LEAVE = 3;
+
+    // ===== Server -> Client =====
+    /** Full arena state after a tick */
+    public static final byte MSG_STATE = 10;
+
+    /** Frame header size: length + type */
+    public static final int HEADER_SIZE = 5;
+
+    /** Largest frame accepted from either side */
+    public static final int MAX_FRAME_SIZE = 64 * 1024;
+
+    private static final SnakeGameLogic.Direction[] DIRECTIONS = SnakeGameLogic.Direction.values();
+
+    /**
+     * Receiver of decoded frames
+     */
+    public interface FrameHandler {
+        /**
+         * @param type Frame type byte
+         * @param payload Buffer positioned at the payload, limited to the frame end
+         */
+        void onFrame(byte type, ByteBuffer payload);
+    }
+
+    private Protocol() {}
+
+    /**
+     * Dispatch every complete frame in the buffer (in read mode)
+     * Incomplete trailing data is left in place for the next read.
+     * @return false if a malformed frame was found and the stream must be closed
+     */
+    public static boolean readFrames(ByteBuffer in, FrameHandler handler) {
+        while (in.remaining() >= HEADER_SIZE) {
+            int start = in.position();
+            int length = in.getInt(start);
+            if (length < 1 || length > MAX_FRAME_SIZE) {
+                return false;
+            }
+            if (in.remaining() < 4 + length) {
+                break;
+            }
+            int end = start + 4 + length;
+            int limit = in.limit();
+            byte type = in.get(start + 4);
+            in.position(start + HEADER_SIZE).limit(end);
+            handler.onFrame(type, in);
+            in.limit(limit).position(end);
+        }
+        return true;
+    }
+
+    public static void writeJoin(ByteBuffer out, int matchId) {
+        out.putInt(5).put(MSG_JOIN).putInt(matchId);
+    }
+
+    public static void writeInput(ByteBuffer out, SnakeGameLogic.Direction direction) {
+        out.putInt(2).put(MSG_INPUT).put((byte) direction.ordinal());
+    }
+
+    public static void writeLeave(ByteBuffer out) {
+        out.putInt(1).put(MSG_LEAVE);
+    }
+
+    public static SnakeGameLogic.Direction readDirection(ByteBuffer in) {
+        int ordinal = in.get();
+        if (ordinal < 0 || ordinal >= DIRECTIONS.length) {
+            return null;
+        }
+        return DIRECTIONS[ordinal];
+    }
+
+    /**
+     * Encode arena state after a tick
+     * Cells are sent as y * gridWidth + x to keep the frame small
+     * @return false if the state does not fit into the buffer
+     */
+    public static boolean writeState(ByteBuffer out, long tick, SnakeGameLogic arena) {
+        int length = arena.getSnakeLength();
+        ItemStore foods = arena.getFoodStore();
+        ItemStore obstacles = arena.getObstacleStore();
+        int width = arena.getGridWidth();
+
+        int payload = 1 + 8 + 4 + 4 + 1 + 1
+                + 4 + length * 4
+                + 2 + foods.size() * 5
+                + 2 + obstacles.size() * 5;
+        if (out.remaining() < 4 + payload) {
+            return false;
+        }
+
+        out.putInt(payload).put(MSG_STATE);
+        out.putLong(tick);
+        out.putInt(arena.getScore());
+        out.putInt(arena.getCurrentSpeed());
+        out.put((byte) arena.getDirection().ordinal());
+        out.put((byte) (arena.isGameOver() ? 1 : 0));
+
+        out.putInt(length);
+        for (int i = 0; i < length; i++) {
+            Point segment = arena.getSnakeSegment(i);
+            out.putInt(segment.y * width + segment.x);
+        }
+        out.putShort((short) foods.size());
+        for (int i = 0; i < foods.size(); i++) {
+            out.putInt(foods.cellAt(i));
+            out.put((byte) foods.typeAt(i));
+        }
+        out.putShort((short) obstacles.size());
+        for (int i = 0; i < obstacles.size(); i++) {
+            out.putInt(obstacles.cellAt(i));
+            out.put((byte) obstacles.typeAt(i));
+        }
+        return true;
+    }
+
+    /**
+     * Summary of a state frame, filled in place so clients can decode without allocating
+     * Body and item cells are skipped, only the header fields are read
+     */
+    public static final class StateHeader {
+        public long tick;
+        public int score;
+        public int speed;
+        public int direction;
+        public boolean gameOver;
+        public int snakeLength;
+        public int headCell;
+
+        /**
+         * Read header fields from a state payload (positioned after the type byte)
+         */
+        public void read(ByteBuffer in) {
+            tick = in.getLong();
+            score = in.getInt();
+            speed = in.getInt();
+            direction = in.get();
+            gameOver = in.get() != 0;
+            snakeLength = in.getInt();
+            headCell = snakeLength > 0 ? in.getInt(in.position()) : -1;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ts.snakegame.server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters updated by the selector and tick threads
+ * LongAdder keeps contention low with many matches ticking in parallel
+ */
+public class ServerStats {
+    public final LongAdder ticks = new LongAdder();
+    public final LongAdder arenaSteps = new LongAdder();
+    public final LongAdder framesSent = new LongAdder();
+    public final LongAdder framesDropped = new LongAdder();
+    public final LongAdder inputsReceived = new LongAdder();
+    public final LongAdder tickErrors = new LongAdder();
+    public final AtomicInteger connections = new AtomicInteger();
+    public final AtomicInteger matches = new AtomicInteger();
+
+    @Override
+    public String toString() {
+        return "matches=" + matches.get()
+                + " connections=" + connections.get()
+                + " ticks=" + ticks.sum()
+                + " arenaSteps=" + arenaSteps.sum()
+                + " framesSent=" + framesSent.sum()
+                + " framesDropped=" + framesDropped.sum()
+                + " inputs=" + inputsReceived.sum()
+                + " tickErrors=" + tickErrors.sum();
+    }
+}
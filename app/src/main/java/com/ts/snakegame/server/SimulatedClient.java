@@ -0,0 +1,101 @@
+package com.ts.snakegame.server;
+
+import com.ts.snakegame.logic.SnakeGameLogic;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Scripted player used by the load generator
+ * Keeps heading straight, turns away from walls and occasionally at random,
+ * and restarts its arena as soon as it dies
+ */
+class SimulatedClient implements Protocol.FrameHandler {
+
+    /**
+     * Where the client's outgoing frames go (loopback endpoint or socket)
+     */
+    interface Sink {
+        void send(ByteBuffer frames);
+    }
+
+    private static final SnakeGameLogic.Direction[] DIRECTIONS = SnakeGameLogic.Direction.values();
+
+    private final int matchId;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final Random random;
+    private final Protocol.StateHeader header = new Protocol.StateHeader();
+    private final ByteBuffer out = ByteBuffer.allocate(64);
+    private Sink sink;
+
+    long statesReceived;
+    long restarts;
+
+    SimulatedClient(int matchId, int gridWidth, int gridHeight, long seed) {
+        this.matchId = matchId;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.random = new Random(seed);
+    }
+
+    void setSink(Sink sink) {
+        this.sink = sink;
+    }
+
+    void join() {
+        out.clear();
+        Protocol.writeJoin(out, matchId);
+        flush();
+    }
+
+    @Override
+    public void onFrame(byte type, ByteBuffer payload) {
+        if (type != Protocol.MSG_STATE) {
+            return;
+        }
+        header.read(payload);
+        statesReceived++;
+
+        if (header.gameOver) {
+            restarts++;
+            join();
+            return;
+        }
+
+        SnakeGameLogic.Direction next = chooseDirection();
+        if (next != null) {
+            out.clear();
+            Protocol.writeInput(out, next);
+            flush();
+        }
+    }
+
+    private SnakeGameLogic.Direction chooseDirection() {
+        SnakeGameLogic.Direction current = DIRECTIONS[header.direction];
+        int x = header.headCell % gridWidth;
+        int y = header.headCell / gridWidth;
+
+        boolean blocked;
+        switch (current) {
+            case UP: blocked = y <= 0; break;
+            case DOWN: blocked = y >= gridHeight - 1; break;
+            case LEFT: blocked = x <= 0; break;
+            default: blocked = x >= gridWidth - 1; break;
+        }
+        if (!blocked && random.nextInt(10) != 0) {
+            return null;
+        }
+
+        boolean vertical = current == SnakeGameLogic.Direction.UP || current == SnakeGameLogic.Direction.DOWN;
+        if (vertical) {
+            return x > gridWidth / 2 ? SnakeGameLogic.Direction.LEFT : SnakeGameLogic.Direction.RIGHT;
+        }
+        return y > gridHeight / 2 ? SnakeGameLogic.Direction.UP : SnakeGameLogic.Direction.DOWN;
+    }
+
+    private void flush() {
+        out.flip();
+        sink.send(out);
+    }
+}
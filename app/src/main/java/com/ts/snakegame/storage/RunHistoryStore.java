@@ -0,0 +1,181 @@
+package com.ts.snakegame.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Persistent history of finished runs with per-configuration high scores
+ * Runs are appended to a log of fixed-size records; on open the log is
+ * memory-mapped and scanned once to rebuild the top-K boards. All disk work
+ * happens on a single background thread, in submission order, so callers on
+ * the UI thread never block
+ */
+public class RunHistoryStore {
+
+    /** Entries kept per configuration */
+    public static final int TOP_K = 10;
+
+    private static final String FILE_NAME = "run_history.bin";
+
+    private static RunHistoryStore instance;
+
+    private final File file;
+    private final ExecutorService ioExecutor;
+    private final Map<Integer, TopScores> topScores = new HashMap<>();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(RunRecord.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel channel;
+    private volatile boolean loaded;
+    private long recordCount;
+
+    /**
+     * Get the process-wide store, creating it under the given directory on first use
+     */
+    public static synchronized RunHistoryStore getInstance(File directory) {
+        if (instance == null) {
+            instance = new RunHistoryStore(new File(directory, FILE_NAME));
+        }
+        return instance;
+    }
+
+    RunHistoryStore(File file) {
+        this.file = file;
+        this.ioExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "run-history-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ioExecutor.execute(this::load);
+    }
+
+    /**
+     * Record a finished run
+     * The top-K boards are updated immediately; the disk append is queued
+     */
+    public void append(RunRecord record) {
+        synchronized (topScores) {
+            boardFor(record.getConfigFingerprint()).offer(record);
+        }
+        ioExecutor.execute(() -> write(record));
+    }
+
+    /**
+     * Copy the best runs for a configuration into the array, best first
+     * @return Number of entries written
+     */
+    public int getTopScores(int configFingerprint, RunRecord[] out) {
+        synchronized (topScores) {
+            TopScores board = topScores.get(configFingerprint);
+            return board == null ? 0 : board.copyInto(out);
+        }
+    }
+
+    /**
+     * Best score for a configuration, 0 if nothing was recorded yet
+     */
+    public int getBestScore(int configFingerprint) {
+        RunRecord[] best = new RunRecord[1];
+        return getTopScores(configFingerprint, best) > 0 ? best[0].getScore() : 0;
+    }
+
+    /**
+     * True once the existing log has been scanned
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private TopScores boardFor(int configFingerprint) {
+        TopScores board = topScores.get(configFingerprint);
+        if (board == null) {
+            board = new TopScores(TOP_K);
+            topScores.put(configFingerprint, board);
+        }
+        return board;
+    }
+
+    // ===== Background thread only =====
+
+    private void load() {
+        try {
+            channel = new RandomAccessFile(file, "rw").getChannel();
+
+            // Drop a torn trailing record left by a crash mid-append
+            long size = channel.size() - channel.size() % RunRecord.SIZE;
+            channel.truncate(size);
+            recordCount = size / RunRecord.SIZE;
+
+            if (size > 0) {
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                rebuild(map, (int) recordCount);
+            }
+            channel.position(size);
+        } catch (IOException e) {
+            // History is best effort - keep the in-memory boards working without a log
+            channel = null;
+        }
+        loaded = true;
+    }
+
+    private void rebuild(ByteBuffer map, int count) {
+        synchronized (topScores) {
+            int lastFingerprint = 0;
+            TopScores board = null;
+            for (int i = 0; i < count; i++) {
+                int offset = i * RunRecord.SIZE;
+                int fingerprint = RunRecord.fingerprintAt(map, offset);
+                if (board == null || fingerprint != lastFingerprint) {
+                    board = boardFor(fingerprint);
+                    lastFingerprint = fingerprint;
+                }
+                // Only decode records that would actually enter the board
+                if (board.qualifies(RunRecord.scoreAt(map, offset))) {
+                    board.offer(RunRecord.readAt(map, offset));
+                }
+            }
+        }
+    }
+
+    private void write(RunRecord record) {
+        if (channel == null) {
+            return;
+        }
+        writeBuffer.clear();
+        record.writeTo(writeBuffer);
+        writeBuffer.flip();
+        try {
+            while (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer);
+            }
+            recordCount++;
+        } catch (IOException e) {
+            // Disk full or revoked storage - the run stays in the in-memory boards
+        }
+    }
+
+    /**
+     * Flush pending appends and release the file
+     */
+    public void close() {
+        ioExecutor.execute(() -> {
+            try {
+                if (channel != null) {
+                    channel.force(false);
+                    channel.close();
+                }
+            } catch (IOException ignored) {
+                // Nothing left to do on close
+            }
+        });
+        ioExecutor.shutdown();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ts.snakegame.storage;
+
+import com.ts.snakegame.logic.SnakeGameLogic;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One finished run as stored in the run history log
+ * Serialized as a fixed-size little-endian record so the log can be
+ * scanned by offset without any framing
+ */
+public class RunRecord {
+
+    /** Bytes per record on disk */
+    public static final int SIZE = 32;
+
+    private static final SnakeGameLogic.DeathCause[] CAUSES = SnakeGameLogic.DeathCause.values();
+
+    private final long timestamp;
+    private final int score;
+    private final int length;
+    private final long durationMillis;
+    private final int configFingerprint;
+    private final SnakeGameLogic.DeathCause deathCause;
+
+    public RunRecord(long timestamp, int score, int length, long durationMillis,
+                     int configFingerprint, SnakeGameLogic.DeathCause deathCause) {
+        this.timestamp = timestamp;
+        this.score = score;
+        this.length = length;
+        this.durationMillis = durationMillis;
+        this.configFingerprint = configFingerprint;
+        this.deathCause = deathCause;
+    }
+
+    /**
+     * Write exactly SIZE bytes at the buffer's position
+     */
+    void writeTo(ByteBuffer out) {
+        out.putLong(timestamp);
+        out.putInt(score);
+        out.putInt(length);
+        out.putLong(durationMillis);
+        out.putInt(configFingerprint);
+        out.put((byte) deathCause.ordinal());
+        out.put((byte) 0).put((byte) 0).put((byte) 0);
+    }
+
+    /**
+     * Read the record at an absolute offset without moving the buffer position
+     */
+    static RunRecord readAt(ByteBuffer in, int offset) {
+        int cause = in.get(offset + 28);
+        return new RunRecord(
+                in.getLong(offset),
+                in.getInt(offset + 8),
+                in.getInt(offset + 12),
+                in.getLong(offset + 16),
+                in.getInt(offset + 24),
+                cause >= 0 && cause < CAUSES.length ? CAUSES[cause] : SnakeGameLogic.DeathCause.NONE);
+    }
+
+    static int scoreAt(ByteBuffer in, int offset) {
+        return in.getInt(offset + 8);
+    }
+
+    static int fingerprintAt(ByteBuffer in, int offset) {
+        return in.getInt(offset + 24);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getConfigFingerprint() {
+        return configFingerprint;
+    }
+
+    public SnakeGameLogic.DeathCause getDeathCause() {
+        return deathCause;
+    }
+}
@@ -0,0 +1,222 @@
+package com.ts.snakegame.storage;
+
+import com.ts.snakegame.logic.RunStats;
+import com.ts.snakegame.model.FoodType;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Appends finished runs' statistics to a rotating NDJSON log (one JSON
+ * object per line)
+ * The caller's thread only copies the counters into a pooled snapshot and
+ * queues it. A single background thread formats everything queued since its
+ * last pass and writes it as one batch, so a burst of runs costs one write.
+ * When the log would pass MAX_BYTES it is rolled over to .1, .2, and the
+ * oldest file is dropped
+ */
+public class RunStatsWriter {
+
+    /** Size at which the current log is rolled over */
+    public static final long MAX_BYTES = 512 * 1024;
+
+    /** Rolled-over logs kept besides the current one */
+    public static final int MAX_BACKUPS = 2;
+
+    private static final String FILE_NAME = "run_stats.ndjson";
+    private static final int QUEUE_SIZE = 16;
+    private static final FoodType[] FOOD_TYPES = FoodType.values();
+
+    private static RunStatsWriter instance;
+
+    private final File directory;
+    private final ExecutorService ioExecutor;
+    private final ArrayBlockingQueue<Entry> pending = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final ArrayBlockingQueue<Entry> free = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile int dropped;
+
+    // Background thread only
+    private final StringBuilder line = new StringBuilder(1024);
+    private FileOutputStream out;
+    private long size;
+
+    /**
+     * One queued run
+     */
+    private static final class Entry {
+        final RunStats stats = new RunStats();
+        long timestamp;
+        int configFingerprint;
+    }
+
+    /**
+     * Get the process-wide writer, logging under the given directory
+     */
+    public static synchronized RunStatsWriter getInstance(File directory) {
+        if (instance == null) {
+            instance = new RunStatsWriter(directory);
+        }
+        return instance;
+    }
+
+    RunStatsWriter(File directory) {
+        this.directory = directory;
+        this.ioExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "run-stats-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            free.offer(new Entry());
+        }
+    }
+
+    /**
+     * Queue a finished run; returns immediately
+     * The counters are copied, so the engine may reset them right after.
+     * If the writer is QUEUE_SIZE runs behind the run is dropped and counted
+     */
+    public void submit(RunStats stats, long timestamp, int configFingerprint) {
+        Entry entry = free.poll();
+        if (entry == null) {
+            dropped++;
+            return;
+        }
+        entry.stats.copyFrom(stats);
+        entry.timestamp = timestamp;
+        entry.configFingerprint = configFingerprint;
+        pending.offer(entry);
+        if (flushScheduled.compareAndSet(false, true)) {
+            ioExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Runs that could not be queued because the writer fell behind
+     */
+    public int getDroppedCount() {
+        return dropped;
+    }
+
+    // ===== Background thread only =====
+
+    private void flush() {
+        // Clear the flag first: a run queued while writing schedules another pass
+        flushScheduled.set(false);
+        line.setLength(0);
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            appendJson(line, entry);
+            line.append('\n');
+            free.offer(entry);
+        }
+        if (line.length() == 0) {
+            return;
+        }
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (out == null) {
+                open();
+            }
+            if (size > 0 && size + bytes.length > MAX_BYTES) {
+                rotate();
+            }
+            out.write(bytes);
+            size += bytes.length;
+        } catch (IOException e) {
+            // Stats are best effort - drop this batch and reopen on the next one
+            closeQuietly();
+        }
+    }
+
+    private void open() throws IOException {
+        File file = new File(directory, FILE_NAME);
+        out = new FileOutputStream(file, true);
+        size = file.length();
+    }
+
+    private void rotate() throws IOException {
+        closeQuietly();
+        File oldest = backup(MAX_BACKUPS);
+        if (oldest.exists() && !oldest.delete()) {
+            throw new IOException("Cannot delete " + oldest);
+        }
+        for (int i = MAX_BACKUPS - 1; i >= 1; i--) {
+            File from = backup(i);
+            if (from.exists() && !from.renameTo(backup(i + 1))) {
+                throw new IOException("Cannot rotate " + from);
+            }
+        }
+        File current = new File(directory, FILE_NAME);
+        if (!current.renameTo(backup(1))) {
+            throw new IOException("Cannot rotate " + current);
+        }
+        open();
+    }
+
+    private File backup(int index) {
+        return new File(directory, FILE_NAME.replace(".ndjson", "." + index + ".ndjson"));
+    }
+
+    private void closeQuietly() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // Nothing left to do on close
+        }
+        out = null;
+    }
+
+    /**
+     * One run as a single-line JSON object; speeds are reported as ms of game time per tick length
+     */
+    static void appendJson(StringBuilder json, Entry entry) {
+        RunStats stats = entry.stats;
+        json.append("{\"timestamp\":").append(entry.timestamp)
+                .append(",\"config\":").append(entry.configFingerprint)
+                .append(",\"score\":").append(stats.getFinalScore())
+                .append(",\"length\":").append(stats.getFinalLength())
+                .append(",\"maxLength\":").append(stats.getMaxLength())
+                .append(",\"death\":\"").append(stats.getDeathCause().name()).append('"')
+                .append(",\"ticks\":").append(stats.getTicks())
+                .append(",\"gameMillis\":").append(stats.getGameMillis())
+                .append(",\"turns\":").append(stats.getTurns())
+                .append(",\"turnsPerMinute\":").append(Math.round(stats.getTurnsPerMinute() * 10) / 10f);
+
+        json.append(",\"foods\":{");
+        for (int i = 0; i < FOOD_TYPES.length; i++) {
+            if (i > 0) json.append(',');
+            json.append('"').append(FOOD_TYPES[i].name()).append("\":").append(stats.getFoodsEaten(FOOD_TYPES[i]));
+        }
+
+        json.append("},\"speedMillis\":{");
+        boolean first = true;
+        for (int speed = 0; speed <= RunStats.MAX_TRACKED_SPEED; speed++) {
+            int ticks = stats.getTicksAtSpeed(speed);
+            if (ticks == 0) continue;
+            if (!first) json.append(',');
+            json.append('"').append(speed).append("\":").append((long) ticks * speed);
+            first = false;
+        }
+        json.append("}}");
+    }
+
+    /**
+     * Write out everything queued and release the file
+     */
+    public void close() {
+        ioExecutor.execute(() -> {
+            flush();
+            closeQuietly();
+        });
+        ioExecutor.shutdown();
+    }
+}
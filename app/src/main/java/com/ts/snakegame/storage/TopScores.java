@@ -0,0 +1,43 @@
+package com.ts.snakegame.storage;
+
+/**
+ * Best K runs for one configuration, kept sorted by descending score
+ * A candidate below the current minimum is rejected with one comparison, so
+ * rebuilding from a large log is effectively linear; reading the board is a
+ * straight O(K) copy
+ */
+class TopScores {
+
+    private final RunRecord[] entries;
+    private int size;
+
+    TopScores(int capacity) {
+        this.entries = new RunRecord[capacity];
+    }
+
+    /**
+     * Cheap pre-check so callers can skip decoding records that cannot qualify
+     */
+    boolean qualifies(int score) {
+        return size < entries.length || score > entries[size - 1].getScore();
+    }
+
+    void offer(RunRecord record) {
+        if (!qualifies(record.getScore())) {
+            return;
+        }
+        // Insertion sort from the bottom; ties keep the earlier run first
+        int i = size < entries.length ? size++ : size - 1;
+        while (i > 0 && entries[i - 1].getScore() < record.getScore()) {
+            entries[i] = entries[i - 1];
+            i--;
+        }
+        entries[i] = record;
+    }
+
+    int copyInto(RunRecord[] out) {
+        int count = Math.min(size, out.length);
+        System.arraycopy(entries, 0, out, 0, count);
+        return count;
+    }
+}
@@ -0,0 +1,263 @@
+package com.ts.snakegame.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Rebuilds the board on the consumer side from a DeltaEncoder stream
+ * Holds everything in primitive arrays; deltas received before the first
+ * keyframe are ignored
+ */
+public class BoardReplica {
+
+    /** Value stored in the item grids for an empty cell */
+    public static final byte NONE = -1;
+
+    private int width;
+    private int height;
+    private long tick = -1;
+    private int score;
+    private int speed;
+    private int direction;
+    private boolean gameOver;
+    private boolean synced;
+
+    // Snake body as a ring buffer, index 0 = head
+    private int[] body = new int[64];
+    private int bodyStart;
+    private int bodyLength;
+
+    private byte[] foodGrid = new byte[0];
+    private byte[] obstacleGrid = new byte[0];
+    private byte[] wallGrid = new byte[0];
+    private int foodCount;
+    private int obstacleCount;
+    private int wallCount;
+
+    /**
+     * Apply one frame (between position and limit)
+     * @return false if the frame was skipped because no keyframe has been seen yet
+     */
+    public boolean apply(ByteBuffer frame) {
+        byte kind = frame.get();
+        if (kind == DeltaFormat.FRAME_KEY) {
+            applyKeyframe(frame);
+            return true;
+        }
+        if (kind != DeltaFormat.FRAME_DELTA) {
+            throw new IllegalArgumentException("Unknown frame kind " + kind);
+        }
+        long frameTick = frame.getLong();
+        if (!synced) {
+            return false;
+        }
+        tick = frameTick;
+        applyOps(frame);
+        return true;
+    }
+
+    private void applyKeyframe(ByteBuffer frame) {
+        tick = frame.getLong();
+        int newWidth = frame.getInt();
+        int newHeight = frame.getInt();
+        if (newWidth * newHeight != foodGrid.length) {
+            foodGrid = new byte[newWidth * newHeight];
+            obstacleGrid = new byte[newWidth * newHeight];
+            wallGrid = new byte[newWidth * newHeight];
+        }
+        width = newWidth;
+        height = newHeight;
+        Arrays.fill(foodGrid, NONE);
+        Arrays.fill(obstacleGrid, NONE);
+        Arrays.fill(wallGrid, NONE);
+
+        score = frame.getInt();
+        speed = frame.getInt();
+        direction = frame.get();
+        gameOver = frame.get() != 0;
+
+        int length = frame.getInt();
+        bodyStart = 0;
+        bodyLength = 0;
+        ensureBodyCapacity(length);
+        for (int i = 0; i < length; i++) {
+            body[i] = frame.getInt();
+        }
+        bodyLength = length;
+
+        foodCount = frame.getInt();
+        for (int i = 0; i < foodCount; i++) {
+            int cell = frame.getInt();
+            foodGrid[cell] = frame.get();
+        }
+        obstacleCount = frame.getInt();
+        for (int i = 0; i < obstacleCount; i++) {
+            int cell = frame.getInt();
+            obstacleGrid[cell] = frame.get();
+        }
+        wallCount = frame.getInt();
+        for (int i = 0; i < wallCount; i++) {
+            int cell = frame.getInt();
+            wallGrid[cell] = frame.get();
+        }
+        synced = true;
+    }
+
+    private void applyOps(ByteBuffer frame) {
+        while (true) {
+            byte op = frame.get();
+            switch (op) {
+                case DeltaFormat.OP_END:
+                    return;
+                case DeltaFormat.OP_HEAD:
+                    pushHead(frame.getInt());
+                    break;
+                case DeltaFormat.OP_TAIL_POP:
+                    bodyLength--;
+                    break;
+                case DeltaFormat.OP_TAIL_DUP:
+                    appendTail(getSnakeCell(bodyLength - 1));
+                    break;
+                case DeltaFormat.OP_FOOD_ADD: {
+                    int cell = frame.getInt();
+                    foodGrid[cell] = frame.get();
+                    foodCount++;
+                    break;
+                }
+                case DeltaFormat.OP_FOOD_REMOVE:
+                    foodGrid[frame.getInt()] = NONE;
+                    foodCount--;
+                    break;
+                case DeltaFormat.OP_OBSTACLE_ADD: {
+                    int cell = frame.getInt();
+                    obstacleGrid[cell] = frame.get();
+                    obstacleCount++;
+                    break;
+                }
+                case DeltaFormat.OP_OBSTACLE_REMOVE:
+                    obstacleGrid[frame.getInt()] = NONE;
+                    obstacleCount--;
+                    break;
+                case DeltaFormat.OP_SCORE:
+                    score = frame.getInt();
+                    break;
+                case DeltaFormat.OP_SPEED:
+                    speed = frame.getInt();
+                    break;
+                case DeltaFormat.OP_DIRECTION:
+                    direction = frame.get();
+                    break;
+                case DeltaFormat.OP_GAME_OVER:
+                    gameOver = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown op " + op);
+            }
+        }
+    }
+
+    private void pushHead(int cell) {
+        ensureBodyCapacity(bodyLength + 1);
+        bodyStart = (bodyStart - 1 + body.length) % body.length;
+        body[bodyStart] = cell;
+        bodyLength++;
+    }
+
+    private void appendTail(int cell) {
+        ensureBodyCapacity(bodyLength + 1);
+        body[(bodyStart + bodyLength) % body.length] = cell;
+        bodyLength++;
+    }
+
+    private void ensureBodyCapacity(int capacity) {
+        if (capacity <= body.length) return;
+        int[] grown = new int[Math.max(capacity, body.length * 2)];
+        for (int i = 0; i < bodyLength; i++) {
+            grown[i] = body[(bodyStart + i) % body.length];
+        }
+        body = grown;
+        bodyStart = 0;
+    }
+
+    // ===== Getters =====
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @return Direction ordinal (see SnakeGameLogic.Direction)
+     */
+    public int getDirection() {
+        return direction;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getSnakeLength() {
+        return bodyLength;
+    }
+
+    /**
+     * @param index 0 = head
+     * @return Cell as y * width + x
+     */
+    public int getSnakeCell(int index) {
+        return body[(bodyStart + index) % body.length];
+    }
+
+    /**
+     * @return FoodType ordinal at the cell, or NONE
+     */
+    public byte getFoodAt(int cell) {
+        return foodGrid[cell];
+    }
+
+    /**
+     * @return ObstacleType ordinal at the cell, or NONE
+     */
+    public byte getObstacleAt(int cell) {
+        return obstacleGrid[cell];
+    }
+
+    /**
+     * @return ObstacleType ordinal of the level wall at the cell, or NONE
+     */
+    public byte getWallAt(int cell) {
+        return wallGrid[cell];
+    }
+
+    public int getFoodCount() {
+        return foodCount;
+    }
+
+    public int getObstacleCount() {
+        return obstacleCount;
+    }
+
+    public int getWallCount() {
+        return wallCount;
+    }
+}
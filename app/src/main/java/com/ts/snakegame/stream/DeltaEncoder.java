@@ -0,0 +1,279 @@
+package com.ts.snakegame.stream;
+
+import android.graphics.Point;
+
+import com.ts.snakegame.level.Level;
+import com.ts.snakegame.logic.BoardChangeListener;
+import com.ts.snakegame.logic.SnakeGameLogic;
+import com.ts.snakegame.model.FoodType;
+import com.ts.snakegame.model.ItemStore;
+import com.ts.snakegame.model.ObstacleType;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Turns engine board changes into a compact per-tick delta stream
+ * Ops are appended into one reusable buffer as the engine reports them; a
+ * keyframe is emitted every keyframeInterval ticks (and after resets or
+ * overflow) so consumers can join mid-stream
+ */
+public class DeltaEncoder implements BoardChangeListener {
+
+    /**
+     * Receiver of finished frames
+     */
+    public interface FrameSink {
+        /**
+         * @param frame Frame between position and limit, valid only during the call
+         */
+        void onFrame(ByteBuffer frame);
+    }
+
+    private final SnakeGameLogic logic;
+    private final ByteBuffer buffer;
+    private final int keyframeInterval;
+    private int width;
+    private FrameSink sink;
+
+    private boolean keyframePending = true;
+    private boolean overflowed;
+    private long completedTick;
+    private int lastScore;
+    private int lastSpeed;
+    private int lastDirection;
+    private boolean lastGameOver;
+
+    /**
+     * @param logic Engine to observe; the encoder registers itself
+     * @param capacity Size of the reusable frame buffer in bytes
+     * @param keyframeInterval Ticks between forced keyframes
+     */
+    public DeltaEncoder(SnakeGameLogic logic, int capacity, int keyframeInterval) {
+        this.logic = logic;
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.keyframeInterval = keyframeInterval;
+        this.width = logic.getGridWidth();
+        this.completedTick = logic.getTick();
+        startDelta(logic.getTick());
+        logic.addBoardChangeListener(this);
+    }
+
+    public void setFrameSink(FrameSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Force the next completed tick to be sent as a keyframe (e.g. a spectator joined)
+     */
+    public void requestKeyframe() {
+        keyframePending = true;
+    }
+
+    public void detach() {
+        logic.removeBoardChangeListener(this);
+    }
+
+    // ===== BoardChangeListener =====
+
+    @Override
+    public void onBoardReset() {
+        // The board may have been resized
+        width = logic.getGridWidth();
+        if (logic.getTick() > completedTick) {
+            // Mid-tick (teleport): the tick's own frame becomes the keyframe, so
+            // tick numbers stay one frame per tick
+            keyframePending = true;
+            return;
+        }
+        // Reset or rewind: the board now stands at the end of the current tick
+        completedTick = logic.getTick();
+        writeKeyframe(completedTick);
+        emit();
+        startDelta(completedTick + 1);
+    }
+
+    @Override
+    public void onHeadAdded(int x, int y) {
+        putOp(DeltaFormat.OP_HEAD, y * width + x);
+    }
+
+    @Override
+    public void onTailRemoved(int x, int y) {
+        putOp(DeltaFormat.OP_TAIL_POP);
+    }
+
+    @Override
+    public void onTailDuplicated(int x, int y) {
+        putOp(DeltaFormat.OP_TAIL_DUP);
+    }
+
+    @Override
+    public void onFoodSpawned(int x, int y, FoodType type) {
+        putOp(DeltaFormat.OP_FOOD_ADD, y * width + x, type.ordinal());
+    }
+
+    @Override
+    public void onFoodRemoved(int x, int y, FoodType type) {
+        putOp(DeltaFormat.OP_FOOD_REMOVE, y * width + x);
+    }
+
+    @Override
+    public void onObstacleSpawned(int x, int y, ObstacleType type) {
+        putOp(DeltaFormat.OP_OBSTACLE_ADD, y * width + x, type.ordinal());
+    }
+
+    @Override
+    public void onObstacleRemoved(int x, int y, ObstacleType type) {
+        putOp(DeltaFormat.OP_OBSTACLE_REMOVE, y * width + x);
+    }
+
+    @Override
+    public void onTickCompleted(long tick) {
+        completedTick = tick;
+        if (keyframePending || overflowed || tick % keyframeInterval == 0) {
+            writeKeyframe(tick);
+        } else {
+            finishDelta();
+        }
+        emit();
+        startDelta(tick + 1);
+    }
+
+    // ===== Encoding =====
+
+    private void emit() {
+        if (sink != null && !overflowed) {
+            buffer.flip();
+            sink.onFrame(buffer);
+        }
+    }
+
+    private void startDelta(long tick) {
+        buffer.clear();
+        overflowed = false;
+        buffer.put(DeltaFormat.FRAME_DELTA).putLong(tick);
+    }
+
+    private void putOp(byte op) {
+        if (overflowed) return;
+        try {
+            buffer.put(op);
+        } catch (BufferOverflowException e) {
+            overflowed = true;
+        }
+    }
+
+    private void putOp(byte op, int cell) {
+        if (overflowed) return;
+        try {
+            buffer.put(op).putInt(cell);
+        } catch (BufferOverflowException e) {
+            overflowed = true;
+        }
+    }
+
+    private void putOp(byte op, int cell, int type) {
+        if (overflowed) return;
+        try {
+            buffer.put(op).putInt(cell).put((byte) type);
+        } catch (BufferOverflowException e) {
+            overflowed = true;
+        }
+    }
+
+    private void finishDelta() {
+        int score = logic.getScore();
+        int speed = logic.getCurrentSpeed();
+        int direction = logic.getDirection().ordinal();
+        boolean gameOver = logic.isGameOver();
+
+        if (score != lastScore) putOp(DeltaFormat.OP_SCORE, score);
+        if (speed != lastSpeed) putOp(DeltaFormat.OP_SPEED, speed);
+        if (direction != lastDirection) {
+            putOp(DeltaFormat.OP_DIRECTION);
+            putOp((byte) direction);
+        }
+        if (gameOver && !lastGameOver) putOp(DeltaFormat.OP_GAME_OVER);
+        putOp(DeltaFormat.OP_END);
+
+        lastScore = score;
+        lastSpeed = speed;
+        lastDirection = direction;
+        lastGameOver = gameOver;
+        if (overflowed) {
+            writeKeyframe(logic.getTick());
+        }
+    }
+
+    /**
+     * Replace the pending ops with a full snapshot of the board
+     */
+    private void writeKeyframe(long tick) {
+        int length = logic.getSnakeLength();
+        ItemStore foods = logic.getFoodStore();
+        ItemStore obstacles = logic.getObstacleStore();
+
+        buffer.clear();
+        overflowed = false;
+        try {
+            buffer.put(DeltaFormat.FRAME_KEY).putLong(tick);
+            buffer.putInt(width).putInt(logic.getGridHeight());
+            buffer.putInt(logic.getScore()).putInt(logic.getCurrentSpeed());
+            buffer.put((byte) logic.getDirection().ordinal());
+            buffer.put((byte) (logic.isGameOver() ? 1 : 0));
+
+            buffer.putInt(length);
+            for (int i = 0; i < length; i++) {
+                Point p = logic.getSnakeSegment(i);
+                buffer.putInt(p.y * width + p.x);
+            }
+            buffer.putInt(foods.size());
+            for (int i = 0; i < foods.size(); i++) {
+                buffer.putInt(foods.cellAt(i)).put((byte) foods.typeAt(i));
+            }
+            buffer.putInt(obstacles.size());
+            for (int i = 0; i < obstacles.size(); i++) {
+                buffer.putInt(obstacles.cellAt(i)).put((byte) obstacles.typeAt(i));
+            }
+            writeWalls();
+        } catch (BufferOverflowException e) {
+            // Board does not fit at all - nothing sensible can be sent
+            overflowed = true;
+            return;
+        }
+
+        lastScore = logic.getScore();
+        lastSpeed = logic.getCurrentSpeed();
+        lastDirection = logic.getDirection().ordinal();
+        lastGameOver = logic.isGameOver();
+        keyframePending = false;
+    }
+
+    /**
+     * Level walls as a count and cell/type pairs (count 0 on an open board)
+     */
+    private void writeWalls() {
+        Level level = logic.getLevel();
+        int countPosition = buffer.position();
+        buffer.putInt(0);
+        if (level == null) {
+            return;
+        }
+        int count = 0;
+        int cells = level.getWidth() * level.getHeight();
+        int words = level.getWallWordCount();
+        for (int w = 0; w < words; w++) {
+            long bits = level.getWallWord(w);
+            while (bits != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (cell < cells) {
+                    buffer.putInt(cell).put((byte) level.getWallType(cell));
+                    count++;
+                }
+            }
+        }
+        buffer.putInt(countPosition, count);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ts.snakegame.stream;
+
+/**
+ * Byte layout of the per-tick state stream
+ *
+ * Keyframe: [FRAME_KEY][long tick][int width][int height][int score][int speed]
+ *           [byte direction][byte gameOver][int snakeLength][int cell...]
+ *           [int foodCount][int cell, byte type...][int obstacleCount][int cell, byte type...]
+ *           [int wallCount][int cell, byte type...]
+ * Delta:    [FRAME_DELTA][long tick][op...][OP_END]
+ *
+ * Cells are encoded as y * width + x. Score, speed and direction ops are only
+ * written when the value changed during the tick. Walls come from the loaded
+ * level and never change between keyframes, so deltas carry no wall ops.
+ */
+public final class DeltaFormat {
+
+    public static final byte FRAME_KEY = 'K';
+    public static final byte FRAME_DELTA = 'D';
+
+    /** End of delta ops */
+    public static final byte OP_END = 0;
+
+    /** Push head: [int cell] */
+    public static final byte OP_HEAD = 1;
+
+    /** Drop the last segment, no payload */
+    public static final byte OP_TAIL_POP = 2;
+
+    /** Duplicate the last segment (growth), no payload */
+    public static final byte OP_TAIL_DUP = 3;
+
+    /** Food spawned: [int cell][byte type] */
+    public static final byte OP_FOOD_ADD = 4;
+
+    /** Food consumed: [int cell] */
+    public static final byte OP_FOOD_REMOVE = 5;
+
+    /** Obstacle spawned: [int cell][byte type] */
+    public static final byte OP_OBSTACLE_ADD = 6;
+
+    /** Score changed: [int score] */
+    public static final byte OP_SCORE = 7;
+
+    /** Speed changed: [int speed] */
+    public static final byte OP_SPEED = 8;
+
+    /** Direction changed: [byte direction] */
+    public static final byte OP_DIRECTION = 9;
+
+    /** Game over reached, no payload */
+    public static final byte OP_GAME_OVER = 10;
+
+    /** Obstacle despawned: [int cell] */
+    public static final byte OP_OBSTACLE_REMOVE = 11;
+
+    private DeltaFormat() {}
+}
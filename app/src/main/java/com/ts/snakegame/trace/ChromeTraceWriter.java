@@ -0,0 +1,295 @@
+package com.ts.snakegame.trace;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records sections as Chrome trace-event JSON (chrome://tracing, Perfetto UI)
+ * Each recording thread appends to its own preallocated primitive chunk
+ * without locking; full chunks are handed to a background thread that formats
+ * and writes them. If the writer falls behind, whole spans are dropped (and
+ * counted) rather than blocking the tick, so every written B has its E
+ */
+public class ChromeTraceWriter implements TraceSink, AutoCloseable {
+
+    private static final int CHUNK_EVENTS = 16384;
+    private static final int CHUNK_COUNT = 16;
+    private static final int OUT_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_EVENT_BYTES = 160;
+    private static final int PHASE_BEGIN = 0;
+    private static final int PHASE_END = 1;
+
+    /** Primitive event storage handed between recorder and writer, one thread per chunk */
+    private static final class Chunk {
+        final long[] timestamps = new long[CHUNK_EVENTS];
+        final int[] codes = new int[CHUNK_EVENTS];
+        long threadId;
+        int size;
+    }
+
+    /** Recording state of one thread, only touched by that thread (and close()) */
+    private static final class Recorder {
+        final long threadId = Thread.currentThread().getId();
+        final AtomicReference<Chunk> chunk = new AtomicReference<>();
+        // Written spans still open; each keeps one slot reserved for its end
+        int openSpans;
+        // Nesting depth inside a dropped span, whose events are all skipped
+        int skippedDepth;
+    }
+
+    private static final Chunk END_OF_STREAM = new Chunk();
+
+    private final OutputStream out;
+    private final byte[] outBuffer = new byte[OUT_BUFFER_SIZE];
+    private int outSize;
+    // Pre-encoded '{"name":...,"ph":"B","ts":' per section and phase
+    private final byte[][] prefixes = new byte[Tracer.sectionCount() * 2][];
+    private final long originNanos = System.nanoTime();
+    private final ConcurrentLinkedQueue<Chunk> freeChunks = new ConcurrentLinkedQueue<>();
+    private final BlockingQueue<Chunk> fullChunks = new ArrayBlockingQueue<>(CHUNK_COUNT + 1);
+    private final ConcurrentLinkedQueue<Recorder> allRecorders = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Recorder> recorders = ThreadLocal.withInitial(this::newRecorder);
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writerThread;
+
+    private boolean firstEvent = true;
+    private volatile boolean closed;
+
+    /**
+     * @param file Trace output, overwritten
+     */
+    public ChromeTraceWriter(File file) throws IOException {
+        out = new FileOutputStream(file);
+        for (int section = 0; section < Tracer.sectionCount(); section++) {
+            for (int phase = PHASE_BEGIN; phase <= PHASE_END; phase++) {
+                prefixes[section << 1 | phase] = ("{\"name\":\"" + Tracer.nameOf(section)
+                        + "\",\"cat\":\"snake\",\"ph\":\"" + (phase == PHASE_BEGIN ? 'B' : 'E')
+                        + "\",\"pid\":1,\"ts\":").getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+        writeAscii("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            freeChunks.add(new Chunk());
+        }
+        writerThread = new Thread(this::drain, "trace-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Open a writer, or return null (after reporting) if the file can't be created
+     */
+    public static ChromeTraceWriter open(File file) {
+        try {
+            return new ChromeTraceWriter(file);
+        } catch (IOException e) {
+            System.err.println("Tracing disabled, cannot write " + file + ": " + e);
+            return null;
+        }
+    }
+
+    @Override
+    public void begin(int section) {
+        if (closed) {
+            return;
+        }
+        Recorder recorder = recorders.get();
+        if (recorder.skippedDepth > 0) {
+            recorder.skippedDepth++;
+            dropped.increment();
+            return;
+        }
+        Chunk chunk = recorder.chunk.get();
+        // Room for this begin, its end and the end of every span still open
+        if (chunk == null || chunk.size + recorder.openSpans + 2 > CHUNK_EVENTS) {
+            chunk = swapChunk(recorder, chunk);
+            if (chunk == null) {
+                // Drop the whole span; the ends already reserved still fit
+                recorder.skippedDepth = 1;
+                dropped.increment();
+                return;
+            }
+        }
+        put(chunk, section << 1 | PHASE_BEGIN);
+        recorder.openSpans++;
+    }
+
+    @Override
+    public void end(int section) {
+        Recorder recorder = recorders.get();
+        if (recorder.skippedDepth > 0) {
+            recorder.skippedDepth--;
+            dropped.increment();
+            return;
+        }
+        if (recorder.openSpans == 0) {
+            // Span began before this writer was installed
+            return;
+        }
+        recorder.openSpans--;
+        Chunk chunk = recorder.chunk.get();
+        if (chunk != null && !closed) {
+            put(chunk, section << 1 | PHASE_END);
+        }
+    }
+
+    private Recorder newRecorder() {
+        Recorder recorder = new Recorder();
+        allRecorders.add(recorder);
+        return recorder;
+    }
+
+    /**
+     * Hand a thread's chunk to the writer and continue in a free one
+     * @return The new chunk, or null (old chunk kept) if none is free or close() took it
+     */
+    private Chunk swapChunk(Recorder recorder, Chunk full) {
+        Chunk fresh = freeChunks.poll();
+        if (fresh == null) {
+            return null;
+        }
+        fresh.threadId = recorder.threadId;
+        if (!recorder.chunk.compareAndSet(full, fresh)) {
+            freeChunks.add(fresh);
+            return null;
+        }
+        if (full != null) {
+            fullChunks.add(full);
+        }
+        return fresh;
+    }
+
+    private static void put(Chunk chunk, int code) {
+        int i = chunk.size;
+        chunk.timestamps[i] = System.nanoTime();
+        chunk.codes[i] = code;
+        chunk.size = i + 1;
+    }
+
+    /**
+     * Writer thread: format full chunks until the end-of-stream marker
+     */
+    private void drain() {
+        try {
+            while (true) {
+                Chunk chunk = fullChunks.take();
+                if (chunk == END_OF_STREAM) {
+                    break;
+                }
+                writeChunk(chunk);
+                chunk.size = 0;
+                freeChunks.add(chunk);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Trace writer failed: " + e);
+        }
+    }
+
+    private void writeChunk(Chunk chunk) throws IOException {
+        for (int i = 0; i < chunk.size; i++) {
+            if (outSize + MAX_EVENT_BYTES > OUT_BUFFER_SIZE) {
+                flushBuffer();
+            }
+            if (!firstEvent) {
+                outBuffer[outSize++] = ',';
+                outBuffer[outSize++] = '\n';
+            }
+            firstEvent = false;
+            byte[] prefix = prefixes[chunk.codes[i]];
+            System.arraycopy(prefix, 0, outBuffer, outSize, prefix.length);
+            outSize += prefix.length;
+            // Microseconds with nanosecond precision
+            long nanos = chunk.timestamps[i] - originNanos;
+            putLong(nanos / 1000);
+            outBuffer[outSize++] = '.';
+            long fraction = nanos % 1000;
+            outBuffer[outSize++] = (byte) ('0' + fraction / 100);
+            outBuffer[outSize++] = (byte) ('0' + fraction / 10 % 10);
+            outBuffer[outSize++] = (byte) ('0' + fraction % 10);
+            putAscii(",\"tid\":");
+            putLong(chunk.threadId);
+            outBuffer[outSize++] = '}';
+        }
+    }
+
+    private void putLong(long value) {
+        if (value == 0) {
+            outBuffer[outSize++] = '0';
+            return;
+        }
+        int start = outSize;
+        while (value > 0) {
+            outBuffer[outSize++] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        for (int a = start, b = outSize - 1; a < b; a++, b--) {
+            byte t = outBuffer[a];
+            outBuffer[a] = outBuffer[b];
+            outBuffer[b] = t;
+        }
+    }
+
+    private void putAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            outBuffer[outSize++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void writeAscii(String text) throws IOException {
+        flushBuffer();
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(outBuffer, 0, outSize);
+        outSize = 0;
+    }
+
+    /**
+     * Number of events lost because the writer could not keep up
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Flush remaining events and finish the JSON document
+     * An event being recorded on another thread at this moment may be lost
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        Tracer.uninstallIf(this);
+        for (Recorder recorder : allRecorders) {
+            Chunk chunk = recorder.chunk.getAndSet(null);
+            if (chunk != null && chunk.size > 0) {
+                fullChunks.add(chunk);
+            }
+        }
+        fullChunks.add(END_OF_STREAM);
+        try {
+            writerThread.join();
+            writeAscii("\n],\"otherData\":{\"droppedEvents\":\"" + getDroppedCount() + "\"}}\n");
+            out.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Trace writer failed to close: " + e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ts.snakegame.trace;
+
+import android.os.Trace;
+
+/**
+ * Forwards sections to android.os.Trace so they show up in Perfetto / systrace
+ * (no-op on the platform side unless a capture is running)
+ */
+public class SystemTraceSink implements TraceSink {
+
+    @Override
+    public void begin(int section) {
+        Trace.beginSection(Tracer.nameOf(section));
+    }
+
+    @Override
+    public void end(int section) {
+        Trace.endSection();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ts.snakegame.trace;
+
+/**
+ * Destination for trace sections recorded through Tracer
+ * Calls are strictly nested per thread; implementations must not allocate
+ */
+public interface TraceSink {
+    void begin(int section);
+    void end(int section);
+}
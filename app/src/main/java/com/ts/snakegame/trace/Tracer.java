@@ -0,0 +1,101 @@
+package com.ts.snakegame.trace;
+
+import java.io.File;
+
+/**
+ * Scoped trace sections around tick and frame phases
+ * Call sites guard with the static flag so disabled tracing costs one branch:
+ *
+ *     if (Tracer.enabled) Tracer.begin(Tracer.TICK_MOVE);
+ *
+ * On device a SystemTraceSink forwards to android.os.Trace; headless runs
+ * started with -Dsnake.trace=&lt;file&gt; record a Chrome trace-event JSON file
+ */
+public final class Tracer {
+
+    // ===== Sections =====
+    public static final int TICK = 0;
+    public static final int TICK_MOVE = 1;
+    public static final int TICK_COLLISIONS = 2;
+    public static final int TICK_CONSUME = 3;
+    public static final int TICK_SPAWN = 4;
+    public static final int FRAME = 5;
+    public static final int FRAME_BACKGROUND = 6;
+    public static final int FRAME_SNAKE = 7;
+    public static final int FRAME_ITEMS = 8;
+    public static final int FRAME_OVERLAYS = 9;
+
+    private static final String[] NAMES = {
+        "tick", "tick.move", "tick.collisions", "tick.consume", "tick.spawn",
+        "frame", "frame.background", "frame.snake", "frame.items", "frame.overlays"
+    };
+
+    /** System property naming the trace file for headless runs */
+    public static final String TRACE_FILE_PROPERTY = "snake.trace";
+
+    /** True while a sink is installed; the only thing checked when tracing is off */
+    public static volatile boolean enabled;
+
+    private static volatile TraceSink sink;
+
+    static {
+        String file = System.getProperty(TRACE_FILE_PROPERTY);
+        if (file != null && !file.isEmpty()) {
+            ChromeTraceWriter writer = ChromeTraceWriter.open(new File(file));
+            if (writer != null) {
+                install(writer);
+                Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "trace-close"));
+            }
+        }
+    }
+
+    private Tracer() {
+    }
+
+    /**
+     * Route sections to a sink and turn tracing on
+     */
+    public static synchronized void install(TraceSink traceSink) {
+        sink = traceSink;
+        enabled = traceSink != null;
+    }
+
+    /**
+     * Turn tracing off; sections already open on other threads are not closed
+     */
+    public static synchronized void uninstall() {
+        enabled = false;
+        sink = null;
+    }
+
+    /**
+     * Uninstall only if this sink is the current one
+     */
+    static synchronized void uninstallIf(TraceSink traceSink) {
+        if (sink == traceSink) {
+            uninstall();
+        }
+    }
+
+    public static void begin(int section) {
+        TraceSink current = sink;
+        if (current != null) {
+            current.begin(section);
+        }
+    }
+
+    public static void end(int section) {
+        TraceSink current = sink;
+        if (current != null) {
+            current.end(section);
+        }
+    }
+
+    public static String nameOf(int section) {
+        return NAMES[section];
+    }
+
+    public static int sectionCount() {
+        return NAMES.length;
+    }
+}
@@ -0,0 +1,338 @@
+package com.ts.snakegame;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.view.View;
+
+import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.logic.SnakeGameLogic;
+import com.ts.snakegame.model.FoodType;
+import com.ts.snakegame.model.ObstacleType;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JVM benchmark for GameView.onDraw over synthetic board states
+ * Runs under Robolectric with native graphics, so no emulator is needed.
+ * Reports per-frame time, draw calls and bytes allocated per frame, and
+ * writes build/reports/render-benchmark.csv for CI trend tracking.
+ *
+ * ./gradlew testDebugUnitTest -PrenderBenchmark --tests com.ts.snakegame.GameViewRenderBenchmark
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class GameViewRenderBenchmark {
+
+    private static final int WARM_UP_FRAMES = 5;
+    private static final int MEASURED_FRAMES = Integer.getInteger("renderBenchmark.frames", 30);
+
+    private enum Overlay { NONE, PAUSE, GAME_OVER }
+
+    private enum Items { NONE, LIMITS, DENSE }
+
+    /** One synthetic board state */
+    private static final class Scenario {
+        final int gridWidth;
+        final int gridHeight;
+        final int snakeLength;
+        final Items items;
+        final Overlay overlay;
+        final boolean smooth;
+
+        Scenario(int gridWidth, int gridHeight, int snakeLength, Items items, Overlay overlay, boolean smooth) {
+            this.gridWidth = gridWidth;
+            this.gridHeight = gridHeight;
+            this.snakeLength = snakeLength;
+            this.items = items;
+            this.overlay = overlay;
+            this.smooth = smooth;
+        }
+
+        String name() {
+            return gridWidth + "x" + gridHeight + " len=" + snakeLength + " items=" + items
+                    + " overlay=" + overlay + (smooth ? " smooth" : " sprites");
+        }
+    }
+
+    @Test
+    public void renderSyntheticStates() throws IOException {
+        Assume.assumeTrue("Pass -PrenderBenchmark to run", Boolean.getBoolean("renderBenchmark"));
+
+        Context context = RuntimeEnvironment.getApplication();
+        awaitGraphics(context);
+        // Every scenario is measured at full quality, whatever the host's draw times
+        GameConfig.getInstance().adaptiveQuality = false;
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int size : new int[]{40, 100, 200}) {
+            for (int length : new int[]{3, 1000, 10000}) {
+                if (length * 2 > size * size) continue;
+                for (boolean smooth : new boolean[]{true, false}) {
+                    scenarios.add(new Scenario(size, size, length, Items.LIMITS, Overlay.NONE, smooth));
+                }
+            }
+            scenarios.add(new Scenario(size, size, 3, Items.DENSE, Overlay.NONE, true));
+            scenarios.add(new Scenario(size, size, 3, Items.LIMITS, Overlay.PAUSE, true));
+            scenarios.add(new Scenario(size, size, 3, Items.LIMITS, Overlay.GAME_OVER, true));
+        }
+
+        File report = new File("build/reports/render-benchmark.csv");
+        report.getParentFile().mkdirs();
+        try (PrintWriter csv = new PrintWriter(new FileWriter(report))) {
+            csv.println("scenario,mean_us,p50_us,p95_us,max_us,draw_calls,bytes_per_frame");
+            System.out.printf("%-52s %9s %9s %9s %9s %7s %10s%n",
+                    "scenario", "mean us", "p50 us", "p95 us", "max us", "calls", "bytes/fr");
+            for (Scenario scenario : scenarios) {
+                Result result = run(context, scenario);
+                System.out.printf("%-52s %9d %9d %9d %9d %7d %10d%n", scenario.name(),
+                        result.meanMicros, result.p50Micros, result.p95Micros, result.maxMicros,
+                        result.drawCalls, result.bytesPerFrame);
+                csv.printf("%s,%d,%d,%d,%d,%d,%d%n", scenario.name(),
+                        result.meanMicros, result.p50Micros, result.p95Micros, result.maxMicros,
+                        result.drawCalls, result.bytesPerFrame);
+                assertTrue(scenario.name() + " drew nothing", result.drawCalls > 0);
+            }
+        }
+    }
+
+    /** Measurements for one scenario */
+    private static final class Result {
+        long meanMicros;
+        long p50Micros;
+        long p95Micros;
+        long maxMicros;
+        long drawCalls;
+        long bytesPerFrame;
+    }
+
+    private Result run(Context context, Scenario scenario) {
+        int widthPx = scenario.gridWidth * GameConfig.GRID_SIZE;
+        int heightPx = scenario.gridHeight * GameConfig.GRID_SIZE;
+        GameView view = new GameView(context);
+        view.measure(View.MeasureSpec.makeMeasureSpec(widthPx, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(heightPx, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, widthPx, heightPx);
+        view.setSmoothRendering(scenario.smooth);
+        buildState(view.getGameLogic(), scenario);
+        // onDraw renders the published snapshot, not the engine
+        view.publishFrame();
+        view.setPaused(scenario.overlay == Overlay.PAUSE);
+
+        Bitmap target = Bitmap.createBitmap(widthPx, heightPx, Bitmap.Config.ARGB_8888);
+        CountingCanvas canvas = new CountingCanvas(target);
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            view.onDraw(canvas);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] frameNanos = new long[MEASURED_FRAMES];
+        canvas.calls = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            long start = System.nanoTime();
+            view.onDraw(canvas);
+            frameNanos[i] = System.nanoTime() - start;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        target.recycle();
+
+        Arrays.sort(frameNanos);
+        long total = 0;
+        for (long nanos : frameNanos) {
+            total += nanos;
+        }
+        Result result = new Result();
+        result.meanMicros = total / MEASURED_FRAMES / 1000;
+        result.p50Micros = frameNanos[MEASURED_FRAMES / 2] / 1000;
+        result.p95Micros = frameNanos[Math.min(MEASURED_FRAMES - 1, MEASURED_FRAMES * 95 / 100)] / 1000;
+        result.maxMicros = frameNanos[MEASURED_FRAMES - 1] / 1000;
+        result.drawCalls = canvas.calls / MEASURED_FRAMES;
+        result.bytesPerFrame = allocated / MEASURED_FRAMES;
+        return result;
+    }
+
+    /**
+     * Lay the snake out as a serpentine from the top-left corner and add items
+     */
+    private static void buildState(SnakeGameLogic logic, Scenario scenario) {
+        int width = scenario.gridWidth;
+        int length = scenario.snakeLength;
+        int[] cells = new int[length];
+        for (int i = 0; i < length; i++) {
+            // i-th cell from the tail; the head is the last one laid
+            int row = i / width;
+            int column = (row & 1) == 0 ? i % width : width - 1 - i % width;
+            cells[length - 1 - i] = row * width + column;
+        }
+        int headRow = (length - 1) / width;
+        SnakeGameLogic.Direction heading = length == 1 || (headRow & 1) == 0
+                ? SnakeGameLogic.Direction.RIGHT : SnakeGameLogic.Direction.LEFT;
+        if ((length - 1) % width == 0 && length > 1) {
+            heading = SnakeGameLogic.Direction.DOWN;
+        }
+        logic.placeSnake(cells, length, heading);
+
+        GameConfig config = GameConfig.getInstance();
+        int foods = 0;
+        int obstacles = 0;
+        int foodTarget = scenario.items == Items.DENSE ? width * scenario.gridHeight / 20 : config.maxFoodItems;
+        int obstacleTarget = scenario.items == Items.DENSE ? width * scenario.gridHeight / 20 : config.maxObstacles;
+        if (scenario.items == Items.NONE) {
+            foodTarget = 0;
+            obstacleTarget = 0;
+        }
+        FoodType[] foodTypes = FoodType.values();
+        ObstacleType[] obstacleTypes = ObstacleType.values();
+        int cellCount = width * scenario.gridHeight;
+        // Fixed stride walk so every run places items on the same cells
+        for (int step = 0, cell = 0; step < cellCount && (foods < foodTarget || obstacles < obstacleTarget); step++) {
+            cell = (cell + 7919) % cellCount;
+            int x = cell % width;
+            int y = cell / width;
+            if (foods < foodTarget) {
+                if (logic.placeFood(x, y, foodTypes[foods % foodTypes.length])) foods++;
+            } else if (logic.placeObstacle(x, y, obstacleTypes[obstacles % obstacleTypes.length])) {
+                obstacles++;
+            }
+        }
+
+        if (scenario.overlay == Overlay.GAME_OVER) {
+            // Reversing into the neck ends the run on the next tick
+            SnakeGameLogic.Direction back = opposite(heading);
+            if (length > 1) {
+                logic.placeSnake(cells, length, back);
+                logic.update();
+            }
+        }
+    }
+
+    private static SnakeGameLogic.Direction opposite(SnakeGameLogic.Direction direction) {
+        switch (direction) {
+            case UP: return SnakeGameLogic.Direction.DOWN;
+            case DOWN: return SnakeGameLogic.Direction.UP;
+            case LEFT: return SnakeGameLogic.Direction.RIGHT;
+            default: return SnakeGameLogic.Direction.LEFT;
+        }
+    }
+
+    /**
+     * Sprites are rasterized in the background as in the app; wait so every
+     * scenario draws the same bitmaps a warmed-up device would
+     */
+    private static void awaitGraphics(Context context) {
+        WarmUpCache cache = WarmUpCache.getInstance();
+        cache.start(context);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!cache.isGraphicsReady() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Canvas that counts draw calls reaching it
+     */
+    private static final class CountingCanvas extends Canvas {
+        long calls;
+
+        CountingCanvas(Bitmap bitmap) {
+            super(bitmap);
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+            calls++;
+            super.drawBitmap(bitmap, left, top, paint);
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+            calls++;
+            super.drawBitmap(bitmap, src, dst, paint);
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+            calls++;
+            super.drawBitmap(bitmap, src, dst, paint);
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
+            calls++;
+            super.drawBitmap(bitmap, matrix, paint);
+        }
+
+        @Override
+        public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+            calls++;
+            super.drawRect(left, top, right, bottom, paint);
+        }
+
+        @Override
+        public void drawRect(Rect rect, Paint paint) {
+            calls++;
+            super.drawRect(rect, paint);
+        }
+
+        @Override
+        public void drawRect(RectF rect, Paint paint) {
+            calls++;
+            super.drawRect(rect, paint);
+        }
+
+        @Override
+        public void drawPath(Path path, Paint paint) {
+            calls++;
+            super.drawPath(path, paint);
+        }
+
+        @Override
+        public void drawText(String text, float x, float y, Paint paint) {
+            calls++;
+            super.drawText(text, x, y, paint);
+        }
+
+        @Override
+        public void drawCircle(float cx, float cy, float radius, Paint paint) {
+            calls++;
+            super.drawCircle(cx, cy, radius, paint);
+        }
+
+        @Override
+        public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+            calls++;
+            super.drawLine(startX, startY, stopX, stopY, paint);
+        }
+    }
+}
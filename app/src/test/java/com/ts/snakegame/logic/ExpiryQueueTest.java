@@ -0,0 +1,147 @@
+package com.ts.snakegame.logic;
+
+import com.ts.snakegame.model.ItemStore;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * ExpiryQueue heap order, cancellation of arbitrary entries and stale handles
+ * Handles come from a real ItemStore so ids and generations are realistic
+ */
+public class ExpiryQueueTest {
+
+    private static final int CELLS = 4096;
+
+    private ItemStore store;
+    private ExpiryQueue queue;
+
+    @Before
+    public void setUp() {
+        store = new ItemStore(64, CELLS, 4);
+        queue = new ExpiryQueue(4);
+    }
+
+    @Test
+    public void pollsInExpiryOrder() {
+        Random random = new Random(5);
+        Map<Integer, Long> tickByHandle = new HashMap<>();
+        List<Long> expected = new ArrayList<>();
+        for (int cell = 0; cell < 1000; cell++) {
+            int handle = store.add(cell, 0, 0, 0);
+            long tick = random.nextInt(200);
+            queue.schedule(handle, tick);
+            tickByHandle.put(handle, tick);
+            expected.add(tick);
+        }
+        Collections.sort(expected);
+
+        List<Long> polled = new ArrayList<>();
+        int handle;
+        while ((handle = queue.pollDue(Long.MAX_VALUE)) != ItemStore.NO_HANDLE) {
+            polled.add(tickByHandle.remove(handle));
+        }
+        assertEquals(expected, polled);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void pollDueStopsAtTheGivenTick() {
+        int early = store.add(1, 0, 0, 0);
+        int due = store.add(2, 0, 0, 0);
+        int late = store.add(3, 0, 0, 0);
+        queue.schedule(late, 30);
+        queue.schedule(early, 10);
+        queue.schedule(due, 20);
+
+        assertEquals(ItemStore.NO_HANDLE, queue.pollDue(9));
+        assertEquals(early, queue.pollDue(20));
+        assertEquals(due, queue.pollDue(20));
+        assertEquals(ItemStore.NO_HANDLE, queue.pollDue(20));
+        assertEquals(1, queue.size());
+        assertEquals(30, queue.getExpiryTick(late));
+    }
+
+    @Test
+    public void cancellingArbitraryEntriesKeepsHeapOrder() {
+        Random random = new Random(9);
+        Map<Integer, Long> scheduled = new HashMap<>();
+        for (int cell = 0; cell < 2000; cell++) {
+            int handle = store.add(cell, 0, 0, 0);
+            long tick = random.nextInt(500);
+            queue.schedule(handle, tick);
+            scheduled.put(handle, tick);
+        }
+        // Cancel a random half, including entries deep inside the heap
+        List<Integer> handles = new ArrayList<>(scheduled.keySet());
+        Collections.shuffle(handles, random);
+        for (int handle : handles.subList(0, handles.size() / 2)) {
+            queue.cancel(handle);
+            scheduled.remove(handle);
+            assertEquals(-1, queue.getExpiryTick(handle));
+        }
+        // And move some of the rest
+        for (int handle : handles.subList(handles.size() / 2, handles.size() * 3 / 4)) {
+            long tick = random.nextInt(500);
+            queue.schedule(handle, tick);
+            scheduled.put(handle, tick);
+        }
+        assertEquals(scheduled.size(), queue.size());
+        for (Map.Entry<Integer, Long> entry : scheduled.entrySet()) {
+            assertEquals((long) entry.getValue(), queue.getExpiryTick(entry.getKey()));
+        }
+
+        long previous = Long.MIN_VALUE;
+        int handle;
+        while ((handle = queue.pollDue(Long.MAX_VALUE)) != ItemStore.NO_HANDLE) {
+            Long tick = scheduled.remove(handle);
+            assertNotNull(tick);
+            assertTrue("Out of order: " + tick + " after " + previous, tick >= previous);
+            previous = tick;
+        }
+        assertTrue("Entries lost: " + scheduled, scheduled.isEmpty());
+    }
+
+    @Test
+    public void staleHandleDoesNotTouchTheSlotsNewItem() {
+        int old = store.add(7, 0, 0, 0);
+        queue.schedule(old, 50);
+        queue.cancel(old);
+        store.remove(old);
+
+        // Same slot id, new generation
+        int reused = store.add(8, 0, 0, 0);
+        assertEquals(ItemStore.idOf(old), ItemStore.idOf(reused));
+        queue.schedule(reused, 60);
+
+        queue.cancel(old);
+        assertEquals(-1, queue.getExpiryTick(old));
+        assertEquals(60, queue.getExpiryTick(reused));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void clearEmptiesTheQueue() {
+        int a = store.add(1, 0, 0, 0);
+        int b = store.add(2, 0, 0, 0);
+        queue.schedule(a, 5);
+        queue.schedule(b, 6);
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertEquals(-1, queue.getExpiryTick(a));
+        assertEquals(ItemStore.NO_HANDLE, queue.pollDue(Long.MAX_VALUE));
+
+        // Usable again afterwards
+        queue.schedule(b, 3);
+        assertEquals(b, queue.pollDue(3));
+    }
+}
@@ -0,0 +1,226 @@
+package com.ts.snakegame.logic;
+
+import android.graphics.Point;
+
+import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.model.ItemStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stepping the engine back, checked against a second engine that replays
+ * the same seed and inputs up to the tick the rewind landed on
+ * Robolectric only supplies android.graphics.Point for the engine
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class RewindJournalTest {
+
+    private static final int WIDTH = 24;
+    private static final int HEIGHT = 18;
+    private static final long SEED = 17;
+    /** Game time per tick on the fake clock */
+    private static final long TICK_MS = 100;
+
+    private GameConfig config;
+
+    @Before
+    public void setUp() {
+        config = GameConfig.getInstance();
+        config.resetToDefaults();
+        // Room for several items; spawn timers and expiry run on the fake clock
+        config.maxFoodItems = 5;
+        config.maxObstacles = 8;
+    }
+
+    @After
+    public void tearDown() {
+        config.resetToDefaults();
+    }
+
+    /**
+     * Engine plus its fake clock and the inputs it was given, one per tick
+     */
+    private static final class Run {
+        final SnakeGameLogic game = new SnakeGameLogic(WIDTH, HEIGHT, SEED);
+        final List<SnakeGameLogic.Direction> inputs = new ArrayList<>();
+        long now;
+
+        Run() {
+            game.setClock(() -> now);
+            game.reset();
+        }
+
+        void step(SnakeGameLogic.Direction input) {
+            if (input != null) {
+                game.setDirection(input);
+            }
+            inputs.add(input);
+            now += TICK_MS;
+            game.update();
+        }
+
+        /**
+         * Fresh engine given this run's first inputs, one per tick
+         * Stepping back restores the state from just before the next tick ran,
+         * including the turn queued for it, so that turn is queued here too
+         */
+        Run replay(int ticks) {
+            Run copy = new Run();
+            for (int i = 0; i < ticks; i++) {
+                copy.step(inputs.get(i));
+            }
+            if (ticks < inputs.size() && inputs.get(ticks) != null) {
+                copy.game.setDirection(inputs.get(ticks));
+            }
+            return copy;
+        }
+    }
+
+    @Test
+    public void stepBackMatchesReplayedGame() {
+        config.wrapAroundMode = true;
+        config.selfCollisionEnabled = false;
+        config.obstacleCollisionEnabled = false;
+        Run run = new Run();
+        Random random = new Random(1);
+        for (int i = 0; i < 300; i++) {
+            run.step(randomInput(random));
+        }
+        assertFalse(run.game.isGameOver());
+
+        for (int back = 1; back <= 120; back++) {
+            assertTrue(run.game.stepBack());
+            assertEquals(300 - back, run.game.getTick());
+            if (back % 20 == 0) {
+                assertSameState(run.replay(300 - back).game, run.game);
+            }
+        }
+
+        // Play on from the rewound state: RNG and spawn timers continue as in the replay
+        Run replay = run.replay(180);
+        run.now = replay.now;
+        for (int i = 0; i < 100; i++) {
+            SnakeGameLogic.Direction input = randomInput(random);
+            run.step(input);
+            replay.step(input);
+            assertSameState(replay.game, run.game);
+        }
+    }
+
+    @Test
+    public void rewindTakesBackGameTime() {
+        config.wrapAroundMode = true;
+        config.selfCollisionEnabled = false;
+        Run run = new Run();
+        Random random = new Random(2);
+        for (int i = 0; i < 200 && !run.game.isGameOver(); i++) {
+            run.step(randomInput(random));
+        }
+        long played = run.game.getTick();
+
+        // The newest tick started at (played - 1) * TICK_MS, so 3 s cover 31 tick starts
+        int steps = run.game.rewind(3000);
+        assertEquals(31, steps);
+        assertEquals(played - 31, run.game.getTick());
+        assertSameState(run.replay((int) (played - 31)).game, run.game);
+    }
+
+    @Test
+    public void stepBackUndoesTheTickThatEndedTheGame() {
+        Run run = new Run();
+        Random random = new Random(3);
+        while (!run.game.isGameOver()) {
+            assertTrue("Game never ended", run.inputs.size() < 10_000);
+            run.step(randomInput(random));
+        }
+        int ended = run.inputs.size();
+
+        assertTrue(run.game.stepBack());
+        assertFalse(run.game.isGameOver());
+        assertSameState(run.replay(ended - 1).game, run.game);
+    }
+
+    @Test
+    public void overwrittenTicksCannotBeUndone() {
+        config.wrapAroundMode = true;
+        config.selfCollisionEnabled = false;
+        config.obstacleCollisionEnabled = false;
+        config.rewindJournalSize = 2000;
+        Run run = new Run();
+        Random random = new Random(4);
+        for (int i = 0; i < 500; i++) {
+            run.step(randomInput(random));
+        }
+
+        int steps = 0;
+        while (run.game.stepBack()) {
+            steps++;
+        }
+        assertTrue("Stepped back " + steps, steps > 0 && steps < 500);
+        assertFalse(run.game.canStepBack());
+        // The oldest tick still held is restored exactly
+        assertSameState(run.replay(500 - steps).game, run.game);
+    }
+
+    private static SnakeGameLogic.Direction randomInput(Random random) {
+        if (random.nextInt(4) != 0) {
+            return null;
+        }
+        SnakeGameLogic.Direction[] directions = SnakeGameLogic.Direction.values();
+        return directions[random.nextInt(directions.length)];
+    }
+
+    private static void assertSameState(SnakeGameLogic expected, SnakeGameLogic actual) {
+        assertEquals(describe(expected), describe(actual));
+        assertEquals(expected.getStateHash(), actual.getStateHash());
+    }
+
+    /**
+     * Everything a player can see or that decides the next ticks, as text
+     */
+    private static String describe(SnakeGameLogic game) {
+        StringBuilder text = new StringBuilder();
+        text.append("tick=").append(game.getTick())
+                .append(" score=").append(game.getScore())
+                .append(" speed=").append(game.getCurrentSpeed())
+                .append(" direction=").append(game.getDirection())
+                .append(" gameOver=").append(game.isGameOver())
+                .append(" tail=").append(game.getPreviousTailX()).append(',').append(game.getPreviousTailY())
+                .append("\nsnake=");
+        for (int i = 0; i < game.getSnakeLength(); i++) {
+            Point segment = game.getSnakeSegment(i);
+            text.append(segment.x).append(',').append(segment.y).append(' ');
+        }
+        text.append("\nfoods=").append(items(game, game.getFoodStore(), true));
+        text.append("\nobstacles=").append(items(game, game.getObstacleStore(), false));
+        return text.toString();
+    }
+
+    /**
+     * Items sorted by cell (store order depends on removal history)
+     */
+    private static List<String> items(SnakeGameLogic game, ItemStore store, boolean foods) {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < store.size(); i++) {
+            int handle = store.handleAt(i);
+            long expiry = foods ? game.getFoodExpiryTick(handle) : game.getObstacleExpiryTick(handle);
+            items.add(String.format("%05d:%d:%d:%d", store.cellAt(i), store.typeAt(i),
+                    store.spawnTickAt(i), expiry));
+        }
+        Collections.sort(items);
+        return items;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ts.snakegame.logic;
+
+import com.ts.snakegame.config.GameConfig;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * SnapshotExchange under a real writer and reader thread
+ * Robolectric only supplies android.graphics.Point for the engine
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SnapshotExchangeTest {
+
+    private static final int WIDTH = 40;
+    private static final int HEIGHT = 30;
+    private static final int TICKS = 50_000;
+
+    @Before
+    public void setUp() {
+        // Endless game: ticks only ever grow, so every snapshot can be checked against its tick
+        GameConfig config = GameConfig.getInstance();
+        config.resetToDefaults();
+        config.wrapAroundMode = true;
+        config.selfCollisionEnabled = false;
+        config.obstaclesEnabled = false;
+        config.markChanged();
+    }
+
+    @After
+    public void tearDown() {
+        GameConfig.getInstance().resetToDefaults();
+    }
+
+    @Test
+    public void readerSeesWholeSnapshotsInTickOrder() throws InterruptedException {
+        SnakeGameLogic game = new SnakeGameLogic(WIDTH, HEIGHT, 7);
+        SnapshotExchange exchange = new SnapshotExchange();
+        exchange.publish(game, game.getTick());
+
+        AtomicReference<Throwable> writerFailure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                SnakeGameLogic.Direction[] directions = SnakeGameLogic.Direction.values();
+                Random random = new Random(3);
+                for (int i = 0; i < TICKS; i++) {
+                    if (random.nextInt(4) == 0) {
+                        game.setDirection(directions[random.nextInt(directions.length)]);
+                    }
+                    game.update();
+                    // Uptime mirrors the tick, so a mix of two ticks shows up as a mismatch
+                    exchange.publish(game, game.getTick());
+                }
+            } catch (Throwable t) {
+                writerFailure.set(t);
+            }
+        }, "snapshot-writer");
+        writer.start();
+
+        long lastTick = -1;
+        long reads = 0;
+        while (writer.isAlive() || lastTick < TICKS) {
+            RenderSnapshot snapshot = exchange.acquire();
+            reads++;
+            long tick = snapshot.getTick();
+            assertTrue("Went back from tick " + lastTick + " to " + tick, tick >= lastTick);
+            assertEquals("Fields from two ticks", tick, snapshot.getTickUptime());
+            assertContiguous(snapshot);
+            lastTick = tick;
+            if (!writer.isAlive() && writerFailure.get() != null) {
+                break;
+            }
+        }
+        writer.join();
+        assertNull("Writer failed", writerFailure.get());
+        assertEquals(TICKS, lastTick);
+        assertTrue(reads > 1);
+    }
+
+    @Test
+    public void acquiredSnapshotStaysUntilNextAcquire() {
+        SnakeGameLogic game = new SnakeGameLogic(WIDTH, HEIGHT, 7);
+        SnapshotExchange exchange = new SnapshotExchange();
+        exchange.publish(game, 0);
+        RenderSnapshot held = exchange.acquire();
+        assertEquals(0, held.getTick());
+
+        // The writer keeps going while the reader holds its snapshot
+        for (int i = 0; i < 5; i++) {
+            game.update();
+            exchange.publish(game, game.getTick());
+        }
+        assertEquals(0, held.getTick());
+        assertEquals(0, held.getTickUptime());
+
+        RenderSnapshot newest = exchange.acquire();
+        assertEquals(5, newest.getTick());
+        assertSame(newest, exchange.acquire());
+    }
+
+    /**
+     * Each segment is one step (wrapping) from the previous one
+     */
+    private static void assertContiguous(RenderSnapshot snapshot) {
+        for (int i = 1; i < snapshot.getSnakeLength(); i++) {
+            int dx = Math.abs(snapshot.getSegmentX(i) - snapshot.getSegmentX(i - 1));
+            int dy = Math.abs(snapshot.getSegmentY(i) - snapshot.getSegmentY(i - 1));
+            if (dx == WIDTH - 1) dx = 1;
+            if (dy == HEIGHT - 1) dy = 1;
+            assertTrue("Torn body at tick " + snapshot.getTick() + " segment " + i, dx + dy <= 1);
+        }
+    }
+}
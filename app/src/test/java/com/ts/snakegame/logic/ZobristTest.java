@@ -0,0 +1,178 @@
+package com.ts.snakegame.logic;
+
+import android.graphics.Point;
+
+import com.ts.snakegame.config.GameConfig;
+import com.ts.snakegame.model.FoodType;
+import com.ts.snakegame.model.ItemStore;
+import com.ts.snakegame.model.ObstacleType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * The incrementally kept state hash against one recomputed from scratch
+ * Robolectric only supplies android.graphics.Point for the engine
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class ZobristTest {
+
+    private static final int WIDTH = 20;
+    private static final int HEIGHT = 15;
+    private static final int TICKS = 500;
+
+    // Config values resetToDefaults() leaves alone, restored after each test
+    private int foodSpawnInterval;
+    private int obstacleSpawnInterval;
+    private Set<FoodType> enabledFoodTypes;
+    private Set<ObstacleType> enabledObstacleTypes;
+
+    @Before
+    public void setUp() {
+        GameConfig config = GameConfig.getInstance();
+        config.resetToDefaults();
+        foodSpawnInterval = config.foodSpawnInterval;
+        obstacleSpawnInterval = config.obstacleSpawnInterval;
+        enabledFoodTypes = EnumSet.copyOf(config.enabledFoodTypes);
+        enabledObstacleTypes = EnumSet.copyOf(config.enabledObstacleTypes);
+
+        // Busy board: every item type, moving obstacles, frequent spawns
+        config.foodSpawnInterval = 0;
+        config.obstacleSpawnInterval = 0;
+        config.maxFoodItems = 6;
+        config.maxObstacles = 12;
+        config.enabledFoodTypes.addAll(EnumSet.allOf(FoodType.class));
+        config.enabledObstacleTypes.addAll(EnumSet.allOf(ObstacleType.class));
+        config.wrapAroundMode = true;
+        config.markChanged();
+    }
+
+    @After
+    public void tearDown() {
+        GameConfig config = GameConfig.getInstance();
+        config.foodSpawnInterval = foodSpawnInterval;
+        config.obstacleSpawnInterval = obstacleSpawnInterval;
+        config.enabledFoodTypes.retainAll(enabledFoodTypes);
+        config.enabledObstacleTypes.retainAll(enabledObstacleTypes);
+        config.resetToDefaults();
+    }
+
+    @Test
+    public void incrementalHashMatchesRecomputedHash() {
+        for (int seed = 0; seed < 20; seed++) {
+            SnakeGameLogic game = new SnakeGameLogic(WIDTH, HEIGHT, seed);
+            Random input = new Random(seed);
+            assertEquals(recompute(game), game.getStateHash());
+            for (int tick = 0; tick < TICKS; tick++) {
+                steer(game, input);
+                if (game.isGameOver()) {
+                    game.reset();
+                } else {
+                    game.update();
+                }
+                assertEquals("Seed " + seed + " tick " + game.getTick(), recompute(game), game.getStateHash());
+            }
+        }
+    }
+
+    @Test
+    public void hashMatchesAfterSteppingBack() {
+        SnakeGameLogic game = new SnakeGameLogic(WIDTH, HEIGHT, 42);
+        Random input = new Random(42);
+        List<Long> history = new ArrayList<>();
+        history.add(game.getStateHash());
+        for (int tick = 0; tick < 200 && !game.isGameOver(); tick++) {
+            steer(game, input);
+            game.update();
+            history.add(game.getStateHash());
+        }
+        while (history.size() > 1 && game.stepBack()) {
+            history.remove(history.size() - 1);
+            long expected = history.get(history.size() - 1);
+            assertEquals(expected, game.getStateHash());
+            assertEquals(expected, recompute(game));
+        }
+    }
+
+    @Test
+    public void equalGamesHashEqualAndDifferentGamesDiffer() {
+        SnakeGameLogic a = new SnakeGameLogic(WIDTH, HEIGHT, 3);
+        SnakeGameLogic b = new SnakeGameLogic(WIDTH, HEIGHT, 3);
+        SnakeGameLogic other = new SnakeGameLogic(WIDTH, HEIGHT, 4);
+        for (int tick = 0; tick < 50 && !a.isGameOver(); tick++) {
+            a.update();
+            b.update();
+            other.update();
+            assertEquals(a.getStateHash(), b.getStateHash());
+        }
+        assertNotEquals(a.getStateHash(), other.getStateHash());
+    }
+
+    private static void steer(SnakeGameLogic game, Random input) {
+        if (input.nextInt(3) == 0) {
+            SnakeGameLogic.Direction[] directions = SnakeGameLogic.Direction.values();
+            game.setDirection(directions[input.nextInt(directions.length)]);
+        }
+    }
+
+    /**
+     * State hash built from the visible state alone, as documented on getStateHash()
+     */
+    private static long recompute(SnakeGameLogic game) {
+        int width = game.getGridWidth();
+        int height = game.getGridHeight();
+        long hash = 0;
+
+        // Body cells, each further segment on the same cell one level up
+        Map<Integer, Integer> stacked = new HashMap<>();
+        for (int i = 0; i < game.getSnakeLength(); i++) {
+            Point segment = game.getSnakeSegment(i);
+            if (segment.x < 0 || segment.y < 0 || segment.x >= width || segment.y >= height) {
+                continue;
+            }
+            int cell = segment.y * width + segment.x;
+            int level = stacked.merge(cell, 1, Integer::sum);
+            hash ^= Zobrist.key(cell, Zobrist.SNAKE_LEVEL + level);
+        }
+
+        OccupancyGrid grid = game.getOccupancyGrid();
+        for (int cell = 0; cell < width * height; cell++) {
+            if (grid.getItem(cell) != OccupancyGrid.EMPTY) {
+                hash ^= Zobrist.key(cell, grid.getItem(cell));
+            }
+        }
+
+        MovingObstacles movers = game.getMovingObstacles();
+        ItemStore obstacles = game.getObstacleStore();
+        for (int i = 0; i < obstacles.size(); i++) {
+            int slot = movers.slotOf(obstacles.handleAt(i));
+            if (slot >= 0) {
+                hash ^= Zobrist.key(movers.anchorAt(slot), Zobrist.MOVER_SHAPE + movers.shapeAt(slot))
+                        ^ Zobrist.key(obstacles.cellAt(i), Zobrist.MOVER_PHASE + movers.phaseAt(slot));
+            }
+        }
+
+        Point head = game.getSnakeSegment(0);
+        Point tail = game.getSnakeSegment(game.getSnakeLength() - 1);
+        hash ^= Zobrist.key(head.y * width + head.x, Zobrist.HEAD)
+                ^ Zobrist.key(tail.y * width + tail.x, Zobrist.TAIL)
+                ^ Zobrist.key(game.getDirection().ordinal(), Zobrist.DIRECTION)
+                ^ Zobrist.key(game.getScore(), Zobrist.SCORE);
+        return game.isGameOver() ? hash ^ Zobrist.key(0, Zobrist.GAME_OVER) : hash;
+    }
+}
@@ -0,0 +1,139 @@
+package com.ts.snakegame.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * ItemStore swap-removal and generation-tagged handles
+ */
+public class ItemStoreTest {
+
+    private static final int WIDTH = 10;
+    private static final int CELLS = 100;
+
+    private ItemStore store;
+
+    @Before
+    public void setUp() {
+        store = new ItemStore(WIDTH, CELLS, 4);
+    }
+
+    @Test
+    public void removeSwapsLastItemIntoTheGap() {
+        int[] handles = new int[5];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = store.add(10 + i, i, i, i * 100L);
+        }
+        assertTrue(store.remove(handles[1]));
+
+        assertEquals(4, store.size());
+        // The last item now sits at the removed item's index, with all its fields
+        assertEquals(1, store.indexOf(handles[4]));
+        assertEquals(14, store.cellAt(1));
+        assertEquals(4, store.typeAt(1));
+        assertEquals(4, store.spawnTickAt(1));
+        assertEquals(400L, store.spawnTimeAt(1));
+        assertEquals(handles[4], store.handleAt(1));
+
+        // Every other handle still finds its own item
+        for (int i : new int[] {0, 2, 3, 4}) {
+            assertTrue(store.isValid(handles[i]));
+            assertEquals(10 + i, store.cellAt(store.indexOf(handles[i])));
+            assertEquals(handles[i], store.findByCell(10 + i));
+        }
+        assertEquals(ItemStore.NO_HANDLE, store.findByCell(11));
+    }
+
+    @Test
+    public void removedHandleStaysStaleAfterItsSlotIsReused() {
+        int first = store.add(5, 0, 0, 0);
+        assertTrue(store.remove(first));
+        assertFalse(store.isValid(first));
+        assertFalse("Second remove of the same handle", store.remove(first));
+
+        int second = store.add(6, 1, 0, 0);
+        assertEquals("Slot id is reused", ItemStore.idOf(first), ItemStore.idOf(second));
+        assertNotEquals(first, second);
+        assertFalse(store.isValid(first));
+        assertTrue(store.isValid(second));
+        assertFalse(store.remove(first));
+        assertEquals(1, store.size());
+        try {
+            store.indexOf(first);
+            fail("Stale handle resolved");
+        } catch (IllegalStateException expected) {
+            // Stale handles never reach another item
+        }
+    }
+
+    @Test
+    public void clearInvalidatesEveryHandle() {
+        List<Integer> handles = new ArrayList<>();
+        for (int cell = 0; cell < 20; cell++) {
+            handles.add(store.add(cell, 0, 0, 0));
+        }
+        store.clear();
+        assertEquals(0, store.size());
+        for (int cell = 0; cell < 20; cell++) {
+            assertFalse(store.isValid(handles.get(cell)));
+            assertEquals(ItemStore.NO_HANDLE, store.findByCell(cell));
+        }
+    }
+
+    @Test
+    public void moveKeepsHandleAndUpdatesCellLookup() {
+        int handle = store.add(3, 2, 0, 0);
+        store.move(handle, 47);
+        assertTrue(store.isValid(handle));
+        assertEquals(47, store.cellAt(store.indexOf(handle)));
+        assertEquals(handle, store.findByCell(47));
+        assertEquals(ItemStore.NO_HANDLE, store.findByCell(3));
+    }
+
+    @Test
+    public void randomOperationsMatchAMap() {
+        Random random = new Random(11);
+        Map<Integer, Integer> cellByHandle = new HashMap<>();
+        List<Integer> removed = new ArrayList<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            int cell = random.nextInt(CELLS);
+            int occupant = store.findByCell(cell);
+            int action = random.nextInt(3);
+            if (occupant == ItemStore.NO_HANDLE && action == 0) {
+                cellByHandle.put(store.add(cell, cell % 5, step, step), cell);
+            } else if (occupant != ItemStore.NO_HANDLE && action == 1) {
+                assertTrue(store.remove(occupant));
+                cellByHandle.remove(occupant);
+                removed.add(occupant);
+            } else if (occupant == ItemStore.NO_HANDLE && action == 2 && !cellByHandle.isEmpty()) {
+                int handle = store.handleAt(random.nextInt(store.size()));
+                store.move(handle, cell);
+                cellByHandle.put(handle, cell);
+            }
+        }
+
+        assertEquals(cellByHandle.size(), store.size());
+        for (Map.Entry<Integer, Integer> item : cellByHandle.entrySet()) {
+            int handle = item.getKey();
+            assertTrue(store.isValid(handle));
+            assertEquals((int) item.getValue(), store.cellAt(store.indexOf(handle)));
+            assertEquals(handle, store.findByCell(item.getValue()));
+        }
+        for (int handle : removed) {
+            assertFalse(store.isValid(handle));
+        }
+        // Dense arrays hold exactly the live items
+        for (int i = 0; i < store.size(); i++) {
+            assertEquals(cellByHandle.get(store.handleAt(i)).intValue(), store.cellAt(i));
+        }
+    }
+}
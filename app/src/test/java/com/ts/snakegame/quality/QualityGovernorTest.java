@@ -0,0 +1,211 @@
+package com.ts.snakegame.quality;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * QualityGovernor against scripted device conditions and a fake clock
+ */
+public class QualityGovernorTest {
+
+    private static final long SECOND = QualityGovernor.EVALUATE_INTERVAL_MS;
+
+    /** Device state the tests set directly */
+    private static final class ScriptedConditions implements DeviceConditions {
+        int thermalStatus = THERMAL_NONE;
+        boolean powerSave;
+
+        @Override
+        public int getThermalStatus() {
+            return thermalStatus;
+        }
+
+        @Override
+        public boolean isPowerSaveMode() {
+            return powerSave;
+        }
+    }
+
+    private ScriptedConditions conditions;
+    private QualityGovernor governor;
+    private List<QualityLevel> changes;
+    private long now;
+
+    @Before
+    public void setUp() {
+        conditions = new ScriptedConditions();
+        governor = new QualityGovernor(conditions);
+        changes = new ArrayList<>();
+        governor.setListener(changes::add);
+        now = 0;
+    }
+
+    @Test
+    public void dropsAtOnceUnderPressure() {
+        conditions.powerSave = true;
+        tick();
+        assertEquals(QualityLevel.BALANCED, governor.getLevel());
+
+        conditions.thermalStatus = DeviceConditions.THERMAL_SEVERE;
+        tick();
+        assertEquals(QualityLevel.SAVER, governor.getLevel());
+
+        conditions.thermalStatus = DeviceConditions.THERMAL_CRITICAL;
+        tick();
+        assertEquals(QualityLevel.MINIMAL, governor.getLevel());
+        assertEquals(List.of(QualityLevel.BALANCED, QualityLevel.SAVER, QualityLevel.MINIMAL), changes);
+    }
+
+    @Test
+    public void slowFramesDropOneLevel() {
+        long slow = QualityGovernor.SLOW_FRAME_NANOS * 2;
+        // One window of slow frames
+        frames(QualityGovernor.MIN_FRAMES, slow);
+        assertEquals(QualityLevel.BALANCED, governor.getLevel());
+
+        // Too few frames to judge: no drop
+        frames(2, slow);
+        assertEquals(QualityLevel.BALANCED, governor.getLevel());
+    }
+
+    @Test
+    public void raisesOneStepAfterHold() {
+        conditions.thermalStatus = DeviceConditions.THERMAL_CRITICAL;
+        tick();
+        assertEquals(QualityLevel.MINIMAL, governor.getLevel());
+
+        conditions.thermalStatus = DeviceConditions.THERMAL_NONE;
+        long cleared = now;
+        while (now - cleared < QualityGovernor.MIN_RAISE_HOLD_MS) {
+            tick();
+            assertEquals(QualityLevel.MINIMAL, governor.getLevel());
+        }
+        tick();
+        assertEquals("One step per hold", QualityLevel.SAVER, governor.getLevel());
+
+        // Fast frames keep allowing more, still one step per hold
+        drawFor(QualityGovernor.MIN_RAISE_HOLD_MS - SECOND, QualityGovernor.FAST_FRAME_NANOS / 2);
+        assertEquals(QualityLevel.SAVER, governor.getLevel());
+        drawFor(2 * SECOND, QualityGovernor.FAST_FRAME_NANOS / 2);
+        assertEquals(QualityLevel.BALANCED, governor.getLevel());
+    }
+
+    @Test
+    public void holdDoublesWhenRaiseIsPremature() {
+        conditions.thermalStatus = DeviceConditions.THERMAL_SEVERE;
+        tick();
+        conditions.thermalStatus = DeviceConditions.THERMAL_NONE;
+        long firstHold = ticksUntilRaise();
+        assertEquals(QualityLevel.BALANCED, governor.getLevel());
+
+        // Pressure returns right after the raise
+        conditions.thermalStatus = DeviceConditions.THERMAL_SEVERE;
+        tick();
+        assertEquals(QualityLevel.SAVER, governor.getLevel());
+        conditions.thermalStatus = DeviceConditions.THERMAL_NONE;
+        long secondHold = ticksUntilRaise();
+
+        conditions.thermalStatus = DeviceConditions.THERMAL_SEVERE;
+        tick();
+        conditions.thermalStatus = DeviceConditions.THERMAL_NONE;
+        long thirdHold = ticksUntilRaise();
+
+        // Each wait is the hold plus the evaluation that starts it
+        assertEquals(QualityGovernor.MIN_RAISE_HOLD_MS + SECOND, firstHold);
+        assertEquals(2 * QualityGovernor.MIN_RAISE_HOLD_MS + SECOND, secondHold);
+        assertEquals(4 * QualityGovernor.MIN_RAISE_HOLD_MS + SECOND, thirdHold);
+    }
+
+    @Test
+    public void holdResetsAfterCalmPeriod() {
+        conditions.thermalStatus = DeviceConditions.THERMAL_SEVERE;
+        tick();
+        conditions.thermalStatus = DeviceConditions.THERMAL_NONE;
+        long firstHold = ticksUntilRaise();
+        conditions.thermalStatus = DeviceConditions.THERMAL_SEVERE;
+        tick();
+        conditions.thermalStatus = DeviceConditions.THERMAL_NONE;
+        ticksUntilRaise();
+
+        // No drop for MAX_RAISE_HOLD_MS: the next flap starts from the shortest hold again
+        while (governor.getLevel() != QualityLevel.FULL) {
+            tick();
+        }
+        now += QualityGovernor.MAX_RAISE_HOLD_MS;
+        tick();
+        conditions.thermalStatus = DeviceConditions.THERMAL_SEVERE;
+        tick();
+        conditions.thermalStatus = DeviceConditions.THERMAL_NONE;
+        assertEquals(firstHold, ticksUntilRaise());
+    }
+
+    @Test
+    public void timerEvaluatesOnlyWhenFramesStop() {
+        conditions.thermalStatus = DeviceConditions.THERMAL_SEVERE;
+        // Frames keep the window going; a timer check inside it changes nothing
+        drawFor(SECOND / 2, QualityGovernor.FAST_FRAME_NANOS);
+        governor.evaluateIfDue(now);
+        assertEquals(QualityLevel.FULL, governor.getLevel());
+
+        // No frames for a whole interval: the timer applies the thermal limit
+        now += SECOND;
+        governor.evaluateIfDue(now);
+        assertEquals(QualityLevel.SAVER, governor.getLevel());
+        assertEquals(List.of(QualityLevel.SAVER), changes);
+    }
+
+    // ===== Helpers =====
+
+    /**
+     * One evaluation a second later, without frames (paused game)
+     */
+    private void tick() {
+        now += SECOND;
+        governor.evaluate(now);
+    }
+
+    /**
+     * Evaluate each second until the level rises
+     * @return Time the raise took
+     */
+    private long ticksUntilRaise() {
+        QualityLevel before = governor.getLevel();
+        long start = now;
+        while (governor.getLevel() == before) {
+            tick();
+            assertTrue("No raise within the longest hold",
+                    now - start <= QualityGovernor.MAX_RAISE_HOLD_MS + SECOND);
+        }
+        assertEquals(before.higher(), governor.getLevel());
+        return now - start;
+    }
+
+    /**
+     * Report count frames of the given cost, the last one closing the window
+     * a second after the first
+     */
+    private void frames(int count, long drawNanos) {
+        long step = (SECOND + count - 2) / (count - 1);
+        governor.onFrame(drawNanos, now);
+        for (int i = 1; i < count; i++) {
+            now += step;
+            governor.onFrame(drawNanos, now);
+        }
+    }
+
+    /**
+     * Report 60 fps frames of the given cost for the given time
+     */
+    private void drawFor(long millis, long drawNanos) {
+        long end = now + millis;
+        while (now < end) {
+            now += 16;
+            governor.onFrame(drawNanos, now);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ts.snakegame.server;
+
+import com.ts.snakegame.config.GameConfig;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * MatchServer with many matches of simulated clients over the loopback transport
+ * Robolectric only supplies android.graphics.Point for the engine
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class MatchServerTest {
+
+    private static final int WIDTH = 30;
+    private static final int HEIGHT = 50;
+    private static final int MATCHES = 100;
+    private static final int PLAYERS_PER_MATCH = 3;
+    private static final long TICK_MS = 20;
+    private static final long RUN_MS = 1000;
+
+    private MatchServer server;
+
+    @Before
+    public void setUp() {
+        GameConfig.getInstance().resetToDefaults();
+        server = new MatchServer(WIDTH, HEIGHT, TICK_MS, 4);
+    }
+
+    @After
+    public void tearDown() {
+        server.shutdown();
+        GameConfig.getInstance().resetToDefaults();
+    }
+
+    @Test
+    public void everyClientGetsPacedStates() throws InterruptedException {
+        List<SimulatedClient> clients = new ArrayList<>();
+        LoopbackTransport transport = new LoopbackTransport(server);
+        long start = System.nanoTime();
+        for (int m = 0; m < MATCHES; m++) {
+            for (int p = 0; p < PLAYERS_PER_MATCH; p++) {
+                SimulatedClient client = new SimulatedClient(m, WIDTH, HEIGHT, m * 1000L + p);
+                LoopbackTransport.Endpoint endpoint = transport.connect(client);
+                client.setSink(endpoint::send);
+                client.join();
+                clients.add(client);
+            }
+        }
+        assertEquals(MATCHES, server.getStats().matches.get());
+        assertEquals(MATCHES * PLAYERS_PER_MATCH, server.getStats().connections.get());
+
+        Thread.sleep(RUN_MS);
+        server.shutdown();
+        assertTrue("Ticks still running", server.awaitTermination(5, TimeUnit.SECONDS));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        ServerStats stats = server.getStats();
+        assertEquals(0, stats.tickErrors.sum());
+        assertEquals(0, stats.framesDropped.sum());
+
+        // One state per player per match tick, and never more ticks than the schedule allows
+        long maxStates = elapsedMs / TICK_MS + 1;
+        long total = 0;
+        for (SimulatedClient client : clients) {
+            assertTrue("Client got no state", client.statesReceived > 0);
+            assertTrue("Burst of " + client.statesReceived + " states in " + elapsedMs + " ms",
+                    client.statesReceived <= maxStates);
+            total += client.statesReceived;
+        }
+        assertEquals(stats.framesSent.sum(), total);
+        assertTrue(stats.ticks.sum() <= MATCHES * maxStates);
+    }
+
+    @Test
+    public void leavingPlayersRetireTheirMatch() throws InterruptedException {
+        LoopbackTransport transport = new LoopbackTransport(server);
+        List<LoopbackTransport.Endpoint> endpoints = new ArrayList<>();
+        for (int m = 0; m < MATCHES; m++) {
+            SimulatedClient client = new SimulatedClient(m, WIDTH, HEIGHT, m);
+            LoopbackTransport.Endpoint endpoint = transport.connect(client);
+            client.setSink(endpoint::send);
+            client.join();
+            endpoints.add(endpoint);
+        }
+        assertEquals(MATCHES, server.getStats().matches.get());
+
+        for (LoopbackTransport.Endpoint endpoint : endpoints) {
+            endpoint.close();
+        }
+        assertEquals(0, server.getStats().connections.get());
+
+        // Idle matches are retired on their next tick
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getStats().matches.get() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(TICK_MS);
+        }
+        assertEquals(0, server.getStats().matches.get());
+    }
+}